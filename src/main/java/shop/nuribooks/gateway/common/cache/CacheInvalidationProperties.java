@@ -0,0 +1,29 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 관리자 변경 요청에 따른 캐시 무효화 설정
+ *
+ * @author nuri
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "response-cache.invalidation")
+public class CacheInvalidationProperties {
+
+	// 태그별 캐시 경로 접두사
+	private Map<String, List<String>> tags = new LinkedHashMap<>();
+
+	// 관리자 경로 접두사별 무효화할 태그
+	private Map<String, List<String>> adminPaths = new LinkedHashMap<>();
+}
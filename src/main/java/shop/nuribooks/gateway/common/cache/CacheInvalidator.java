@@ -0,0 +1,74 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 관리자 경로를 캐시 태그로 바꿔 해당 캐시 항목을 무효화하는 컴포넌트
+ *
+ * <p>
+ * 태그는 캐시 경로 접두사의 묶음이다. 관리자 경로는 가장 긴 접두사 하나가 아니라
+ * 일치하는 모든 접두사의 태그를 모아 무효화하며, 응답 캐시와 ETag 인덱스를 함께 비운다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+	public static final String METRIC_NAME = "response.cache.invalidation";
+
+	private final ResponseCache responseCache;
+	private final ETagIndex etagIndex;
+	private final CacheInvalidationProperties properties;
+	private final MeterRegistry meterRegistry;
+
+	public CacheInvalidator(ResponseCache responseCache, ETagIndex etagIndex,
+		CacheInvalidationProperties properties, MeterRegistry meterRegistry) {
+		this.responseCache = responseCache;
+		this.etagIndex = etagIndex;
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * 관리자 경로에 연결된 태그 조회
+	 *
+	 * @param adminPath 관리자 요청 경로
+	 * @return 무효화할 태그
+	 */
+	public Set<String> tagsFor(String adminPath) {
+		Set<String> tags = new LinkedHashSet<>();
+
+		for (Map.Entry<String, List<String>> entry : properties.getAdminPaths().entrySet()) {
+			if (ResponseCachePolicy.matchesPathPrefix(adminPath, entry.getKey())) {
+				tags.addAll(entry.getValue());
+			}
+		}
+		return tags;
+	}
+
+	/**
+	 * 관리자 경로에 연결된 태그의 캐시 항목 무효화
+	 *
+	 * @param adminPath 관리자 요청 경로
+	 */
+	public void invalidate(String adminPath) {
+		for (String tag : tagsFor(adminPath)) {
+			for (String pathPrefix : properties.getTags().getOrDefault(tag, List.of())) {
+				responseCache.invalidatePrefix(pathPrefix);
+				etagIndex.invalidatePrefix(pathPrefix);
+			}
+			meterRegistry.counter(METRIC_NAME, "tag", tag).increment();
+			log.info("관리자 변경으로 캐시를 무효화합니다. path={}, tag={}", adminPath, tag);
+		}
+	}
+}
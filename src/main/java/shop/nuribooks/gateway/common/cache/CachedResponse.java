@@ -0,0 +1,122 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 캐시에 저장된 응답
+ *
+ * @param status 응답 상태 코드
+ * @param headers 저장 시점의 응답 헤더 (읽기 전용)
+ * @param body 응답 본문
+ * @param storedAt 저장 시각
+ * @param expiresAt 신선도가 끝나는 시각
+ * @param staleUntil 만료 후에도 stale 응답으로 사용할 수 있는 마지막 시각
+ * @param gzipBody 미리 압축한 gzip 본문, 압축 대상이 아니면 null
+ * @author nuri
+ */
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, Instant storedAt, Instant expiresAt,
+	Instant staleUntil, byte[] gzipBody) {
+
+	// 저장하지 않는 응답 헤더, CORS 헤더는 요청마다 CorsWebFilter 가 다시 계산한다
+	private static final Set<String> EXCLUDED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+		"content-length", "set-cookie", "age");
+	private static final String CORS_HEADER_PREFIX = "access-control-";
+
+	/**
+	 * upstream 응답으로 캐시 항목 생성, 연결 관련 헤더와 CORS 헤더는 제외
+	 *
+	 * @param status 응답 상태 코드
+	 * @param headers 응답 헤더
+	 * @param body 응답 본문
+	 * @param storedAt 저장 시각
+	 * @param ttl 신선도 수명
+	 * @return 캐시 항목
+	 */
+	public static CachedResponse of(int status, HttpHeaders headers, byte[] body, Instant storedAt, Duration ttl) {
+		return of(status, headers, body, storedAt, ttl, Duration.ZERO);
+	}
+
+	/**
+	 * stale 기간을 포함한 캐시 항목 생성
+	 *
+	 * @param status 응답 상태 코드
+	 * @param headers 응답 헤더
+	 * @param body 응답 본문
+	 * @param storedAt 저장 시각
+	 * @param ttl 신선도 수명
+	 * @param staleWindow 만료 후 stale 응답으로 사용할 수 있는 기간
+	 * @return 캐시 항목
+	 */
+	public static CachedResponse of(int status, HttpHeaders headers, byte[] body, Instant storedAt, Duration ttl,
+		Duration staleWindow) {
+		HttpHeaders stored = new HttpHeaders();
+		headers.forEach((name, values) -> {
+			String lowerName = name.toLowerCase(Locale.ROOT);
+			if (!EXCLUDED_HEADERS.contains(lowerName) && !lowerName.startsWith(CORS_HEADER_PREFIX)) {
+				stored.addAll(name, values);
+			}
+		});
+		Instant expiresAt = storedAt.plus(ttl);
+		return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body, storedAt, expiresAt,
+			expiresAt.plus(staleWindow), null);
+	}
+
+	/**
+	 * 미리 압축한 gzip 본문을 가진 캐시 항목
+	 *
+	 * @param gzipBody gzip 본문, 압축하지 않았으면 null
+	 * @return 캐시 항목
+	 */
+	public CachedResponse withGzipBody(byte[] gzipBody) {
+		return new CachedResponse(status, headers, body, storedAt, expiresAt, staleUntil, gzipBody);
+	}
+
+	/**
+	 * 주어진 시각에 아직 신선한지 확인
+	 *
+	 * @param now 기준 시각
+	 * @return 만료 전이면 true
+	 */
+	public boolean isFreshAt(Instant now) {
+		return now.isBefore(expiresAt);
+	}
+
+	/**
+	 * 주어진 시각에 신선하거나 stale 응답으로 사용할 수 있는지 확인
+	 *
+	 * @param now 기준 시각
+	 * @return stale 기간이 끝나기 전이면 true
+	 */
+	public boolean isUsableAt(Instant now) {
+		return now.isBefore(staleUntil);
+	}
+
+	/**
+	 * Age 헤더에 사용할 경과 시간
+	 *
+	 * @param now 기준 시각
+	 * @return 저장 후 경과 시간
+	 */
+	public Duration ageAt(Instant now) {
+		Duration age = Duration.between(storedAt, now);
+		return age.isNegative() ? Duration.ZERO : age;
+	}
+
+	/**
+	 * 캐시 용량 계산에 사용하는 대략적인 크기 (바이트)
+	 *
+	 * @return 본문(gzip 본문 포함)과 헤더 크기의 합
+	 */
+	public int weight() {
+		int headerSize = headers.entrySet().stream()
+			.mapToInt(entry -> entry.getKey().length()
+				+ entry.getValue().stream().mapToInt(String::length).sum())
+			.sum();
+		return body.length + (gzipBody != null ? gzipBody.length : 0) + headerSize;
+	}
+}
@@ -0,0 +1,104 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 요청별로 마지막 응답의 ETag 를 기억하는 인덱스
+ *
+ * <p>
+ * 본문은 저장하지 않고 ETag 만 보관한다. 항목이 남아 있는 동안에는 If-None-Match 가 일치하는 요청에
+ * upstream 호출 없이 304 로 응답할 수 있다. 사용자마다 응답이 다를 수 있으므로 X-USER-ID 를 키에 포함한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class ETagIndex {
+
+	public static final String CACHE_NAME = "gateway-etag";
+
+	private final Cache<String, String> cache;
+
+	public ETagIndex(
+		MeterRegistry meterRegistry,
+		@Value("${etag.maximum-size:10000}") long maximumSize,
+		@Value("${etag.ttl:60s}") Duration ttl) {
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfterWrite(ttl)
+			.recordStats()
+			.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * 요청에 대해 기억하고 있는 ETag 조회
+	 *
+	 * @param request 요청
+	 * @return ETag, 없거나 만료되었으면 null
+	 */
+	public String get(ServerHttpRequest request) {
+		return cache.getIfPresent(key(request));
+	}
+
+	/**
+	 * 요청에 대한 최신 ETag 저장
+	 *
+	 * @param request 요청
+	 * @param etag 응답의 ETag
+	 */
+	public void put(ServerHttpRequest request, String etag) {
+		cache.put(key(request), etag);
+	}
+
+	/**
+	 * 요청에 대해 기억하고 있는 ETag 제거
+	 *
+	 * @param request 요청
+	 */
+	public void invalidate(ServerHttpRequest request) {
+		cache.invalidate(key(request));
+	}
+
+	/**
+	 * 경로 접두사 아래의 모든 항목 제거
+	 *
+	 * @param pathPrefix 경로 접두사
+	 */
+	public void invalidatePrefix(String pathPrefix) {
+		cache.asMap().keySet().removeIf(key -> ResponseCachePolicy.matchesPathPrefix(key, pathPrefix));
+	}
+
+	/**
+	 * 모든 항목 제거
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	private static String key(ServerHttpRequest request) {
+		String rawQuery = request.getURI().getRawQuery();
+		String path = request.getURI().getRawPath();
+		String userId = request.getHeaders().getFirst(ResponseCachePolicy.USER_ID_HEADER);
+
+		StringBuilder key = new StringBuilder(path);
+		if (rawQuery != null) {
+			key.append('?').append(rawQuery);
+		}
+		if (userId != null) {
+			key.append('\n').append(userId);
+		}
+		return key.toString();
+	}
+}
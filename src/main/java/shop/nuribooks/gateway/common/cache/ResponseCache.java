@@ -0,0 +1,227 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 게이트웨이 응답 캐시
+ *
+ * <p>
+ * 항목 수가 아닌 바이트 크기로 용량을 제한하며, 퇴출은 Caffeine 의 W-TinyLFU 정책을 따른다.
+ * 응답에 Vary 헤더가 있으면 해당 요청 헤더 값을 키에 포함해 변형별로 따로 저장한다.
+ * 압축 대상 응답은 {@link ResponseCompressor} 로 gzip 본문을 함께 저장해 적중 시 다시 압축하지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class ResponseCache {
+
+	public static final String CACHE_NAME = "gateway-response";
+
+	private final boolean enabled;
+	private final Duration defaultTtl;
+	private final long maxEntrySize;
+	private final ResponseCompressor responseCompressor;
+	private final Cache<String, CachedResponse> cache;
+
+	// 기본 키별 Vary 헤더 이름
+	private final Cache<String, List<String>> varyIndex;
+
+	public ResponseCache(
+		MeterRegistry meterRegistry,
+		ResponseCompressor responseCompressor,
+		@Value("${response-cache.enabled:true}") boolean enabled,
+		@Value("${response-cache.maximum-size:64MB}") DataSize maximumSize,
+		@Value("${response-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+		@Value("${response-cache.default-ttl:30s}") Duration defaultTtl) {
+		this.enabled = enabled;
+		this.defaultTtl = defaultTtl;
+		this.maxEntrySize = maxEntrySize.toBytes();
+		this.responseCompressor = responseCompressor;
+		this.cache = Caffeine.newBuilder()
+			.maximumWeight(maximumSize.toBytes())
+			.weigher((String key, CachedResponse response) -> response.weight())
+			.expireAfter(new ResponseExpiry())
+			.recordStats()
+			.build();
+		this.varyIndex = Caffeine.newBuilder()
+			.maximumSize(10_000)
+			.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+		Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+			.tag("cache", CACHE_NAME)
+			.description("캐시 조회 중 적중 비율")
+			.register(meterRegistry);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public Duration getDefaultTtl() {
+		return defaultTtl;
+	}
+
+	public long getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	/**
+	 * 요청에 해당하는 신선한 응답 조회
+	 *
+	 * @param request 요청
+	 * @return 캐시된 응답, 없거나 만료되었으면 null
+	 */
+	public CachedResponse get(ServerHttpRequest request) {
+		String baseKey = baseKey(request);
+		List<String> vary = varyIndex.getIfPresent(baseKey);
+		CachedResponse cached = cache.getIfPresent(variantKey(baseKey, vary, request.getHeaders()));
+
+		if (cached == null || !cached.isFreshAt(Instant.now())) {
+			return null;
+		}
+		return cached;
+	}
+
+	/**
+	 * 신선도가 지났더라도 stale 기간 안에 있는 응답까지 조회
+	 *
+	 * @param request 요청
+	 * @return 캐시된 응답, 없거나 stale 기간도 지났으면 null
+	 */
+	public CachedResponse getIncludingStale(ServerHttpRequest request) {
+		String baseKey = baseKey(request);
+		List<String> vary = varyIndex.getIfPresent(baseKey);
+		CachedResponse cached = cache.getIfPresent(variantKey(baseKey, vary, request.getHeaders()));
+
+		if (cached == null || !cached.isUsableAt(Instant.now())) {
+			return null;
+		}
+		return cached;
+	}
+
+	/**
+	 * 응답을 캐시에 저장, 저장할 수 없는 응답이면 무시
+	 *
+	 * @param request 응답을 받은 요청
+	 * @param status 응답 상태 코드
+	 * @param headers 응답 헤더
+	 * @param body 응답 본문
+	 * @param ttlOverride 라우트에서 지정한 수명, 없으면 null
+	 * @return 저장한 응답, 저장하지 않았으면 null
+	 */
+	public CachedResponse put(ServerHttpRequest request, int status, HttpHeaders headers, byte[] body,
+		Duration ttlOverride) {
+		return put(request, status, headers, body, ttlOverride, Duration.ZERO);
+	}
+
+	/**
+	 * 만료 후에도 stale 응답으로 쓸 수 있도록 응답을 캐시에 저장, 저장할 수 없는 응답이면 무시
+	 *
+	 * @param request 응답을 받은 요청
+	 * @param status 응답 상태 코드
+	 * @param headers 응답 헤더
+	 * @param body 응답 본문
+	 * @param ttlOverride 라우트에서 지정한 수명, 없으면 null
+	 * @param staleWindow 만료 후 stale 응답으로 보관할 기간
+	 * @return 저장한 응답, 저장하지 않았으면 null
+	 */
+	public CachedResponse put(ServerHttpRequest request, int status, HttpHeaders headers, byte[] body,
+		Duration ttlOverride, Duration staleWindow) {
+		Duration ttl = ResponseCachePolicy.freshnessLifetime(status, headers,
+			ttlOverride != null ? ttlOverride : defaultTtl);
+
+		if (ttl.isZero() || body.length > maxEntrySize) {
+			return null;
+		}
+
+		CachedResponse response = CachedResponse.of(status, headers, body, Instant.now(), ttl, staleWindow)
+			.withGzipBody(responseCompressor.gzip(headers, body));
+
+		String baseKey = baseKey(request);
+		List<String> vary = ResponseCachePolicy.varyHeaders(headers);
+		if (vary.isEmpty()) {
+			varyIndex.invalidate(baseKey);
+		} else {
+			varyIndex.put(baseKey, vary);
+		}
+		cache.put(variantKey(baseKey, vary, request.getHeaders()), response);
+
+		return response;
+	}
+
+	/**
+	 * 경로 접두사 아래의 모든 항목 제거
+	 *
+	 * @param pathPrefix 경로 접두사
+	 */
+	public void invalidatePrefix(String pathPrefix) {
+		cache.asMap().keySet().removeIf(key -> ResponseCachePolicy.matchesPathPrefix(key, pathPrefix));
+		varyIndex.asMap().keySet().removeIf(key -> ResponseCachePolicy.matchesPathPrefix(key, pathPrefix));
+	}
+
+	/**
+	 * 모든 항목 제거
+	 */
+	public void invalidateAll() {
+		cache.invalidateAll();
+		varyIndex.invalidateAll();
+	}
+
+	private static String baseKey(ServerHttpRequest request) {
+		String rawQuery = request.getURI().getRawQuery();
+		String path = request.getURI().getRawPath();
+		return rawQuery == null ? path : path + "?" + rawQuery;
+	}
+
+	private static String variantKey(String baseKey, List<String> vary, HttpHeaders requestHeaders) {
+		if (vary == null || vary.isEmpty()) {
+			return baseKey;
+		}
+
+		StringBuilder key = new StringBuilder(baseKey);
+		for (String name : vary) {
+			key.append('\n').append(name).append('=').append(String.join(",", requestHeaders.getOrEmpty(name)));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * 항목의 수명을 응답의 stale 기간이 끝나는 시각에 맞추는 만료 정책
+	 */
+	private static class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+		@Override
+		public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+			long ttl = Duration.between(Instant.now(), response.staleUntil()).toNanos();
+			return Math.max(ttl, 0L);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, response, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Cache-Control, Vary 해석과 캐시 가능 여부 판단
+ *
+ * @author nuri
+ */
+public final class ResponseCachePolicy {
+
+	public static final String USER_ID_HEADER = "X-USER-ID";
+
+	private ResponseCachePolicy() {
+	}
+
+	/**
+	 * 캐시를 사용할 수 있는 요청인지 확인
+	 *
+	 * <p>
+	 * 인증 정보가 있는 요청은 사용자마다 응답이 다를 수 있으므로 조회도 저장도 하지 않는다.
+	 * </p>
+	 *
+	 * @param request 요청
+	 * @return GET 이고 인증 정보와 no-store 지시자가 없으면 true
+	 */
+	public static boolean isCacheableRequest(ServerHttpRequest request) {
+		HttpHeaders headers = request.getHeaders();
+
+		return HttpMethod.GET.equals(request.getMethod())
+			&& !headers.containsKey(HttpHeaders.AUTHORIZATION)
+			&& !headers.containsKey(USER_ID_HEADER)
+			&& !directives(headers).containsKey("no-store");
+	}
+
+	/**
+	 * 요청이 캐시된 응답을 받아들이는지 확인
+	 *
+	 * @param request 요청
+	 * @return no-cache 나 max-age=0 이 없으면 true
+	 */
+	public static boolean acceptsCachedResponse(ServerHttpRequest request) {
+		Map<String, String> directives = directives(request.getHeaders());
+		return !directives.containsKey("no-cache") && !"0".equals(directives.get("max-age"))
+			&& !"no-cache".equalsIgnoreCase(request.getHeaders().getFirst(HttpHeaders.PRAGMA));
+	}
+
+	/**
+	 * 응답을 얼마나 보관할 수 있는지 계산
+	 *
+	 * @param status 응답 상태 코드
+	 * @param headers 응답 헤더
+	 * @param defaultTtl Cache-Control 에 수명이 없을 때 사용할 기본값
+	 * @return 보관 기간, 저장할 수 없는 응답이면 {@link Duration#ZERO}
+	 */
+	public static Duration freshnessLifetime(int status, HttpHeaders headers, Duration defaultTtl) {
+		if (status != HttpStatus.OK.value()
+			|| headers.containsKey(HttpHeaders.SET_COOKIE)
+			|| varyHeaders(headers).contains("*")) {
+			return Duration.ZERO;
+		}
+
+		Map<String, String> directives = directives(headers);
+		if (directives.containsKey("no-store") || directives.containsKey("no-cache")
+			|| directives.containsKey("private")) {
+			return Duration.ZERO;
+		}
+
+		// 공유 캐시는 s-maxage 를 max-age 보다 우선한다
+		String maxAge = directives.getOrDefault("s-maxage", directives.get("max-age"));
+		if (maxAge == null) {
+			return defaultTtl;
+		}
+
+		try {
+			return Duration.ofSeconds(Math.max(Long.parseLong(maxAge), 0L));
+		} catch (NumberFormatException e) {
+			return Duration.ZERO;
+		}
+	}
+
+	/**
+	 * Vary 헤더에 나열된 요청 헤더 이름
+	 *
+	 * @param headers 응답 헤더
+	 * @return 소문자로 정규화한 헤더 이름 목록
+	 */
+	public static List<String> varyHeaders(HttpHeaders headers) {
+		return headers.getValuesAsList(HttpHeaders.VARY).stream()
+			.map(name -> name.toLowerCase(Locale.ROOT))
+			.distinct()
+			.sorted()
+			.toList();
+	}
+
+	/**
+	 * 캐시 키가 경로 접두사 아래에 있는지 확인, 세그먼트 경계에서만 일치로 본다
+	 *
+	 * @param key 경로로 시작하는 캐시 키
+	 * @param pathPrefix 경로 접두사
+	 * @return /api/books 가 /api/books, /api/books/1, /api/books?page=1 과는 일치하고 /api/books-tags 와는 일치하지 않음
+	 */
+	public static boolean matchesPathPrefix(String key, String pathPrefix) {
+		if (!key.startsWith(pathPrefix)) {
+			return false;
+		}
+		if (key.length() == pathPrefix.length() || pathPrefix.endsWith("/")) {
+			return true;
+		}
+		char next = key.charAt(pathPrefix.length());
+		return next == '/' || next == '?' || next == '\n';
+	}
+
+	/**
+	 * Cache-Control 지시자 파싱
+	 *
+	 * @param headers 요청 또는 응답 헤더
+	 * @return 소문자 지시자 이름과 값, 값이 없는 지시자는 빈 문자열
+	 */
+	static Map<String, String> directives(HttpHeaders headers) {
+		Map<String, String> directives = new HashMap<>();
+
+		for (String directive : headers.getValuesAsList(HttpHeaders.CACHE_CONTROL)) {
+			int separator = directive.indexOf('=');
+			if (separator < 0) {
+				directives.put(directive.toLowerCase(Locale.ROOT), "");
+			} else {
+				String value = directive.substring(separator + 1).trim().replace("\"", "");
+				directives.put(directive.substring(0, separator).trim().toLowerCase(Locale.ROOT), value);
+			}
+		}
+		return directives;
+	}
+}
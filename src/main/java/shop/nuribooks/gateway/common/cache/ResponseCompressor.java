@@ -0,0 +1,116 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * 캐시에 저장하는 응답의 gzip 본문을 미리 만드는 압축기
+ *
+ * <p>
+ * 캐시 밖의 응답은 {@code server.compression} 설정으로 서버가 압축하며, 같은 설정(사용 여부, 최소 크기, MIME 타입)으로
+ * 캐시 항목의 gzip 본문을 저장 시점에 한 번만 만들어 캐시 적중 시에는 압축하지 않고 그대로 보낸다.
+ * 이미 Content-Encoding 이 있는 본문과 압축해도 작아지지 않는 본문은 압축하지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class ResponseCompressor {
+
+	public static final String GZIP = "gzip";
+
+	private final boolean enabled;
+	private final long minResponseSize;
+	private final List<MimeType> mimeTypes;
+
+	public ResponseCompressor(ServerProperties serverProperties) {
+		Compression compression = serverProperties.getCompression();
+		this.enabled = compression.getEnabled();
+		this.minResponseSize = compression.getMinResponseSize().toBytes();
+		this.mimeTypes = Arrays.stream(compression.getMimeTypes())
+			.map(MimeTypeUtils::parseMimeType)
+			.toList();
+	}
+
+	/**
+	 * 응답 본문을 gzip 으로 압축, 압축 대상이 아니면 null
+	 *
+	 * @param headers 응답 헤더
+	 * @param body 응답 본문
+	 * @return gzip 본문, 압축하지 않았으면 null
+	 */
+	public byte[] gzip(HttpHeaders headers, byte[] body) {
+		if (!enabled || body.length < minResponseSize || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+			|| !isCompressible(headers.getContentType())) {
+			return null;
+		}
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(body);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return compressed.size() < body.length ? compressed.toByteArray() : null;
+	}
+
+	/**
+	 * 서버 압축({@code server.compression})이 응답 본문을 gzip 으로 보낼지 확인
+	 *
+	 * @param requestHeaders 요청 헤더
+	 * @param responseHeaders 응답 헤더, Content-Length 가 없으면 압축하지 않는 것으로 봄
+	 * @return 서버가 gzip 으로 압축해 보내면 true
+	 */
+	public boolean willCompress(HttpHeaders requestHeaders, HttpHeaders responseHeaders) {
+		return enabled && acceptsGzip(requestHeaders) && !responseHeaders.containsKey(HttpHeaders.CONTENT_ENCODING)
+			&& responseHeaders.getContentLength() >= minResponseSize
+			&& isCompressible(responseHeaders.getContentType());
+	}
+
+	/**
+	 * 요청의 Accept-Encoding 이 gzip 을 허용하는지 확인
+	 *
+	 * @param requestHeaders 요청 헤더
+	 * @return gzip 을 q=0 이 아닌 값으로 허용하면 true
+	 */
+	public static boolean acceptsGzip(HttpHeaders requestHeaders) {
+		for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+			for (String coding : StringUtils.tokenizeToStringArray(value, ",")) {
+				String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+				if (parts.length > 0 && GZIP.equalsIgnoreCase(parts[0])) {
+					return parts.length == 1 || !isZeroQuality(parts[1]);
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean isCompressible(MediaType contentType) {
+		return contentType != null && mimeTypes.stream().anyMatch(mimeType -> mimeType.isCompatibleWith(contentType));
+	}
+
+	private static boolean isZeroQuality(String parameter) {
+		String[] quality = StringUtils.tokenizeToStringArray(parameter, "=");
+		if (quality.length != 2 || !"q".equalsIgnoreCase(quality[0])) {
+			return false;
+		}
+		try {
+			return Double.parseDouble(quality[1]) == 0;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package shop.nuribooks.gateway.common.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import shop.nuribooks.gateway.common.util.JwtUtils;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
+
+/**
+ * 검증이 끝난 access token 의 클레임을 보관하는 캐시
+ *
+ * <p>
+ * 토큰 원문 대신 SHA-256 해시를 키로 사용하며, 각 항목은 토큰 자체의 만료 시각까지만 유지된다.
+ * 캐시 적중 시 서명 검증을 생략하되 만료 여부는 캐시된 만료 시각으로 다시 확인한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class VerifiedTokenCache {
+
+	public static final String CACHE_NAME = "jwt-verified-token";
+
+	private final JwtUtils jwtUtils;
+	private final boolean enabled;
+	private final Cache<String, VerifiedClaims> cache;
+
+	public VerifiedTokenCache(
+		JwtUtils jwtUtils,
+		MeterRegistry meterRegistry,
+		@Value("${spring.jwt.cache.enabled:true}") boolean enabled,
+		@Value("${spring.jwt.cache.maximum-size:10000}") long maximumSize) {
+		this.jwtUtils = jwtUtils;
+		this.enabled = enabled;
+		this.cache = Caffeine.newBuilder()
+			.maximumSize(maximumSize)
+			.expireAfter(new TokenExpiry())
+			.recordStats()
+			.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * 캐시된 검증 결과를 반환하고, 없으면 토큰을 검증한 뒤 캐시에 저장
+	 *
+	 * @param token access token
+	 * @return 검증된 클레임
+	 * @throws JwtException 토큰이 만료되었거나 유효하지 않은 경우
+	 */
+	public VerifiedClaims getOrVerify(String token) throws JwtException {
+		if (!enabled) {
+			return jwtUtils.verify(token);
+		}
+
+		String key = hash(token);
+		VerifiedClaims cached = cache.getIfPresent(key);
+
+		if (cached != null) {
+			if (!cached.isExpiredAt(Instant.now())) {
+				return cached;
+			}
+			// 만료된 항목은 제거하고 원본 검증에서 만료 예외가 발생하도록 한다
+			cache.invalidate(key);
+		}
+
+		VerifiedClaims claims = jwtUtils.verify(token);
+
+		// 만료 시각이 없는 토큰은 언제까지 보관할지 알 수 없으므로 캐시하지 않는다
+		if (claims.expiration() != null) {
+			cache.put(key, claims);
+		}
+
+		return claims;
+	}
+
+	/**
+	 * 항목의 수명을 토큰의 만료 시각에 맞추는 만료 정책
+	 */
+	private static class TokenExpiry implements Expiry<String, VerifiedClaims> {
+
+		@Override
+		public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+			long ttl = Duration.between(Instant.now(), claims.expiration()).toNanos();
+			return Math.max(ttl, 0L);
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, claims, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			// 모든 JVM 은 SHA-256 을 지원해야 한다
+			throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+		}
+	}
+}
@@ -0,0 +1,228 @@
+package shop.nuribooks.gateway.common.concurrency;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * 응답 시간 변화로 동시 요청 한도를 조절하는 limiter (gradient + AIMD)
+ *
+ * <p>
+ * 오래 관측한 RTT 평균(기준값)과 최근 RTT 를 비교해, 최근 RTT 가 기준값의 {@code tolerance} 배를 넘으면
+ * 그 비율만큼 한도를 줄이고 그렇지 않으면 {@code sqrt(limit)} 만큼 늘린다. 실패한 요청은 한도를 곱으로 줄인다(AIMD).
+ * 한도에 이른 요청은 짧은 시간 동안 대기열에서 기다리다 자리가 나면 이어서 실행하고, 대기열이 가득 차거나
+ * 시간이 지나면 거절한다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	// 기준 RTT 를 구하는 EWMA 의 표본 수
+	private static final int LONG_WINDOW = 600;
+
+	// 최근 RTT 가 기준 RTT 의 이 배수까지는 정상으로 봄
+	private static final double TOLERANCE = 1.5;
+
+	// 새 한도를 반영하는 비율
+	private static final double SMOOTHING = 0.2;
+
+	// 실패 시 한도에 곱하는 비율
+	private static final double BACKOFF_RATIO = 0.9;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final int maxQueueSize;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger queued = new AtomicInteger();
+	private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+	private volatile double limit;
+	private double longRttNanos;
+	private long samples;
+
+	/**
+	 * 생성자
+	 *
+	 * @param initialLimit 처음 동시 요청 한도
+	 * @param minLimit 최소 한도
+	 * @param maxLimit 최대 한도
+	 * @param maxQueueSize 한도에 이른 뒤 기다릴 수 있는 최대 요청 수
+	 */
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueueSize) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.maxQueueSize = maxQueueSize;
+	}
+
+	/**
+	 * 기다리지 않고 자리 확보
+	 *
+	 * @return 확보 여부
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= (int)limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * 자리 확보, 한도에 이르렀으면 최대 {@code maxWait} 동안 대기
+	 *
+	 * @param maxWait 최대 대기 시간
+	 * @return 확보 여부
+	 */
+	public Mono<Boolean> acquire(Duration maxWait) {
+		if (tryAcquire()) {
+			return Mono.just(true);
+		}
+		if (maxWait.isZero() || queued.incrementAndGet() > maxQueueSize) {
+			if (!maxWait.isZero()) {
+				queued.decrementAndGet();
+			}
+			return Mono.just(false);
+		}
+
+		Waiter waiter = new Waiter();
+		waiters.add(waiter);
+		// 대기열에 넣는 사이 자리가 났으면 바로 넘겨받음
+		if (tryAcquire()) {
+			handOff();
+		}
+
+		return waiter.result.asMono()
+			.timeout(maxWait, Mono.defer(() -> {
+				if (waiter.cancel()) {
+					waiters.remove(waiter);
+					queued.decrementAndGet();
+					return Mono.just(false);
+				}
+				// 시간 초과와 동시에 자리를 넘겨받은 경우
+				return waiter.result.asMono();
+			}))
+			.map(acquired -> acquired && waiter.deliver())
+			.doOnCancel(() -> {
+				if (waiter.cancel()) {
+					waiters.remove(waiter);
+					queued.decrementAndGet();
+				} else if (waiter.revoke()) {
+					// 자리를 넘겨받았지만 요청이 가져가기 전에 취소됨
+					release(0L, false);
+				}
+			});
+	}
+
+	/**
+	 * 요청 종료 기록
+	 *
+	 * @param rttNanos 응답 시간 (나노초), 측정하지 못했으면 0 이하
+	 * @param failed 실패(5xx, 연결 실패) 여부
+	 */
+	public void release(long rttNanos, boolean failed) {
+		if (failed) {
+			backoff();
+		} else if (rttNanos > 0) {
+			update(rttNanos);
+		}
+		handOff();
+	}
+
+	private void handOff() {
+		// 한도가 줄어 이미 넘쳐 있으면 넘겨주지 않고 반납
+		if (inFlight.get() <= (int)limit) {
+			Waiter waiter;
+			while ((waiter = waiters.poll()) != null) {
+				if (waiter.grant()) {
+					queued.decrementAndGet();
+					waiter.result.tryEmitValue(true);
+					return;
+				}
+			}
+		}
+		inFlight.decrementAndGet();
+	}
+
+	private synchronized void update(long rttNanos) {
+		samples++;
+		longRttNanos = samples == 1
+			? rttNanos
+			: longRttNanos + (rttNanos - longRttNanos) / Math.min(samples, LONG_WINDOW);
+		// 장애가 끝난 뒤 부풀려진 기준값이 빨리 돌아오도록 감쇠
+		if (longRttNanos > 2 * rttNanos) {
+			longRttNanos *= 0.95;
+		}
+
+		// 한도의 절반도 쓰지 않는 동안은 RTT 가 한도의 영향을 받지 않으므로 늘리지 않음
+		int current = inFlight.get();
+		double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+		if (gradient >= 1.0 && current < limit / 2) {
+			return;
+		}
+
+		double newLimit = limit * gradient + Math.sqrt(limit);
+		setLimit(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+	}
+
+	private synchronized void backoff() {
+		setLimit(limit * BACKOFF_RATIO);
+	}
+
+	private void setLimit(double newLimit) {
+		limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+	}
+
+	public int getLimit() {
+		return (int)limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	public int getQueued() {
+		return queued.get();
+	}
+
+	private static final class Waiter {
+
+		private static final int WAITING = 0;
+		private static final int CANCELLED = 1;
+		private static final int GRANTED = 2;
+		private static final int DELIVERED = 3;
+
+		private final Sinks.One<Boolean> result = Sinks.one();
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		// 대기를 포기, 이미 자리를 넘겨받았으면 실패
+		private boolean cancel() {
+			return state.compareAndSet(WAITING, CANCELLED);
+		}
+
+		// 대기 중인 요청에 자리를 넘겨줌
+		private boolean grant() {
+			return state.compareAndSet(WAITING, GRANTED);
+		}
+
+		// 넘겨받은 자리를 요청이 가져감, 이후 반납은 요청이 책임짐
+		private boolean deliver() {
+			return state.compareAndSet(GRANTED, DELIVERED);
+		}
+
+		// 넘겨받았지만 요청이 가져가지 않은 자리를 회수
+		private boolean revoke() {
+			return state.compareAndSet(GRANTED, CANCELLED);
+		}
+	}
+}
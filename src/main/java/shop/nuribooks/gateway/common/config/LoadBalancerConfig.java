@@ -0,0 +1,15 @@
+package shop.nuribooks.gateway.common.config;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+import shop.nuribooks.gateway.common.loadbalancer.ServiceLoadBalancerConfiguration;
+
+/**
+ * lb:// 라우트의 로드밸런서 설정
+ * @author : nuri
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = ServiceLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -1,15 +1,35 @@
 package shop.nuribooks.gateway.common.config;
 
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
 
+import shop.nuribooks.gateway.common.filter.AdaptiveConcurrencyFilter;
 import shop.nuribooks.gateway.common.filter.AdminValidationFilter;
+import shop.nuribooks.gateway.common.filter.CircuitBreakerFilter;
 import shop.nuribooks.gateway.common.filter.CustomerOrderFilter;
+import shop.nuribooks.gateway.common.filter.HedgingFilter;
 import shop.nuribooks.gateway.common.filter.LoginFilter;
 import shop.nuribooks.gateway.common.filter.MemberModifyFilter;
+import shop.nuribooks.gateway.common.filter.RateLimitFilter;
+import shop.nuribooks.gateway.common.filter.RequestBodyGuardFilter;
 import shop.nuribooks.gateway.common.filter.SignupFilter;
+import shop.nuribooks.gateway.common.filter.cache.CacheInvalidationFilter;
+import shop.nuribooks.gateway.common.filter.cache.ETagFilter;
+import shop.nuribooks.gateway.common.filter.cache.ResponseCacheFilter;
+import shop.nuribooks.gateway.common.filter.cache.SingleFlightFilter;
+import shop.nuribooks.gateway.common.pool.ConnectionPoolProperties;
+import shop.nuribooks.gateway.common.route.IndexedRoutePredicateHandlerMapping;
+import shop.nuribooks.gateway.common.route.RouteIndex;
 
 /**
  * Gateway router
@@ -20,6 +40,51 @@ public class RouteLocatorConfig {
 
 	public static final String BOOK_ROUTER = "lb://books";
 
+	// downstream 별 circuit breaker, bulkhead 이름 (주문은 조회 트래픽과 격리)
+	private static final String BOOKS_DOWNSTREAM = "books";
+	private static final String ORDER_DOWNSTREAM = "books-order";
+	private static final String AUTH_DOWNSTREAM = "auth";
+
+	// 라우트별 upstream 연결 풀 이름 (upstream.pools), 지정하지 않은 라우트는 기본 풀 사용
+	private static final String BOOKS_POOL = "books";
+	private static final String IMAGE_POOL = "books-image";
+	private static final String ORDER_POOL = "books-order";
+	private static final String AUTH_POOL = "auth";
+
+	// 라우트별 Path 패턴, 라우트 정의와 라우트 인덱스가 함께 사용
+	private static final String[] ADMIN_PATHS = {"/admin/**"};
+	private static final String[] TREE_PATHS = {"/api/categories/**", "/api/book-tags/**"};
+	private static final String[] CATALOG_PATHS = {"/api/books/**", "/api/contributors/**", "/api/publishers/**"};
+	private static final String[] BOOK_PATHS = {"/api/books/**", "/api/categories/**", "/api/contributors/**",
+		"/api/reviews/**", "/api/publishers/**", "/api/book-tags/**", "/api/cart/**", "/api/coupon-policies/**",
+		"/api/coupon-templates/**", "/api/member-coupons/**", "/api/coupons/**"};
+	private static final String[] IMAGE_PATHS = {"/api/image/**"};
+	private static final String[] ORDER_REGISTER_PATHS = {"/api/orders"};
+	private static final String[] ORDER_PATHS = {"/api/orders/**", "/api/payments/**", "/api/shippings/**",
+		"/api/wrapping/**"};
+	private static final String[] MEMBER_REGISTER_PATHS = {"/api/members"};
+	private static final String[] MEMBER_MODIFY_PATHS = {"/api/members/me"};
+	private static final String[] MEMBER_PATHS = {"/api/members/**", "/api/point-policies/**",
+		"/api/point-history/**"};
+	private static final String[] AUTH_LOGIN_PATHS = {"/api/auth/login"};
+	private static final String[] AUTH_PATHS = {"/api/auth/**"};
+
+	// 본문 재작성 라우트의 요청 본문 최대 크기
+	private static final DataSize MEMBER_BODY_MAX_SIZE = DataSize.ofKilobytes(16);
+	private static final DataSize ORDER_BODY_MAX_SIZE = DataSize.ofKilobytes(256);
+
+	// 라우트별 요청 수 한도 (회원 또는 클라이언트 IP 별 초당 요청 수, 순간 최대 요청 수)
+	private static final double API_RATE_LIMIT = 20;
+	private static final int API_BURST_CAPACITY = 40;
+	private static final double LOGIN_RATE_LIMIT = 1;
+	private static final int LOGIN_BURST_CAPACITY = 5;
+	private static final double REGISTER_RATE_LIMIT = 0.5;
+	private static final int REGISTER_BURST_CAPACITY = 3;
+
+	// 카테고리/태그 트리 캐시 수명과 stale-while-revalidate 기간
+	private static final Duration TREE_CACHE_TTL = Duration.ofMinutes(5);
+	private static final Duration TREE_STALE_WHILE_REVALIDATE = Duration.ofHours(1);
+
 	// 로그인 필터
 	private final LoginFilter loginFilter;
 
@@ -35,17 +100,62 @@ public class RouteLocatorConfig {
 	// 주문 필터
 	private final CustomerOrderFilter customerOrderFilter;
 
+	// 요청 본문 크기 검사 필터
+	private final RequestBodyGuardFilter requestBodyGuardFilter;
+
+	// 응답 캐시 필터
+	private final ResponseCacheFilter responseCacheFilter;
+
+	// 동일 요청 병합 필터
+	private final SingleFlightFilter singleFlightFilter;
+
+	// ETag 조건부 요청 필터
+	private final ETagFilter etagFilter;
+
+	// 관리자 변경 시 캐시 무효화 필터
+	private final CacheInvalidationFilter cacheInvalidationFilter;
+
+	// 요청 수 제한 필터
+	private final RateLimitFilter rateLimitFilter;
+
+	// 동시 요청 수 제한 필터
+	private final AdaptiveConcurrencyFilter adaptiveConcurrencyFilter;
+
+	// downstream 별 circuit breaker, bulkhead 필터
+	private final CircuitBreakerFilter circuitBreakerFilter;
+
+	// 느린 조회 요청을 다른 인스턴스로 한 번 더 보내는 필터
+	private final HedgingFilter hedgingFilter;
+
 	public RouteLocatorConfig(
 		LoginFilter loginFilter,
 		SignupFilter signupFilter,
 		AdminValidationFilter adminValidationFilter,
 		MemberModifyFilter memberModifyFilter,
-		CustomerOrderFilter customerOrderFilter) {
+		CustomerOrderFilter customerOrderFilter,
+		RequestBodyGuardFilter requestBodyGuardFilter,
+		ResponseCacheFilter responseCacheFilter,
+		SingleFlightFilter singleFlightFilter,
+		ETagFilter etagFilter,
+		CacheInvalidationFilter cacheInvalidationFilter,
+		RateLimitFilter rateLimitFilter,
+		AdaptiveConcurrencyFilter adaptiveConcurrencyFilter,
+		CircuitBreakerFilter circuitBreakerFilter,
+		HedgingFilter hedgingFilter) {
 		this.loginFilter = loginFilter;
 		this.signupFilter = signupFilter;
 		this.adminValidationFilter = adminValidationFilter;
 		this.memberModifyFilter = memberModifyFilter;
 		this.customerOrderFilter = customerOrderFilter;
+		this.requestBodyGuardFilter = requestBodyGuardFilter;
+		this.responseCacheFilter = responseCacheFilter;
+		this.singleFlightFilter = singleFlightFilter;
+		this.etagFilter = etagFilter;
+		this.cacheInvalidationFilter = cacheInvalidationFilter;
+		this.rateLimitFilter = rateLimitFilter;
+		this.adaptiveConcurrencyFilter = adaptiveConcurrencyFilter;
+		this.circuitBreakerFilter = circuitBreakerFilter;
+		this.hedgingFilter = hedgingFilter;
 	}
 
 	/**
@@ -58,59 +168,213 @@ public class RouteLocatorConfig {
 
 		return builder.routes()
 			// ADMIN
-			.route("admin_route", p -> p.path("/admin/**")
-				.filters(f -> f.stripPrefix(1)
-					.filter(adminValidationFilter.apply(new AdminValidationFilter.Config())))
+			.route("admin_route", p -> p.path(ADMIN_PATHS)
+				.filters(f -> f.filter(cacheInvalidationFilter.apply(new CacheInvalidationFilter.Config()))
+					.stripPrefix(1)
+					.filter(adminValidationFilter.apply(new AdminValidationFilter.Config()))
+					.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+				.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
 				.uri(BOOK_ROUTER)
 			)
+			// CATEGORY, TAG TREE (변경이 드물어 만료 후에도 stale 응답 후 백그라운드 갱신)
+			.route("tree_route",
+				p -> p.path(TREE_PATHS)
+					.and().method("GET")
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(etagFilter.apply(new ETagFilter.Config()))
+						.filter(responseCacheFilter.apply(new ResponseCacheFilter.Config()
+							.setTtl(TREE_CACHE_TTL)
+							.setStaleWhileRevalidate(TREE_STALE_WHILE_REVALIDATE)))
+						.filter(singleFlightFilter.apply(new SingleFlightFilter.Config()))
+						.filter(concurrencyLimit("tree_route"))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
+					.uri(BOOK_ROUTER)
+			)
+			// CATALOG (익명 조회는 게이트웨이 캐시 사용, 캐시 미스는 동일 요청끼리 병합)
+			.route("catalog_route",
+				p -> p.path(CATALOG_PATHS)
+					.and().method("GET")
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(etagFilter.apply(new ETagFilter.Config()))
+						.filter(responseCacheFilter.apply(new ResponseCacheFilter.Config()))
+						.filter(singleFlightFilter.apply(new SingleFlightFilter.Config()))
+						.filter(concurrencyLimit("catalog_route"))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM))
+						.filter(hedge("catalog_route")))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
+					.uri(BOOK_ROUTER)
+			)
+			// IMAGE (느린 다운로드가 다른 라우트의 연결을 잡지 않도록 별도 연결 풀)
+			.route("image_route",
+				p -> p.path(IMAGE_PATHS)
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, IMAGE_POOL)
+					.uri(BOOK_ROUTER)
+			)
 			// BOOK
 			.route("books_route",
-				p -> p.path("/api/books/**", "/api/categories/**", "/api/contributors/**", "/api/reviews/**",
-						"/api/publishers/**", "/api/book-tags/**", "/api/cart/**", "/api/coupon-policies/**",
-						"/api/coupon-templates/**", "/api/member-coupons/**", "/api/image/**", "/api/coupons/**")
+				p -> p.path(BOOK_PATHS)
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(concurrencyLimit("books_route"))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
 					.uri(BOOK_ROUTER)
 			)
 			// CUSTOMER ORDER REGISTER
 			.route("order_register_route",
-				p -> p.path("/api/orders")
+				p -> p.path(ORDER_REGISTER_PATHS)
 					.and().method("POST")
-					.filters(f -> f.filter(customerOrderFilter.apply(new CustomerOrderFilter.Config())))
+					.filters(f -> f.filter(rateLimit(REGISTER_RATE_LIMIT, REGISTER_BURST_CAPACITY))
+						.filter(bodyGuard(ORDER_BODY_MAX_SIZE))
+						.filter(customerOrderFilter.apply(new CustomerOrderFilter.Config()))
+						.filter(concurrencyLimit("order_register_route"))
+						.filter(circuitBreaker(ORDER_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, ORDER_POOL)
 					.uri(BOOK_ROUTER)
 			)
 			// ORDER
 			.route("orders_route",
-				p -> p.path("/api/orders/**", "/api/payments/**", "/api/shippings/**", "/api/wrapping/**")
+				p -> p.path(ORDER_PATHS)
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(concurrencyLimit("orders_route"))
+						.filter(circuitBreaker(ORDER_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, ORDER_POOL)
 					.uri(BOOK_ROUTER)
 			)
 			// MEMBER REGISTER
 			.route("member_register_route",
-				p -> p.path("/api/members")
+				p -> p.path(MEMBER_REGISTER_PATHS)
 					.and().method("POST")
-					.filters(f -> f.filter(signupFilter.apply(new SignupFilter.Config())))
+					.filters(f -> f.filter(rateLimit(REGISTER_RATE_LIMIT, REGISTER_BURST_CAPACITY))
+						.filter(bodyGuard(MEMBER_BODY_MAX_SIZE))
+						.filter(signupFilter.apply(new SignupFilter.Config()))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
 					.uri(BOOK_ROUTER)
 			)
 			// MEMBER MODIFY
 			.route("member_modify",
-				p -> p.path("/api/members/me")
+				p -> p.path(MEMBER_MODIFY_PATHS)
 					.and().method("PUT")
-					.filters(f -> f.filter(memberModifyFilter.apply(new MemberModifyFilter.Config())))
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(bodyGuard(MEMBER_BODY_MAX_SIZE))
+						.filter(memberModifyFilter.apply(new MemberModifyFilter.Config()))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
 					.uri(BOOK_ROUTER)
 			)
 			// MEMBER
 			.route("member_route",
-				p -> p.path("/api/members/**", "/api/point-policies/**",
-						"/api/point-history/**")
+				p -> p.path(MEMBER_PATHS)
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(concurrencyLimit("member_route"))
+						.filter(circuitBreaker(BOOKS_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, BOOKS_POOL)
 					.uri(BOOK_ROUTER)
 			)
 			.route("auth_login",
-				p -> p.path("/api/auth/login")
-					.filters(f -> f.filter(loginFilter.apply(new LoginFilter.Config())))
+				p -> p.path(AUTH_LOGIN_PATHS)
+					.filters(f -> f.filter(rateLimit(LOGIN_RATE_LIMIT, LOGIN_BURST_CAPACITY))
+						.filter(loginFilter.apply(new LoginFilter.Config()))
+						.filter(circuitBreaker(AUTH_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, AUTH_POOL)
 					.uri("lb://auth")
 			)
 			.route("auth_route",
-				p -> p.path("/api/auth/**")
+				p -> p.path(AUTH_PATHS)
+					.filters(f -> f.filter(rateLimit(API_RATE_LIMIT, API_BURST_CAPACITY))
+						.filter(circuitBreaker(AUTH_DOWNSTREAM)))
+					.metadata(ConnectionPoolProperties.POOL_METADATA, AUTH_POOL)
 					.uri("lb://auth")
 			)
 			.build();
 	}
+
+	/**
+	 * 라우트 Path 패턴을 트라이로 컴파일한 인덱스
+	 * @return 라우트 인덱스
+	 */
+	static RouteIndex routeIndex() {
+		return RouteIndex.builder()
+			.route("admin_route", ADMIN_PATHS)
+			.route("tree_route", TREE_PATHS)
+			.route("catalog_route", CATALOG_PATHS)
+			.route("image_route", IMAGE_PATHS)
+			.route("books_route", BOOK_PATHS)
+			.route("order_register_route", ORDER_REGISTER_PATHS)
+			.route("orders_route", ORDER_PATHS)
+			.route("member_register_route", MEMBER_REGISTER_PATHS)
+			.route("member_modify", MEMBER_MODIFY_PATHS)
+			.route("member_route", MEMBER_PATHS)
+			.route("auth_login", AUTH_LOGIN_PATHS)
+			.route("auth_route", AUTH_PATHS)
+			.build();
+	}
+
+	/**
+	 * 라우트 인덱스로 후보 라우트만 평가하는 핸들러 매핑, route-index.enabled 가 true 일 때만 등록
+	 * @return 기본 RoutePredicateHandlerMapping 을 대체하는 핸들러 매핑
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "route-index.enabled", havingValue = "true")
+	public IndexedRoutePredicateHandlerMapping indexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+		RouteLocator routeLocator, GlobalCorsProperties globalCorsProperties, Environment environment) {
+		return new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, globalCorsProperties, environment,
+			routeIndex());
+	}
+
+	/**
+	 * 본문 재작성 전에 적용할 본문 크기 검사 필터
+	 *
+	 * @param maxSize 본문 최대 크기
+	 * @return 본문 크기 검사 필터
+	 */
+	private GatewayFilter bodyGuard(DataSize maxSize) {
+		return requestBodyGuardFilter.apply(new RequestBodyGuardFilter.Config().setMaxSize(maxSize));
+	}
+
+	/**
+	 * 회원 또는 클라이언트 IP 별 요청 수 제한 필터
+	 *
+	 * @param replenishRate 초당 허용 요청 수
+	 * @param burstCapacity 순간 최대 요청 수
+	 * @return 요청 수 제한 필터
+	 */
+	private GatewayFilter rateLimit(double replenishRate, int burstCapacity) {
+		return rateLimitFilter.apply(new RateLimitFilter.Config()
+			.setReplenishRate(replenishRate)
+			.setBurstCapacity(burstCapacity));
+	}
+
+	/**
+	 * 응답 시간에 맞춰 한도를 조절하는 동시 요청 수 제한 필터, upstream 호출 직전에 적용
+	 *
+	 * @param routeId 메트릭에 표시할 라우트 id
+	 * @return 동시 요청 수 제한 필터
+	 */
+	private GatewayFilter concurrencyLimit(String routeId) {
+		return adaptiveConcurrencyFilter.apply(new AdaptiveConcurrencyFilter.Config().setName(routeId));
+	}
+
+	/**
+	 * downstream 별 circuit breaker, bulkhead 필터, 라우트의 마지막 필터(hedge 필터가 있으면 그 앞)로 적용
+	 *
+	 * @param name circuit breaker, bulkhead 이름
+	 * @return circuit breaker 필터
+	 */
+	private GatewayFilter circuitBreaker(String name) {
+		return circuitBreakerFilter.apply(new CircuitBreakerFilter.Config().setName(name));
+	}
+
+	/**
+	 * 느린 조회 요청을 다른 인스턴스로 한 번 더 보내는 hedge 필터, upstream 을 직접 호출하므로 라우트의 마지막 필터로 적용
+	 *
+	 * @param routeId 메트릭에 표시할 라우트 이름
+	 * @return hedge 필터
+	 */
+	private GatewayFilter hedge(String routeId) {
+		return hedgingFilter.apply(new HedgingFilter.Config().setName(routeId));
+	}
 }
@@ -0,0 +1,114 @@
+package shop.nuribooks.gateway.common.crypto;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 비밀번호 해시 작업 전용 실행기
+ *
+ * <p>
+ * BCrypt 해시는 요청당 수십~수백 ms 의 CPU 를 사용하므로 reactor-netty I/O 스레드에서 실행하면
+ * 같은 event loop 의 다른 요청이 모두 멈춘다. 크기가 고정된 스레드 풀과 길이가 제한된 대기열에서
+ * 작업을 실행하고, 대기열이 가득 차거나 제한 시간을 넘기면 {@link PasswordHashRejectedException} 으로 실패시켜
+ * 호출한 필터가 503 과 Retry-After 로 응답하도록 한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class PasswordHashExecutor implements DisposableBean {
+
+	public static final String METRIC_NAME = "password.hash";
+
+	private final ThreadPoolExecutor executor;
+	private final Scheduler scheduler;
+	private final Duration timeout;
+	private final Duration retryAfter;
+	private final Timer taskTimer;
+	private final Counter rejectedCounter;
+	private final Counter timeoutCounter;
+
+	/**
+	 * 생성자
+	 *
+	 * @param meterRegistry 메트릭 레지스트리
+	 * @param threads 해시 스레드 수 (0 이하이면 가용 CPU 수)
+	 * @param queueCapacity 대기열 최대 길이
+	 * @param timeout 요청당 최대 대기 + 실행 시간
+	 * @param retryAfter 거절 시 Retry-After 로 안내할 시간
+	 */
+	public PasswordHashExecutor(
+		MeterRegistry meterRegistry,
+		@Value("${password-hash.threads:0}") int threads,
+		@Value("${password-hash.queue-capacity:64}") int queueCapacity,
+		@Value("${password-hash.timeout:3s}") Duration timeout,
+		@Value("${password-hash.retry-after:1s}") Duration retryAfter) {
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+			new ThreadPoolExecutor.AbortPolicy());
+		this.scheduler = Schedulers.fromExecutorService(executor, "password-hash");
+		this.timeout = timeout;
+		this.retryAfter = retryAfter;
+
+		ExecutorServiceMetrics.monitor(meterRegistry, executor, METRIC_NAME);
+		this.taskTimer = Timer.builder(METRIC_NAME + ".duration")
+			.description("비밀번호 해시 작업 실행 시간")
+			.register(meterRegistry);
+		this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+			.description("대기열 초과로 거절된 해시 작업 수")
+			.register(meterRegistry);
+		this.timeoutCounter = Counter.builder(METRIC_NAME + ".timeout")
+			.description("제한 시간을 넘긴 해시 작업 수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 해시 작업을 전용 스레드 풀에서 실행
+	 *
+	 * @param task 실행할 작업
+	 * @return 작업 결과, 대기열 초과 또는 시간 초과 시 {@link PasswordHashRejectedException}
+	 */
+	public <T> Mono<T> submit(Callable<T> task) {
+		return Mono.fromCallable(() -> taskTimer.recordCallable(task))
+			.subscribeOn(scheduler)
+			.timeout(timeout)
+			.onErrorMap(RejectedExecutionException.class, e -> {
+				rejectedCounter.increment();
+				log.warn("비밀번호 해시 대기열이 가득 차 요청을 거절합니다.");
+				return new PasswordHashRejectedException("비밀번호 해시 대기열이 가득 찼습니다.", retryAfter, e);
+			})
+			.onErrorMap(TimeoutException.class, e -> {
+				timeoutCounter.increment();
+				log.warn("비밀번호 해시 작업이 제한 시간({})을 초과했습니다.", timeout);
+				return new PasswordHashRejectedException("비밀번호 해시 작업이 제한 시간을 초과했습니다.", retryAfter, e);
+			});
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.dispose();
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,27 @@
+package shop.nuribooks.gateway.common.crypto;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * 동시 해시 한도나 실행기 대기열을 넘었거나 제한 시간 안에 끝나지 않아 비밀번호 해시 요청이 거절되었을 때 발생하는 예외
+ *
+ * @author nuri
+ */
+@Getter
+public class PasswordHashRejectedException extends RuntimeException {
+
+	// 클라이언트가 다시 시도하기까지 기다려야 하는 시간
+	private final Duration retryAfter;
+
+	public PasswordHashRejectedException(Duration retryAfter) {
+		super("비밀번호 해시 동시 처리 한도를 초과했습니다.");
+		this.retryAfter = retryAfter;
+	}
+
+	public PasswordHashRejectedException(String message, Duration retryAfter, Throwable cause) {
+		super(message, cause);
+		this.retryAfter = retryAfter;
+	}
+}
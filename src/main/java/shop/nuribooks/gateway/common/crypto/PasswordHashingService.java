@@ -0,0 +1,111 @@
+package shop.nuribooks.gateway.common.crypto;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * 게이트웨이 전체가 공유하는 비밀번호 해시 서비스
+ *
+ * <p>
+ * 설정된 cost 로 만든 {@link BCryptPasswordEncoder} 하나를 공유하고, 동시에 처리할 수 있는 해시 수를 제한한다.
+ * 한도를 넘는 요청은 대기시키지 않고 즉시 {@link PasswordHashRejectedException} 으로 거절하여
+ * 가입 요청이 몰려도 게이트웨이의 CPU 를 모두 소모하지 않도록 한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+	private final PasswordEncoder passwordEncoder;
+	private final PasswordHashExecutor passwordHashExecutor;
+	private final Semaphore permits;
+	private final int maxConcurrent;
+	private final Duration retryAfter;
+	private final Timer latencyTimer;
+	private final Counter shedCounter;
+
+	/**
+	 * 생성자
+	 *
+	 * @param passwordHashExecutor 해시 전용 실행기
+	 * @param meterRegistry 메트릭 레지스트리
+	 * @param strength BCrypt cost (log rounds)
+	 * @param maxConcurrent 대기 중인 작업을 포함한 최대 동시 해시 수
+	 * @param retryAfter 거절 시 Retry-After 로 안내할 시간
+	 */
+	public PasswordHashingService(
+		PasswordHashExecutor passwordHashExecutor,
+		MeterRegistry meterRegistry,
+		@Value("${password-hash.strength:10}") int strength,
+		@Value("${password-hash.max-concurrent:32}") int maxConcurrent,
+		@Value("${password-hash.retry-after:1s}") Duration retryAfter) {
+		this.passwordEncoder = new BCryptPasswordEncoder(strength);
+		this.passwordHashExecutor = passwordHashExecutor;
+		this.permits = new Semaphore(maxConcurrent);
+		this.maxConcurrent = maxConcurrent;
+		this.retryAfter = retryAfter;
+
+		this.latencyTimer = Timer.builder(PasswordHashExecutor.METRIC_NAME + ".latency")
+			.description("대기 시간을 포함한 비밀번호 해시 응답 시간")
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry);
+		this.shedCounter = Counter.builder(PasswordHashExecutor.METRIC_NAME + ".shed")
+			.description("동시 처리 한도 초과로 즉시 거절된 해시 요청 수")
+			.register(meterRegistry);
+		Gauge.builder(PasswordHashExecutor.METRIC_NAME + ".in-flight", this, PasswordHashingService::inFlight)
+			.description("승인되어 대기 또는 실행 중인 해시 요청 수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 비밀번호를 해시 전용 스레드에서 해시화
+	 *
+	 * @param rawPassword 원본 비밀번호
+	 * @return 해시화된 비밀번호, 동시 처리 한도 초과 시 {@link PasswordHashRejectedException}
+	 */
+	public Mono<String> encode(String rawPassword) {
+		return Mono.defer(() -> {
+			if (!permits.tryAcquire()) {
+				shedCounter.increment();
+				log.warn("비밀번호 해시 동시 처리 한도({})를 초과하여 요청을 거절합니다.", maxConcurrent);
+				return Mono.error(new PasswordHashRejectedException(retryAfter));
+			}
+
+			long start = System.nanoTime();
+			AtomicBoolean released = new AtomicBoolean();
+			Runnable release = () -> {
+				// 완료, 에러, 취소가 겹쳐도 허가는 한 번만 반환
+				if (released.compareAndSet(false, true)) {
+					permits.release();
+					latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				}
+			};
+
+			// 결과를 전달하기 전에 허가를 반환해야 이어지는 해시 요청이 거절되지 않는다
+			return passwordHashExecutor.submit(() -> passwordEncoder.encode(rawPassword))
+				.doOnSuccess(hashed -> release.run())
+				.doOnError(e -> release.run())
+				.doOnCancel(release);
+		});
+	}
+
+	private int inFlight() {
+		return maxConcurrent - permits.availablePermits();
+	}
+}
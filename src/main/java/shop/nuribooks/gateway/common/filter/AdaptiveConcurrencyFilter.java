@@ -0,0 +1,183 @@
+package shop.nuribooks.gateway.common.filter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import shop.nuribooks.gateway.common.concurrency.AdaptiveConcurrencyLimiter;
+import shop.nuribooks.gateway.common.util.ErrorResponseUtils;
+
+/**
+ * upstream 응답 시간에 맞춰 라우트별 동시 요청 수를 조절하는 필터
+ *
+ * <p>
+ * 응답 헤더를 받기까지의 시간을 RTT 로 측정해 {@link AdaptiveConcurrencyLimiter} 의 한도를 조절한다.
+ * 한도를 넘는 요청은 {@code maxQueueTime} 동안 기다리다 자리가 나지 않으면 503 으로 거절해,
+ * 장애 중에 reactor-netty 안에 요청이 쌓여 지연이 끝없이 늘어나는 것을 막는다.
+ * 캐시 응답은 upstream 을 부르지 않으므로 응답 캐시 필터 뒤에 추가한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyFilter.Config> {
+
+	public static final String METRIC_NAME = "concurrency";
+
+	private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+	private final MeterRegistry meterRegistry;
+
+	public AdaptiveConcurrencyFilter(MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * 동시 요청 수 제한 필터
+	 *
+	 * @param config 라우트 이름, 한도 범위와 대기열 설정
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config.getInitialLimit(),
+			config.getMinLimit(), config.getMaxLimit(), config.getMaxQueueSize());
+
+		Gauge.builder(METRIC_NAME + ".limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+			.description("현재 동시 요청 한도")
+			.tag("route", config.getName())
+			.register(meterRegistry);
+		Gauge.builder(METRIC_NAME + ".in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+			.description("처리 중인 요청 수")
+			.tag("route", config.getName())
+			.register(meterRegistry);
+		Counter rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+			.description("동시 요청 한도를 넘어 거절한 요청 수")
+			.tag("route", config.getName())
+			.register(meterRegistry);
+
+		return (exchange, chain) -> limiter.acquire(config.getMaxQueueTime())
+			.flatMap(acquired -> {
+				if (!acquired) {
+					rejectedCounter.increment();
+					log.debug("동시 요청 한도를 초과했습니다. route={}, limit={}", config.getName(), limiter.getLimit());
+					return ErrorResponseUtils.writeRetryableErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+						"요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.", RETRY_AFTER);
+				}
+				return forward(exchange, chain, limiter);
+			});
+	}
+
+	private static Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain,
+		AdaptiveConcurrencyLimiter limiter) {
+		long start = System.nanoTime();
+		AtomicLong rtt = new AtomicLong();
+
+		exchange.getResponse().beforeCommit(() -> {
+			rtt.compareAndSet(0L, System.nanoTime() - start);
+			return Mono.empty();
+		});
+
+		return chain.filter(exchange)
+			.doFinally(signal -> {
+				// 클라이언트가 끊은 요청은 upstream 상태와 무관하므로 RTT 를 반영하지 않음
+				if (signal == SignalType.CANCEL) {
+					limiter.release(0L, false);
+					return;
+				}
+				HttpStatusCode status = exchange.getResponse().getStatusCode();
+				boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+				limiter.release(rtt.get() > 0 ? rtt.get() : System.nanoTime() - start, failed);
+			});
+	}
+
+	public static class Config {
+
+		// 메트릭에 표시할 라우트 이름
+		private String name = "default";
+
+		// 처음 동시 요청 한도
+		private int initialLimit = 20;
+
+		// 최소 동시 요청 한도
+		private int minLimit = 4;
+
+		// 최대 동시 요청 한도
+		private int maxLimit = 500;
+
+		// 한도에 이른 뒤 기다릴 수 있는 최대 요청 수
+		private int maxQueueSize = 100;
+
+		// 한도에 이른 요청의 최대 대기 시간
+		private Duration maxQueueTime = Duration.ofMillis(50);
+
+		public String getName() {
+			return name;
+		}
+
+		public Config setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public int getInitialLimit() {
+			return initialLimit;
+		}
+
+		public Config setInitialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+			return this;
+		}
+
+		public int getMinLimit() {
+			return minLimit;
+		}
+
+		public Config setMinLimit(int minLimit) {
+			this.minLimit = minLimit;
+			return this;
+		}
+
+		public int getMaxLimit() {
+			return maxLimit;
+		}
+
+		public Config setMaxLimit(int maxLimit) {
+			this.maxLimit = maxLimit;
+			return this;
+		}
+
+		public int getMaxQueueSize() {
+			return maxQueueSize;
+		}
+
+		public Config setMaxQueueSize(int maxQueueSize) {
+			this.maxQueueSize = maxQueueSize;
+			return this;
+		}
+
+		public Duration getMaxQueueTime() {
+			return maxQueueTime;
+		}
+
+		public Config setMaxQueueTime(Duration maxQueueTime) {
+			this.maxQueueTime = maxQueueTime;
+			return this;
+		}
+	}
+}
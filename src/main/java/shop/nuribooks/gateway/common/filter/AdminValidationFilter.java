@@ -3,21 +3,20 @@ package shop.nuribooks.gateway.common.filter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
-import io.jsonwebtoken.ExpiredJwtException;
 import reactor.core.publisher.Mono;
-import shop.nuribooks.gateway.common.util.JwtUtils;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
 
 /**
  * Admin 관련 요청 jwt 토근 검증
  *
  * <p>
  * Admin 권한이 아니거나 토큰이 없다면 401 error
+ * 토큰 검증은 {@link GlobalTokenValidationFilter} 가 남긴 결과를 그대로 사용
  * </p>
  * @author nuri
  */
@@ -25,17 +24,14 @@ import shop.nuribooks.gateway.common.util.JwtUtils;
 public class AdminValidationFilter extends AbstractGatewayFilterFactory<AdminValidationFilter.Config> {
 
 	public static final String ROLE_ADMIN = "ROLE_ADMIN";
-	private final JwtUtils jwtUtils;
 	@Value("${header.refresh-key-name}")
 	private String refreshHeaderName;
 
 	/**
 	 * 생성자
-	 * @param jwtUtils jwt 처리 유틸리티
 	 */
-	public AdminValidationFilter(JwtUtils jwtUtils) {
+	public AdminValidationFilter() {
 		super(AdminValidationFilter.Config.class);
-		this.jwtUtils = jwtUtils;
 	}
 
 	/**
@@ -47,28 +43,18 @@ public class AdminValidationFilter extends AbstractGatewayFilterFactory<AdminVal
 	@Override
 	public GatewayFilter apply(Config config) {
 		return (exchange, chain) -> {
-			String accessToken = exchange.getRequest()
-				.getHeaders()
-				.getFirst(HttpHeaders.AUTHORIZATION);
+			VerifiedClaims claims = exchange.getAttribute(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR);
 
-			if (accessToken == null) {
+			// 토큰이 없거나 검증되지 않은 요청
+			if (claims == null) {
 				return unauthorizedResponse(exchange);
 			}
 
-			try {
-				jwtUtils.validateToken(accessToken);
-
-				String role = jwtUtils.getRole(accessToken);
-
-				if (role.equals(ROLE_ADMIN)) {
-					return chain.filter(exchange);
-				}
-
-				return unauthorizedResponse(exchange);
-
-			} catch (ExpiredJwtException e) {
-				return unauthorizedResponse(exchange);
+			if (ROLE_ADMIN.equals(claims.role())) {
+				return chain.filter(exchange);
 			}
+
+			return unauthorizedResponse(exchange);
 		};
 	}
 
@@ -0,0 +1,107 @@
+package shop.nuribooks.gateway.common.filter;
+
+import java.time.Duration;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import shop.nuribooks.gateway.common.util.ErrorResponseUtils;
+
+/**
+ * downstream 서비스별 circuit breaker 와 semaphore bulkhead 필터
+ *
+ * <p>
+ * {@code Config.name} 으로 {@code resilience4j.circuitbreaker.instances} 와 {@code resilience4j.bulkhead.instances} 의
+ * 설정을 찾는다. 서비스 이름을 쓰면 서비스 단위, 라우트 전용 이름을 쓰면 라우트 단위로 나뉜다.
+ * 5xx 응답, 연결 실패, 응답 시간 초과를 실패로 기록하며, circuit 이 열려 있거나 bulkhead 가 가득 차면
+ * upstream 을 호출하지 않고 바로 503 으로 응답한다.
+ * 게이트웨이가 직접 만든 503(동시 요청 수 제한 등)이 실패로 기록되지 않도록 라우트의 마지막 필터로 추가한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class CircuitBreakerFilter extends AbstractGatewayFilterFactory<CircuitBreakerFilter.Config> {
+
+	private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final BulkheadRegistry bulkheadRegistry;
+
+	public CircuitBreakerFilter(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+		super(Config.class);
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.bulkheadRegistry = bulkheadRegistry;
+	}
+
+	/**
+	 * circuit breaker, bulkhead 필터
+	 *
+	 * @param config circuit breaker 와 bulkhead 이름
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(config.getName());
+		Bulkhead bulkhead = bulkheadRegistry.bulkhead(config.getName());
+		Duration openRetryAfter = Duration.ofMillis(
+			circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1));
+
+		return (exchange, chain) -> {
+			if (!bulkhead.tryAcquirePermission()) {
+				log.debug("동시 호출 한도를 초과했습니다. downstream={}", config.getName());
+				return ErrorResponseUtils.writeRetryableErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+					"서비스가 혼잡합니다. 잠시 후 다시 시도해 주세요.", BULKHEAD_RETRY_AFTER);
+			}
+			if (!circuitBreaker.tryAcquirePermission()) {
+				bulkhead.onComplete();
+				log.debug("circuit 이 열려 있어 요청을 차단합니다. downstream={}", config.getName());
+				return ErrorResponseUtils.writeRetryableErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+					"서비스를 일시적으로 사용할 수 없습니다. 잠시 후 다시 시도해 주세요.", openRetryAfter);
+			}
+
+			long start = circuitBreaker.getCurrentTimestamp();
+			return chain.filter(exchange)
+				.doOnSuccess(result -> {
+					long duration = circuitBreaker.getCurrentTimestamp() - start;
+					HttpStatusCode status = exchange.getResponse().getStatusCode();
+					if (status != null && status.is5xxServerError()) {
+						circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+							new ResponseStatusException(status));
+					} else {
+						circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+					}
+				})
+				.doOnError(e -> circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+					circuitBreaker.getTimestampUnit(), e))
+				// 클라이언트가 끊은 요청은 downstream 상태와 무관
+				.doOnCancel(circuitBreaker::releasePermission)
+				.doFinally(signal -> bulkhead.onComplete());
+		};
+	}
+
+	public static class Config {
+
+		// circuit breaker, bulkhead 인스턴스 이름
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public Config setName(String name) {
+			this.name = name;
+			return this;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package shop.nuribooks.gateway.common.filter;
 
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -13,21 +14,33 @@ import org.springframework.web.server.ServerWebExchange;
 import io.jsonwebtoken.ExpiredJwtException;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import shop.nuribooks.gateway.common.util.JwtUtils;
+import shop.nuribooks.gateway.common.cache.VerifiedTokenCache;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
 
 /**
  * 공동 토큰 검증 필터
  *
+ * <p>
+ * 검증 결과는 {@link #VERIFIED_CLAIMS_ATTR} 속성으로 exchange 에 남기며,
+ * 라우트 필터는 토큰을 다시 검증하지 않고 이 값을 사용한다.
+ * 라우트 필터보다 먼저 실행되도록 {@link #ORDER} 순서를 갖는다.
+ * </p>
+ *
  * @author nuri
  */
 @Component
 @Slf4j
-public class GlobalTokenValidationFilter implements GlobalFilter {
+public class GlobalTokenValidationFilter implements GlobalFilter, Ordered {
+
+	public static final String VERIFIED_CLAIMS_ATTR = GlobalTokenValidationFilter.class.getName() + ".verifiedClaims";
 
-	private final JwtUtils jwtUtils;
+	// 라우트 필터(기본 order 0)보다 먼저 실행
+	public static final int ORDER = -1000;
 
-	public GlobalTokenValidationFilter(JwtUtils jwtUtils) {
-		this.jwtUtils = jwtUtils;
+	private final VerifiedTokenCache verifiedTokenCache;
+
+	public GlobalTokenValidationFilter(VerifiedTokenCache verifiedTokenCache) {
+		this.verifiedTokenCache = verifiedTokenCache;
 	}
 
 	@Override
@@ -52,15 +65,12 @@ public class GlobalTokenValidationFilter implements GlobalFilter {
 		}
 
 		try {
-			jwtUtils.validateToken(accessToken);
-
-			String userId = jwtUtils.getUserId(accessToken);
-			String role = jwtUtils.getRole(accessToken);
+			VerifiedClaims claims = verifiedTokenCache.getOrVerify(accessToken);
 
 			HttpHeaders headers = new HttpHeaders();
 			headers.putAll(exchange.getRequest().getHeaders());
-			headers.add("X-USER-ID", userId);
-			headers.add("X-USER-ROLE", role);
+			headers.add("X-USER-ID", claims.userId());
+			headers.add("X-USER-ROLE", claims.role());
 
 			// 새로운 ServerHttpRequestDecorator 를 생성하여 헤더를 교체
 			ServerHttpRequest mutatedRequest = new ServerHttpRequestDecorator(exchange.getRequest()) {
@@ -74,6 +84,7 @@ public class GlobalTokenValidationFilter implements GlobalFilter {
 			ServerWebExchange mutatedExchange = exchange.mutate()
 				.request(mutatedRequest)
 				.build();
+			mutatedExchange.getAttributes().put(VERIFIED_CLAIMS_ATTR, claims);
 
 			log.debug("X-USER-ID, X-USER-ROLE 전달");
 			return chain.filter(mutatedExchange);
@@ -85,6 +96,11 @@ public class GlobalTokenValidationFilter implements GlobalFilter {
 
 	}
 
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
 	/**
 	 * 401 UNAUTHORIZED 응답을 반환
 	 *
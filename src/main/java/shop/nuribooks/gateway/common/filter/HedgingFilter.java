@@ -0,0 +1,377 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.RetryableRequestContext;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.hedge.HedgeBudget;
+import shop.nuribooks.gateway.common.hedge.LatencyTracker;
+
+/**
+ * 멱등 GET 요청에 hedge 요청을 보내는 필터
+ *
+ * <p>
+ * 첫 요청이 최근 응답 시간의 {@code percentile} 백분위 안에 끝나지 않으면 다른 인스턴스로 같은 요청을 한 번 더 보내고,
+ * 먼저 끝난 응답을 쓰고 늦은 요청은 취소한다. hedge 요청은 {@link HedgeBudget} 의 예산 안에서만 보낸다.
+ * 두 요청을 같은 exchange 로 라우팅할 수 없으므로 lb:// 라우트의 upstream 호출을 이 필터가 직접 하며,
+ * 인스턴스 선택과 로드밸런서 lifecycle 기록은 기본 라우팅과 같은 로드밸런서를 사용하고, upstream 연결은
+ * {@link PooledNettyRoutingFilter} 가 라우트에 고르는 HttpClient(연결 풀, 연결 타임아웃, 프로토콜)와 응답 타임아웃을 그대로 쓴다.
+ * 응답 본문이 {@code maxBodySize} 를 넘으면 기본 라우팅으로 다시 보낸다. 라우트의 마지막 필터로 추가한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+	public static final String METRIC_NAME = "hedge";
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+	// 백분위를 구하는 데 쓰는 최근 응답 시간 수와 최소 표본 수
+	private static final int LATENCY_SAMPLES = 1024;
+	private static final int MIN_LATENCY_SAMPLES = 100;
+	private static final long LATENCY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory;
+	private final WebClient.Builder webClientBuilder;
+	private final HedgeBudget hedgeBudget;
+	private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+	private final PooledNettyRoutingFilter routingFilter;
+	private final MeterRegistry meterRegistry;
+
+	public HedgingFilter(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+		WebClient.Builder webClientBuilder, HedgeBudget hedgeBudget,
+		ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider, PooledNettyRoutingFilter routingFilter,
+		MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.loadBalancerFactory = loadBalancerFactory;
+		this.webClientBuilder = webClientBuilder;
+		this.hedgeBudget = hedgeBudget;
+		this.headersFiltersProvider = headersFiltersProvider;
+		this.routingFilter = routingFilter;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * hedge 요청 필터
+	 *
+	 * @param config 라우트 이름, hedge 지연 백분위와 응답 본문 크기 한도
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		LatencyTracker latencyTracker = new LatencyTracker(LATENCY_SAMPLES, config.getPercentile(),
+			MIN_LATENCY_SAMPLES, LATENCY_REFRESH_NANOS);
+		// 라우트별 연결 풀과 연결 타임아웃이 다르므로 라우트마다 WebClient 를 만듦
+		Map<String, WebClient> webClients = new ConcurrentHashMap<>();
+
+		Counter sentCounter = counter("sent", "보낸 hedge 요청 수", config);
+		Counter wonCounter = counter("won", "첫 요청보다 먼저 끝난 hedge 요청 수", config);
+		Counter exhaustedCounter = counter("budget.exhausted", "예산이 없어 보내지 않은 hedge 요청 수", config);
+
+		return (exchange, chain) -> {
+			Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+			if (exchange.getRequest().getMethod() != HttpMethod.GET || route == null
+				|| !"lb".equals(route.getUri().getScheme())) {
+				return chain.filter(exchange);
+			}
+
+			String serviceId = route.getUri().getHost();
+			WebClient webClient = webClients.computeIfAbsent(route.getId(), id -> webClient(route, exchange, config));
+			Duration timeout = config.getTimeout() != null
+				? config.getTimeout()
+				: routingFilter.getResponseTimeout(route);
+			long start = System.nanoTime();
+			long minDelay = config.getMinDelay().toNanos();
+			long delay = Math.max(minDelay, latencyTracker.quantile(start, minDelay));
+			AtomicReference<ServiceInstance> primaryInstance = new AtomicReference<>();
+			Race race = new Race();
+			hedgeBudget.deposit();
+
+			Mono<Attempt> primary = attempt(webClient, exchange, serviceId, null, timeout, primaryInstance)
+				.onErrorResume(race::fail);
+			Mono<Attempt> hedge = Mono.delay(Duration.ofNanos(delay))
+				.flatMap(tick -> {
+					if (!hedgeBudget.tryWithdraw()) {
+						exhaustedCounter.increment();
+						return Mono.never();
+					}
+					if (!race.startHedge()) {
+						// 예산을 쓰는 사이 첫 요청이 이미 실패함
+						hedgeBudget.refund();
+						return Mono.never();
+					}
+					sentCounter.increment();
+					return attempt(webClient, exchange, serviceId, primaryInstance.get(), timeout, null)
+						.map(Attempt::asHedge)
+						.onErrorResume(race::fail);
+				});
+
+			return Mono.firstWithSignal(primary, hedge)
+				.flatMap(attempt -> {
+					latencyTracker.record(System.nanoTime() - start);
+					if (attempt.hedged()) {
+						wonCounter.increment();
+					}
+					return write(exchange, attempt);
+				})
+				.onErrorResume(e -> isBodyTooLarge(e) && !exchange.getResponse().isCommitted(),
+					e -> chain.filter(exchange));
+		};
+	}
+
+	private WebClient webClient(Route route, ServerWebExchange exchange, Config config) {
+		return webClientBuilder.clone()
+			.clientConnector(new ReactorClientHttpConnector(routingFilter.getHttpClient(route, exchange)))
+			.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int)config.getMaxBodySize().toBytes()))
+			.build();
+	}
+
+	private Mono<Attempt> attempt(WebClient webClient, ServerWebExchange exchange, String serviceId,
+		ServiceInstance excluded, Duration timeout, AtomicReference<ServiceInstance> chosen) {
+		ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerFactory.getInstance(serviceId);
+		if (loadBalancer == null) {
+			return Mono.error(new NotFoundException("No loadbalancer available for " + serviceId));
+		}
+
+		Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+			loadBalancerFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+			RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+		RequestData requestData = new RequestData(exchange.getRequest());
+		DefaultRequest<RequestDataContext> lbRequest = new DefaultRequest<>(excluded == null
+			? new RequestDataContext(requestData)
+			: new RetryableRequestContext(excluded, requestData));
+		lifecycles.forEach(lifecycle -> lifecycle.onStart(lbRequest));
+
+		return Mono.from(loadBalancer.choose(lbRequest))
+			.flatMap(lbResponse -> {
+				if (!lbResponse.hasServer()) {
+					lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+						new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, lbResponse)));
+					return Mono.error(NotFoundException.create(false, "Unable to find instance for " + serviceId));
+				}
+
+				ServiceInstance instance = lbResponse.getServer();
+				if (chosen != null) {
+					chosen.set(instance);
+				}
+				lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+
+				return exchange(webClient, exchange, instance, timeout)
+					.doOnSuccess(attempt -> complete(lifecycles, CompletionContext.Status.SUCCESS, null,
+						lbRequest, lbResponse, new ResponseData(attempt.status(), attempt.headers(),
+							new LinkedMultiValueMap<>(), requestData)))
+					.doOnError(e -> complete(lifecycles, CompletionContext.Status.FAILED, e, lbRequest, lbResponse,
+						null))
+					// 먼저 끝난 요청에 밀려 취소된 요청
+					.doOnCancel(() -> complete(lifecycles, CompletionContext.Status.DISCARD, null, lbRequest,
+						lbResponse, null));
+			});
+	}
+
+	private Mono<Attempt> exchange(WebClient webClient, ServerWebExchange exchange, ServiceInstance instance,
+		Duration timeout) {
+		URI uri = LoadBalancerUriTools.reconstructURI(instance, exchange.getRequest().getURI());
+		HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFiltersProvider.getIfAvailable(), exchange);
+
+		Mono<Attempt> attempt = webClient.get()
+			.uri(uri)
+			.headers(httpHeaders -> {
+				httpHeaders.addAll(headers);
+				httpHeaders.remove(HttpHeaders.HOST);
+			})
+			.exchangeToMono(response -> response.bodyToMono(byte[].class)
+				.defaultIfEmpty(EMPTY_BODY)
+				.map(body -> new Attempt(response.statusCode(), response.headers().asHttpHeaders(), body, false)));
+		if (timeout == null) {
+			return attempt;
+		}
+		// 기본 라우팅과 같이 응답 타임아웃은 504
+		return attempt
+			.timeout(timeout, Mono.error(new TimeoutException("Response took longer than timeout: " + timeout)))
+			.onErrorMap(TimeoutException.class,
+				e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e));
+	}
+
+	private static void complete(Set<LoadBalancerLifecycle> lifecycles, CompletionContext.Status status,
+		Throwable throwable, DefaultRequest<RequestDataContext> lbRequest, Response<ServiceInstance> lbResponse,
+		ResponseData responseData) {
+		CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context =
+			new CompletionContext<>(status, throwable, lbRequest, lbResponse, responseData);
+		lifecycles.forEach(lifecycle -> lifecycle.onComplete(context));
+	}
+
+	private Mono<Void> write(ServerWebExchange exchange, Attempt attempt) {
+		ServerHttpResponse response = exchange.getResponse();
+		HttpHeaders headers = HttpHeadersFilter.filter(headersFiltersProvider.getIfAvailable(), attempt.headers(),
+			exchange, HttpHeadersFilter.Type.RESPONSE);
+
+		response.setStatusCode(attempt.status());
+		response.getHeaders().putAll(headers);
+		response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+		response.getHeaders().setContentLength(attempt.body().length);
+
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(attempt.body())));
+	}
+
+	private static boolean isBodyTooLarge(Throwable e) {
+		if (e == null) {
+			return false;
+		}
+		return e instanceof DataBufferLimitException || (e.getCause() != e && isBodyTooLarge(e.getCause()));
+	}
+
+	private Counter counter(String name, String description, Config config) {
+		return Counter.builder(METRIC_NAME + "." + name)
+			.description(description)
+			.tag("route", config.getName())
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 첫 요청과 hedge 요청 중 아직 성공할 수 있는 요청 추적
+	 *
+	 * <p>
+	 * 실패한 요청은 다른 요청이 진행 중이면 결과를 기다리고, 남은 요청이 없으면 그 에러를 그대로 전달한다.
+	 * hedge 요청을 보내기 전에 첫 요청이 실패하면 hedge 지연을 기다리지 않고 바로 실패한다.
+	 * </p>
+	 */
+	private static final class Race {
+
+		private static final int WAITING = 0;
+		private static final int HEDGED = 1;
+		private static final int CLOSED = 2;
+
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+		private final AtomicInteger pending = new AtomicInteger(1);
+
+		// 첫 요청이 아직 실패하지 않았으면 hedge 요청 시작
+		private boolean startHedge() {
+			if (!state.compareAndSet(WAITING, HEDGED)) {
+				return false;
+			}
+			pending.incrementAndGet();
+			return true;
+		}
+
+		private <T> Mono<T> fail(Throwable e) {
+			state.compareAndSet(WAITING, CLOSED);
+			return pending.decrementAndGet() == 0 ? Mono.error(e) : Mono.never();
+		}
+	}
+
+	private record Attempt(HttpStatusCode status, HttpHeaders headers, byte[] body, boolean hedged) {
+
+		private Attempt asHedge() {
+			return new Attempt(status, headers, body, true);
+		}
+	}
+
+	public static class Config {
+
+		// 메트릭에 표시할 라우트 이름
+		private String name = "default";
+
+		// 이 백분위의 응답 시간이 지나도 끝나지 않으면 hedge 요청
+		private double percentile = 0.95;
+
+		// hedge 요청까지의 최소 지연, 표본이 부족할 때도 사용
+		private Duration minDelay = Duration.ofMillis(50);
+
+		// 메모리에 모을 수 있는 응답 본문 최대 크기, 넘으면 기본 라우팅 사용
+		private DataSize maxBodySize = DataSize.ofMegabytes(2);
+
+		// 요청 하나의 최대 응답 시간, 없으면 라우트의 응답 타임아웃
+		private Duration timeout;
+
+		public String getName() {
+			return name;
+		}
+
+		public Config setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public double getPercentile() {
+			return percentile;
+		}
+
+		public Config setPercentile(double percentile) {
+			this.percentile = percentile;
+			return this;
+		}
+
+		public Duration getMinDelay() {
+			return minDelay;
+		}
+
+		public Config setMinDelay(Duration minDelay) {
+			this.minDelay = minDelay;
+			return this;
+		}
+
+		public DataSize getMaxBodySize() {
+			return maxBodySize;
+		}
+
+		public Config setMaxBodySize(DataSize maxBodySize) {
+			this.maxBodySize = maxBodySize;
+			return this;
+		}
+
+		public Duration getTimeout() {
+			return timeout;
+		}
+
+		public Config setTimeout(Duration timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+	}
+}
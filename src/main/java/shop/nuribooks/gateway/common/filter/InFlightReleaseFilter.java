@@ -0,0 +1,44 @@
+package shop.nuribooks.gateway.common.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.loadbalancer.InstanceStatsLifecycle;
+
+/**
+ * 클라이언트가 요청을 취소하면 로드밸런서가 고른 인스턴스의 처리 중 요청 수를 되돌리는 글로벌 필터
+ *
+ * <p>
+ * {@link ReactiveLoadBalancerClientFilter} 는 취소 시 lifecycle 의 onComplete 를 부르지 않으므로,
+ * 바로 앞에서 요청 흐름을 감싸 취소 신호를 {@link InstanceStatsLifecycle#release} 로 넘긴다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class InFlightReleaseFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+	private final InstanceStatsLifecycle statsLifecycle;
+
+	public InFlightReleaseFilter(InstanceStatsLifecycle statsLifecycle) {
+		this.statsLifecycle = statsLifecycle;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		return chain.filter(exchange)
+			.doOnCancel(() -> statsLifecycle.release(exchange.getAttributes()));
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+}
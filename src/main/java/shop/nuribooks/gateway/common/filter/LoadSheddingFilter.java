@@ -0,0 +1,90 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.overload.OverloadController;
+import shop.nuribooks.gateway.common.overload.OverloadProperties;
+import shop.nuribooks.gateway.common.overload.RequestPriority;
+import shop.nuribooks.gateway.common.util.ErrorResponseUtils;
+
+/**
+ * 과부하 시 라우트 우선순위가 낮은 요청부터 503 으로 버리는 글로벌 필터
+ *
+ * <p>
+ * 라우트 id 로 요청의 우선순위를 정하고, {@link OverloadController} 의 과부하 정도가 우선순위별 기준을 넘으면
+ * 토큰 검증 등 다른 처리를 하기 전에 바로 응답한다. 주문/결제 같은 CRITICAL 요청은 버리지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+	public static final int ORDER = GlobalTokenValidationFilter.ORDER - 100;
+
+	private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+	private final OverloadController overloadController;
+	private final OverloadProperties properties;
+	private final Map<RequestPriority, Counter> shedCounters = new EnumMap<>(RequestPriority.class);
+
+	public LoadSheddingFilter(OverloadController overloadController, OverloadProperties properties,
+		MeterRegistry meterRegistry) {
+		this.overloadController = overloadController;
+		this.properties = properties;
+		for (RequestPriority priority : RequestPriority.values()) {
+			shedCounters.put(priority, Counter.builder(OverloadController.METRIC_NAME + ".shed")
+				.description("과부하로 버린 요청 수")
+				.tag("priority", priority.name().toLowerCase())
+				.register(meterRegistry));
+		}
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		if (!properties.isEnabled()) {
+			return chain.filter(exchange);
+		}
+
+		RequestPriority priority = priority(exchange);
+		if (!overloadController.tryAcquire(priority)) {
+			shedCounters.get(priority).increment();
+			log.debug("과부하로 요청을 버립니다. priority={}, path={}", priority, exchange.getRequest().getPath());
+			return ErrorResponseUtils.writeRetryableErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+				"요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요.", RETRY_AFTER);
+		}
+
+		return chain.filter(exchange)
+			.doFinally(signal -> overloadController.release());
+	}
+
+	private RequestPriority priority(ServerWebExchange exchange) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		if (route == null) {
+			return properties.getDefaultPriority();
+		}
+		return properties.getPriorities().getOrDefault(route.getId(), properties.getDefaultPriority());
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+}
@@ -38,7 +38,7 @@ public class LoginFilter extends AbstractGatewayFilterFactory<LoginFilter.Config
 				String jwtToken = response.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 				if (jwtToken != null) {
 					String token = jwtToken.substring(7);
-					String userId = jwtUtils.getUserId(token);
+					String userId = jwtUtils.verify(token).userId();
 					response.getHeaders().add("X-USER-ID", userId);
 
 				}
@@ -0,0 +1,130 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import shop.nuribooks.gateway.common.pool.ConnectionPoolProperties;
+import shop.nuribooks.gateway.common.pool.PooledHttpClientFactory;
+
+/**
+ * 라우트 metadata 에 지정된 연결 풀로 upstream 을 호출하는 라우팅 필터
+ *
+ * <p>
+ * 느린 라우트(이미지 다운로드 등)가 연결을 모두 잡아 다른 라우트(결제 등)가 연결을 기다리지 않도록
+ * {@link ConnectionPoolProperties} 의 풀마다 HttpClient 를 따로 만든다.
+ * 기본 {@link NettyRoutingFilter} 보다 먼저 실행되어 요청을 처리하므로 기본 필터는 이미 라우팅된 요청을 건너뛴다.
+ * 풀을 지정하지 않았거나 설정에 없는 풀을 지정한 라우트는 기본 HttpClient 를 사용한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class PooledNettyRoutingFilter extends NettyRoutingFilter implements DisposableBean {
+
+	public static final int ORDER = NettyRoutingFilter.ORDER - 1;
+
+	private final HttpClient defaultHttpClient;
+	private final HttpClientProperties properties;
+	private final Map<String, HttpClient> pooledHttpClients = new HashMap<>();
+	private final List<ConnectionProvider> connectionProviders = new ArrayList<>();
+
+	public PooledNettyRoutingFilter(
+		HttpClient httpClient,
+		ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+		HttpClientProperties properties,
+		ServerProperties serverProperties,
+		HttpClientSslConfigurer sslConfigurer,
+		ObjectProvider<HttpClientCustomizer> customizers,
+		ConnectionPoolProperties connectionPoolProperties) {
+		super(httpClient, headersFiltersProvider, properties);
+		this.defaultHttpClient = httpClient;
+		this.properties = properties;
+
+		connectionPoolProperties.getPools().forEach((name, pool) -> {
+			PooledHttpClientFactory factory = new PooledHttpClientFactory(name, pool, properties, serverProperties,
+				sslConfigurer, new ArrayList<>(customizers.orderedStream().toList()));
+			pooledHttpClients.put(name, factory.create());
+			connectionProviders.add(factory.getConnectionProvider());
+			log.info("upstream 연결 풀 생성. pool={}, maxConnections={}, pendingAcquireMaxCount={}",
+				name, pool.getMaxConnections(), pool.getPendingAcquireMaxCount());
+		});
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	/**
+	 * 라우트에 지정된 연결 풀의 HttpClient, 라우트별 연결 타임아웃 metadata 도 기본 필터와 같이 적용
+	 *
+	 * @param route 현재 라우트
+	 * @param exchange 현재 exchange
+	 * @return HttpClient
+	 */
+	@Override
+	protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+		Object poolName = route.getMetadata().get(ConnectionPoolProperties.POOL_METADATA);
+		HttpClient httpClient = poolName != null
+			? pooledHttpClients.getOrDefault(poolName.toString(), defaultHttpClient)
+			: defaultHttpClient;
+
+		Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+		if (connectTimeout != null) {
+			return httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+				connectTimeout instanceof Integer value ? value : Integer.parseInt(connectTimeout.toString()));
+		}
+		return httpClient;
+	}
+
+	/**
+	 * 라우트의 응답 타임아웃, 라우트 metadata 가 없으면 {@code spring.cloud.gateway.httpclient.response-timeout}
+	 *
+	 * @param route 현재 라우트
+	 * @return 응답 타임아웃, 제한하지 않으면 null
+	 */
+	public Duration getResponseTimeout(Route route) {
+		Object responseTimeout = route.getMetadata().get(RESPONSE_TIMEOUT_ATTR);
+		if (responseTimeout == null) {
+			return properties.getResponseTimeout();
+		}
+		try {
+			long millis = responseTimeout instanceof Number value
+				? value.longValue()
+				: Long.parseLong(responseTimeout.toString());
+			return millis >= 0 ? Duration.ofMillis(millis) : null;
+		} catch (NumberFormatException e) {
+			return properties.getResponseTimeout();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		Flux.fromIterable(connectionProviders)
+			.flatMap(ConnectionProvider::disposeLater)
+			.blockLast();
+	}
+}
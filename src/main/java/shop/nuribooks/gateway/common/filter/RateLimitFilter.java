@@ -0,0 +1,175 @@
+package shop.nuribooks.gateway.common.filter;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+import shop.nuribooks.gateway.common.filter.cache.ResponseCacheFilter;
+import shop.nuribooks.gateway.common.ratelimit.TokenBucketRateLimiter;
+import shop.nuribooks.gateway.common.util.ErrorResponseUtils;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
+
+/**
+ * 사용자 또는 클라이언트 IP 별로 요청 수를 제한하는 필터
+ *
+ * <p>
+ * JWT 로 검증된 회원은 회원 id, 비회원은 클라이언트 IP 를 키로 라우트마다 따로 token bucket 을 둔다.
+ * 클라이언트가 보낸 X-USER-ID 헤더는 위조할 수 있으므로 키로 쓰지 않는다.
+ * 앞단 프록시를 거치면 클라이언트 IP 는 신뢰하는 프록시 수만큼 X-Forwarded-For 의 오른쪽에서 찾는다.
+ * 한도를 넘으면 upstream 을 호출하지 않고 429 와 Retry-After 로 응답한다.
+ * 캐시된 응답도 한도에 포함되도록 응답 캐시 필터보다 먼저 실행한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> implements DisposableBean {
+
+	public static final int ORDER = ResponseCacheFilter.ORDER - 1;
+
+	public static final String METRIC_NAME = "rate.limit";
+
+	public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+	public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+	private final Collection<TokenBucketRateLimiter> limiters = new ConcurrentLinkedQueue<>();
+	private final RemoteAddressResolver remoteAddressResolver;
+	private final Counter rejectedCounter;
+	private final Disposable sweeper;
+
+	public RateLimitFilter(MeterRegistry meterRegistry,
+		@Value("${rate-limit.sweep-interval:1m}") Duration sweepInterval,
+		@Value("${rate-limit.trusted-proxies:0}") int trustedProxies) {
+		super(Config.class);
+		// 프록시 없이 직접 연결되면 X-Forwarded-For 는 클라이언트가 위조할 수 있으므로 소켓 주소만 사용
+		this.remoteAddressResolver = trustedProxies > 0
+			? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+			: new RemoteAddressResolver() {
+			};
+		this.rejectedCounter = Counter.builder(METRIC_NAME + ".rejected")
+			.description("요청 수 한도를 넘어 429 로 거절한 요청 수")
+			.register(meterRegistry);
+		Gauge.builder(METRIC_NAME + ".keys", limiters, RateLimitFilter::keyCount)
+			.description("추적 중인 rate limit 키 수")
+			.register(meterRegistry);
+		this.sweeper = Schedulers.parallel().schedulePeriodically(this::sweep,
+			sweepInterval.toNanos(), sweepInterval.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 요청 수 제한 필터
+	 *
+	 * @param config 초당 허용 요청 수와 순간 최대 요청 수
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		TokenBucketRateLimiter memberLimiter =
+			new TokenBucketRateLimiter(config.getReplenishRate(), config.getBurstCapacity());
+		TokenBucketRateLimiter clientLimiter =
+			new TokenBucketRateLimiter(config.getReplenishRate(), config.getBurstCapacity());
+		limiters.add(memberLimiter);
+		limiters.add(clientLimiter);
+
+		// 요청마다 문자열을 만들지 않도록 헤더 값을 미리 준비
+		String limit = String.valueOf(config.getBurstCapacity());
+		String[] remainingValues = new String[config.getBurstCapacity() + 1];
+		for (int i = 0; i < remainingValues.length; i++) {
+			remainingValues[i] = String.valueOf(i);
+		}
+
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			long now = System.nanoTime();
+			VerifiedClaims claims = exchange.getAttribute(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR);
+			long result = claims != null
+				? memberLimiter.tryAcquire(claims.userId(), now)
+				: clientLimiter.tryAcquire(clientKey(exchange), now);
+
+			HttpHeaders headers = exchange.getResponse().getHeaders();
+			headers.set(LIMIT_HEADER, limit);
+
+			if (result >= 0) {
+				headers.set(REMAINING_HEADER, remainingValues[(int)Math.min(result, remainingValues.length - 1)]);
+				return chain.filter(exchange);
+			}
+
+			rejectedCounter.increment();
+			headers.set(REMAINING_HEADER, remainingValues[0]);
+			log.debug("요청 수 한도를 초과했습니다. path={}", exchange.getRequest().getPath());
+			return ErrorResponseUtils.writeRetryableErrorResponse(exchange, HttpStatus.TOO_MANY_REQUESTS,
+				"요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.", Duration.ofNanos(-result));
+		}, ORDER);
+	}
+
+	private Object clientKey(ServerWebExchange exchange) {
+		InetSocketAddress remoteAddress = remoteAddressResolver.resolve(exchange);
+		if (remoteAddress == null) {
+			return "unknown";
+		}
+		return remoteAddress.getAddress() != null ? remoteAddress.getAddress() : remoteAddress.getHostString();
+	}
+
+	private void sweep() {
+		long now = System.nanoTime();
+		for (TokenBucketRateLimiter limiter : limiters) {
+			limiter.sweep(now);
+		}
+	}
+
+	private static double keyCount(Collection<TokenBucketRateLimiter> limiters) {
+		return limiters.stream().mapToInt(TokenBucketRateLimiter::size).sum();
+	}
+
+	@Override
+	public void destroy() {
+		sweeper.dispose();
+	}
+
+	public static class Config {
+
+		// 초당 채워지는 요청 수
+		private double replenishRate = 10;
+
+		// 순간 최대 요청 수
+		private int burstCapacity = 20;
+
+		public double getReplenishRate() {
+			return replenishRate;
+		}
+
+		public Config setReplenishRate(double replenishRate) {
+			this.replenishRate = replenishRate;
+			return this;
+		}
+
+		public int getBurstCapacity() {
+			return burstCapacity;
+		}
+
+		public Config setBurstCapacity(int burstCapacity) {
+			this.burstCapacity = burstCapacity;
+			return this;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package shop.nuribooks.gateway.common.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import shop.nuribooks.gateway.common.util.ErrorResponseUtils;
+
+/**
+ * 본문을 메모리에 모으기 전에 크기와 Content-Type 을 검사하는 필터
+ *
+ * <p>
+ * Content-Length 가 한도를 넘거나 JSON 이 아닌 본문은 본문을 읽기 전에 413/415 로 거절한다.
+ * Content-Length 가 없는 요청(chunked, HTTP/2)은 본문을 흘려보내면서 바이트 수를 세고,
+ * 한도를 넘는 순간 413 으로 중단한다. 본문 재작성 필터보다 먼저 적용해야 한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class RequestBodyGuardFilter extends AbstractGatewayFilterFactory<RequestBodyGuardFilter.Config> {
+
+	public RequestBodyGuardFilter() {
+		super(Config.class);
+	}
+
+	/**
+	 * 요청 본문 크기 및 Content-Type 검사 필터
+	 *
+	 * @param config 본문 최대 크기와 JSON 강제 여부
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		long maxBytes = config.getMaxSize().toBytes();
+
+		return (exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+			HttpHeaders headers = request.getHeaders();
+			long contentLength = headers.getContentLength();
+
+			// 본문이 없는 요청은 검사하지 않음
+			if (contentLength == 0) {
+				return chain.filter(exchange);
+			}
+
+			// HTTP/2 요청은 Content-Length 와 Transfer-Encoding 이 모두 없어도 본문이 있을 수 있으므로
+			// 본문이 있다고 알 수 없는 요청은 Content-Type 이 있을 때만 JSON 여부를 검사
+			boolean hasBody = contentLength > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+			if (config.isRequireJson() && (hasBody || headers.getContentType() != null)
+				&& !isJson(headers.getContentType())) {
+				log.warn("JSON 이 아닌 요청 본문을 거절합니다. path={}", request.getPath());
+				return ErrorResponseUtils.writeErrorResponse(exchange, HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+					"UNSUPPORTED_MEDIA_TYPE");
+			}
+
+			if (contentLength > maxBytes) {
+				log.warn("요청 본문이 최대 크기를 초과하여 거절합니다. path={}, length={}", request.getPath(), contentLength);
+				return ErrorResponseUtils.writeErrorResponse(exchange, HttpStatus.PAYLOAD_TOO_LARGE,
+					"PAYLOAD_TOO_LARGE");
+			}
+
+			if (contentLength > 0) {
+				return chain.filter(exchange);
+			}
+
+			// Content-Length 를 알 수 없는 요청(chunked, HTTP/2)은 흘려보내면서 크기를 검사
+			ServerHttpRequest limitedRequest = new ServerHttpRequestDecorator(request) {
+				@Override
+				public Flux<DataBuffer> getBody() {
+					return limit(super.getBody(), maxBytes);
+				}
+			};
+
+			return chain.filter(exchange.mutate().request(limitedRequest).build());
+		};
+	}
+
+	private static boolean isJson(MediaType contentType) {
+		return contentType != null
+			&& (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+			|| "json".equals(contentType.getSubtypeSuffix()));
+	}
+
+	private static Flux<DataBuffer> limit(Flux<DataBuffer> body, long maxBytes) {
+		return Flux.defer(() -> {
+			long[] total = {0L};
+
+			return body.handle((dataBuffer, sink) -> {
+				total[0] += dataBuffer.readableByteCount();
+
+				if (total[0] > maxBytes) {
+					DataBufferUtils.release(dataBuffer);
+					sink.error(new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "request body too large"));
+					return;
+				}
+				sink.next(dataBuffer);
+			});
+		});
+	}
+
+	public static class Config {
+
+		// 허용하는 본문 최대 크기
+		private DataSize maxSize = DataSize.ofKilobytes(64);
+
+		// JSON 본문만 허용할지 여부
+		private boolean requireJson = true;
+
+		public DataSize getMaxSize() {
+			return maxSize;
+		}
+
+		public Config setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		public boolean isRequireJson() {
+			return requireJson;
+		}
+
+		public Config setRequireJson(boolean requireJson) {
+			this.requireJson = requireJson;
+			return this;
+		}
+	}
+}
@@ -2,10 +2,14 @@ package shop.nuribooks.gateway.common.filter;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyRequestBodyGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
-import shop.nuribooks.gateway.common.filter.rewrite.SignupRequestBodyRewrite;
+import shop.nuribooks.gateway.common.crypto.PasswordHashRejectedException;
+import shop.nuribooks.gateway.common.crypto.PasswordHashingService;
+import shop.nuribooks.gateway.common.filter.rewrite.JsonBodyRewriteFilter;
+import shop.nuribooks.gateway.common.filter.rewrite.JsonFieldRewriter;
+import shop.nuribooks.gateway.common.util.ErrorResponseUtils;
 
 /*
  * 회원 가입 시 발생하는 필터
@@ -15,14 +19,14 @@ import shop.nuribooks.gateway.common.filter.rewrite.SignupRequestBodyRewrite;
 @Component
 public class SignupFilter extends AbstractGatewayFilterFactory<SignupFilter.Config> {
 
-	private final ModifyRequestBodyGatewayFilterFactory modifyRequestBodyFilter;
-	private final SignupRequestBodyRewrite requestBodyRewrite;
+	// 회원 가입 요청의 비밀번호 필드
+	private static final JsonFieldRewriter PASSWORD_REWRITER = JsonFieldRewriter.of("/password");
 
-	public SignupFilter(ModifyRequestBodyGatewayFilterFactory modifyRequestBodyFilter,
-		SignupRequestBodyRewrite requestBodyRewrite) {
+	private final PasswordHashingService passwordHashingService;
+
+	public SignupFilter(PasswordHashingService passwordHashingService) {
 		super(Config.class);
-		this.modifyRequestBodyFilter = modifyRequestBodyFilter;
-		this.requestBodyRewrite = requestBodyRewrite;
+		this.passwordHashingService = passwordHashingService;
 	}
 
 	/**
@@ -33,12 +37,15 @@ public class SignupFilter extends AbstractGatewayFilterFactory<SignupFilter.Conf
 	 */
 	@Override
 	public GatewayFilter apply(Config config) {
+		// 라우트 설정 시 한 번만 생성하여 요청마다 재사용
+		GatewayFilter rewriteFilter = new JsonBodyRewriteFilter(PASSWORD_REWRITER, passwordHashingService::encode);
+
 		return (exchange, chain) ->
-			modifyRequestBodyFilter
-				.apply(
-					new ModifyRequestBodyGatewayFilterFactory.Config()
-						.setRewriteFunction(String.class, String.class, requestBodyRewrite))
-				.filter(exchange, chain);
+			rewriteFilter.filter(exchange, chain)
+				// 해시 동시 처리 한도 초과 시 503 + Retry-After 로 빠르게 거절
+				.onErrorResume(PasswordHashRejectedException.class, e ->
+					ErrorResponseUtils.writeRetryableErrorResponse(exchange, HttpStatus.SERVICE_UNAVAILABLE,
+						"SERVICE_UNAVAILABLE", e.getRetryAfter()));
 	}
 
 	public static class Config {
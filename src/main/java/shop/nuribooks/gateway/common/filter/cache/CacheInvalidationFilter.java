@@ -0,0 +1,62 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import java.util.Set;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.cache.CacheInvalidator;
+
+/**
+ * 관리자 변경 요청이 성공하면 관련 캐시 항목을 무효화하는 필터
+ *
+ * <p>
+ * 경로를 바꾸는 필터(StripPrefix 등)보다 먼저 추가해 클라이언트가 보낸 경로로 태그를 찾는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class CacheInvalidationFilter extends AbstractGatewayFilterFactory<CacheInvalidationFilter.Config> {
+
+	private static final Set<HttpMethod> MUTATION_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT,
+		HttpMethod.PATCH, HttpMethod.DELETE);
+
+	private final CacheInvalidator cacheInvalidator;
+
+	public CacheInvalidationFilter(CacheInvalidator cacheInvalidator) {
+		super(Config.class);
+		this.cacheInvalidator = cacheInvalidator;
+	}
+
+	/**
+	 * 캐시 무효화 필터
+	 *
+	 * @param config 설정 (현재 사용하지 않음)
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		return (exchange, chain) -> {
+			if (!MUTATION_METHODS.contains(exchange.getRequest().getMethod())) {
+				return chain.filter(exchange);
+			}
+
+			String path = exchange.getRequest().getPath().value();
+
+			return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+				HttpStatusCode status = exchange.getResponse().getStatusCode();
+				if (status != null && status.is2xxSuccessful()) {
+					cacheInvalidator.invalidate(path);
+				}
+			}));
+		};
+	}
+
+	public static class Config {
+	}
+}
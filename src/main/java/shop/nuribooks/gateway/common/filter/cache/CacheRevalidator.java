@@ -0,0 +1,204 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.cache.CachedResponse;
+import shop.nuribooks.gateway.common.cache.ResponseCache;
+import shop.nuribooks.gateway.common.cache.ResponseCachePolicy;
+
+/**
+ * stale 응답을 내보낸 뒤 백그라운드에서 upstream 을 다시 호출해 캐시를 갱신하는 컴포넌트
+ *
+ * <p>
+ * 같은 요청에 대한 갱신은 동시에 하나만 실행한다. 갱신이 실패하거나 시간이 초과되면
+ * 기존 stale 응답을 그대로 두어 stale 기간이 끝날 때까지 계속 사용한다.
+ * 라우트 URI 의 서비스 이름과 같은 circuit breaker, bulkhead 의 허가를 받아야 갱신하고 결과를 기록하므로,
+ * 열린 circuit 이나 가득 찬 bulkhead 를 우회해 장애 중인 downstream 을 호출하지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class CacheRevalidator {
+
+	public static final String METRIC_NAME = "response.cache.revalidate";
+
+	private final WebClient webClient;
+	private final ResponseCache responseCache;
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final BulkheadRegistry bulkheadRegistry;
+	private final Duration timeout;
+
+	// 갱신 중인 요청 키
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final Counter successCounter;
+	private final Counter failureCounter;
+	private final Counter rejectedCounter;
+
+	@Autowired
+	public CacheRevalidator(
+		WebClient.Builder webClientBuilder,
+		LoadBalancedExchangeFilterFunction loadBalancerFunction,
+		ResponseCache responseCache,
+		CircuitBreakerRegistry circuitBreakerRegistry,
+		BulkheadRegistry bulkheadRegistry,
+		MeterRegistry meterRegistry,
+		@Value("${response-cache.revalidate-timeout:5s}") Duration timeout) {
+		this(webClientBuilder.clone().filter(loadBalancerFunction).build(), responseCache, circuitBreakerRegistry,
+			bulkheadRegistry, meterRegistry, timeout);
+	}
+
+	CacheRevalidator(WebClient webClient, ResponseCache responseCache, CircuitBreakerRegistry circuitBreakerRegistry,
+		BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry, Duration timeout) {
+		this.webClient = webClient;
+		this.responseCache = responseCache;
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.bulkheadRegistry = bulkheadRegistry;
+		this.timeout = timeout;
+		this.successCounter = Counter.builder(METRIC_NAME)
+			.tag("result", "success")
+			.description("백그라운드 캐시 갱신 결과")
+			.register(meterRegistry);
+		this.failureCounter = Counter.builder(METRIC_NAME)
+			.tag("result", "failure")
+			.description("백그라운드 캐시 갱신 결과")
+			.register(meterRegistry);
+		this.rejectedCounter = Counter.builder(METRIC_NAME)
+			.tag("result", "rejected")
+			.description("백그라운드 캐시 갱신 결과")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 요청에 해당하는 캐시 항목을 백그라운드에서 갱신, 이미 갱신 중이면 무시
+	 *
+	 * @param exchange 요청-응답 교환 객체
+	 * @param stale 현재 캐시된 stale 응답
+	 * @param ttlOverride 라우트에서 지정한 수명, 없으면 null
+	 * @param staleWindow 만료 후 stale 응답으로 보관할 기간
+	 */
+	public void revalidate(ServerWebExchange exchange, CachedResponse stale, Duration ttlOverride,
+		Duration staleWindow) {
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		ServerHttpRequest request = exchange.getRequest();
+
+		if (route == null) {
+			return;
+		}
+
+		URI uri = UriComponentsBuilder.fromUri(route.getUri())
+			.replacePath(request.getURI().getRawPath())
+			.replaceQuery(request.getURI().getRawQuery())
+			.build(true)
+			.toUri();
+		String key = uri.toString();
+
+		if (!inFlight.add(key)) {
+			return;
+		}
+
+		// 요청 경로의 circuit breaker 필터와 같은 downstream 이름 사용
+		String downstream = route.getUri().getHost();
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(downstream);
+		Bulkhead bulkhead = bulkheadRegistry.bulkhead(downstream);
+		if (!bulkhead.tryAcquirePermission()) {
+			inFlight.remove(key);
+			rejectedCounter.increment();
+			return;
+		}
+		if (!circuitBreaker.tryAcquirePermission()) {
+			bulkhead.onComplete();
+			inFlight.remove(key);
+			rejectedCounter.increment();
+			log.debug("circuit 이 열려 있어 캐시 갱신을 건너뜁니다. downstream={}", downstream);
+			return;
+		}
+
+		long start = circuitBreaker.getCurrentTimestamp();
+		webClient.get()
+			.uri(uri)
+			.headers(headers -> copyVaryHeaders(request.getHeaders(), stale.headers(), headers))
+			.exchangeToMono(response -> DataBufferUtils.join(response.bodyToFlux(DataBuffer.class),
+					(int)Math.min(responseCache.getMaxEntrySize(), Integer.MAX_VALUE))
+				.map(buffer -> {
+					byte[] body = new byte[buffer.readableByteCount()];
+					buffer.read(body);
+					DataBufferUtils.release(buffer);
+					return body;
+				})
+				.defaultIfEmpty(new byte[0])
+				.map(body -> {
+					recordResult(circuitBreaker, start, response.statusCode());
+					return responseCache.put(request, response.statusCode().value(),
+						response.headers().asHttpHeaders(), body, ttlOverride, staleWindow) != null;
+				}))
+			.timeout(timeout)
+			.doOnError(e -> circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+				circuitBreaker.getTimestampUnit(), e))
+			.doOnCancel(circuitBreaker::releasePermission)
+			.doFinally(signal -> {
+				bulkhead.onComplete();
+				inFlight.remove(key);
+			})
+			.subscribe(stored -> {
+				if (stored) {
+					successCounter.increment();
+				} else {
+					// 저장할 수 없는 응답(5xx 등)은 기존 stale 응답을 유지
+					failureCounter.increment();
+				}
+			}, e -> {
+				failureCounter.increment();
+				log.warn("캐시 갱신 실패, stale 응답을 유지합니다. uri={}, error={}", uri, e.toString());
+			});
+	}
+
+	// CircuitBreakerFilter 와 같이 5xx 응답만 실패로 기록
+	private static void recordResult(CircuitBreaker circuitBreaker, long start, HttpStatusCode status) {
+		long duration = circuitBreaker.getCurrentTimestamp() - start;
+		if (status.is5xxServerError()) {
+			circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), new ResponseStatusException(status));
+		} else {
+			circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+		}
+	}
+
+	private static void copyVaryHeaders(HttpHeaders requestHeaders, HttpHeaders cachedHeaders, HttpHeaders target) {
+		target.addAll(HttpHeaders.ACCEPT, requestHeaders.getOrEmpty(HttpHeaders.ACCEPT));
+		for (String name : ResponseCachePolicy.varyHeaders(cachedHeaders)) {
+			if (requestHeaders.containsKey(name)) {
+				target.put(name, requestHeaders.get(name));
+			}
+		}
+	}
+}
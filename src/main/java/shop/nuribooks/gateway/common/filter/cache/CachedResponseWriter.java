@@ -0,0 +1,64 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import java.time.Instant;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.cache.CachedResponse;
+import shop.nuribooks.gateway.common.cache.ResponseCompressor;
+
+/**
+ * 캐시된 응답을 클라이언트에 쓰는 유틸
+ *
+ * @author nuri
+ */
+public final class CachedResponseWriter {
+
+	public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+	// gzip 본문으로 응답할 때 압축 전 본문, ETag 는 인코딩과 무관하게 이 본문으로 계산한다
+	public static final String IDENTITY_BODY_ATTR = CachedResponseWriter.class.getName() + ".identityBody";
+
+	private CachedResponseWriter() {
+	}
+
+	/**
+	 * 캐시된 응답을 upstream 호출 없이 그대로 응답, gzip 본문이 있고 클라이언트가 허용하면 gzip 본문으로 응답
+	 *
+	 * @param exchange 요청-응답 교환 객체
+	 * @param cached 캐시된 응답
+	 * @param cacheStatus X-Cache 헤더 값 (HIT 등)
+	 * @return 응답 쓰기 결과
+	 */
+	public static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+		ServerHttpResponse response = exchange.getResponse();
+		HttpHeaders headers = response.getHeaders();
+
+		response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+		headers.putAll(cached.headers());
+
+		byte[] body = cached.body();
+		if (cached.gzipBody() != null) {
+			if (headers.getVary().stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+			// Content-Encoding 이 있으면 서버 압축은 건너뜀
+			if (ResponseCompressor.acceptsGzip(exchange.getRequest().getHeaders())) {
+				headers.set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+				exchange.getAttributes().put(IDENTITY_BODY_ATTR, body);
+				body = cached.gzipBody();
+			}
+		}
+
+		byte[] responseBody = body;
+		headers.setContentLength(responseBody.length);
+		headers.set(HttpHeaders.AGE, String.valueOf(cached.ageAt(Instant.now()).toSeconds()));
+		headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+		return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(responseBody)));
+	}
+}
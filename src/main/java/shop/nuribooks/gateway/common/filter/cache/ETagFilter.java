@@ -0,0 +1,218 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.cache.ETagIndex;
+import shop.nuribooks.gateway.common.cache.ResponseCompressor;
+
+/**
+ * 응답 본문으로 강한 ETag 를 계산하고 If-None-Match 요청에 304 로 응답하는 필터
+ *
+ * <p>
+ * {@link ETagIndex} 에 기억된 ETag 와 If-None-Match 가 일치하면 upstream 을 호출하지 않는다.
+ * 그렇지 않으면 upstream 응답 본문의 SHA-256 으로 ETag 를 붙이고, 일치하면 본문 대신 304 를 보낸다.
+ * ETag 는 인코딩과 무관하게 압축 전 본문으로 한 번만 계산해 인덱스에 저장하고, gzip 본문으로 나가는 응답
+ * (캐시의 gzip 본문, 서버 압축)에는 같은 값을 약한 ETag({@code W/})로 붙인다.
+ * ETag 헤더는 본문보다 먼저 나가야 하므로 Content-Length 가 한도 이하인 200 응답만 모아서 처리한다.
+ * 같은 라우트에 응답 캐시 필터가 있으면 그보다 먼저 추가한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class ETagFilter extends AbstractGatewayFilterFactory<ETagFilter.Config> {
+
+	// 응답 캐시 필터와 같은 순서, 라우트에 추가한 순서대로 실행
+	public static final int ORDER = ResponseCacheFilter.ORDER;
+
+	public static final String METRIC_NAME = "etag.not-modified";
+
+	private final ETagIndex etagIndex;
+	private final ResponseCompressor responseCompressor;
+	private final Counter indexHitCounter;
+	private final Counter upstreamHitCounter;
+
+	public ETagFilter(ETagIndex etagIndex, ResponseCompressor responseCompressor, MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.etagIndex = etagIndex;
+		this.responseCompressor = responseCompressor;
+		this.indexHitCounter = Counter.builder(METRIC_NAME)
+			.tag("source", "index")
+			.description("upstream 호출 없이 보낸 304 응답 수")
+			.register(meterRegistry);
+		this.upstreamHitCounter = Counter.builder(METRIC_NAME)
+			.tag("source", "upstream")
+			.description("upstream 응답 본문 대신 보낸 304 응답 수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * ETag 필터
+	 *
+	 * @param config ETag 를 계산할 본문 최대 크기
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		long maxBodySize = config.getMaxBodySize().toBytes();
+
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+
+			if (!HttpMethod.GET.equals(request.getMethod())) {
+				return chain.filter(exchange);
+			}
+
+			String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+			String knownETag = etagIndex.get(request);
+
+			String matched = ifNoneMatch != null && knownETag != null ? matching(ifNoneMatch, knownETag) : null;
+			if (matched != null) {
+				log.debug("ETag 일치, upstream 호출 없이 304 응답. path={}", request.getPath());
+				indexHitCounter.increment();
+				// 응답 인코딩을 알 수 없으므로 클라이언트가 가진 형태(강한/약한 ETag) 그대로 응답
+				return notModified(exchange.getResponse(), matched);
+			}
+
+			ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+				@Override
+				public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+					HttpStatusCode status = getStatusCode();
+					long contentLength = getHeaders().getContentLength();
+
+					if ((status != null && status.value() != HttpStatus.OK.value())
+						|| contentLength < 0 || contentLength > maxBodySize) {
+						// 삭제되었거나 ETag 를 계산할 수 없는 응답이면 이전 ETag 로 304 응답하지 않도록 제거
+						if (status == null || status.value() != HttpStatus.NOT_MODIFIED.value()) {
+							etagIndex.invalidate(request);
+						}
+						return super.writeWith(body);
+					}
+
+					return DataBufferUtils.join(Flux.from(body))
+						.defaultIfEmpty(bufferFactory().wrap(new byte[0]))
+						.flatMap(joined -> {
+							byte[] bytes = new byte[joined.readableByteCount()];
+							joined.read(bytes);
+							DataBufferUtils.release(joined);
+
+							// upstream 이 ETag 를 보냈으면 그대로 사용, 아니면 압축 전 본문으로 계산
+							boolean encoded = getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING);
+							byte[] identity = encoded
+								? exchange.getAttributeOrDefault(CachedResponseWriter.IDENTITY_BODY_ATTR, bytes)
+								: bytes;
+							String etag = getHeaders().getETag() != null ? getHeaders().getETag() : digest(identity);
+							etagIndex.put(request, etag);
+
+							if (encoded || responseCompressor.willCompress(request.getHeaders(), getHeaders())) {
+								etag = weak(etag);
+							}
+
+							if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+								upstreamHitCounter.increment();
+								return notModified(getDelegate(), etag);
+							}
+
+							getHeaders().setETag(etag);
+							return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+						});
+				}
+			};
+
+			return chain.filter(exchange.mutate().response(response).build());
+		}, ORDER);
+	}
+
+	private static Mono<Void> notModified(ServerHttpResponse response, String etag) {
+		HttpHeaders headers = response.getHeaders();
+		headers.remove(HttpHeaders.CONTENT_LENGTH);
+		headers.remove(HttpHeaders.CONTENT_TYPE);
+		headers.setETag(etag);
+		response.setStatusCode(HttpStatus.NOT_MODIFIED);
+		return response.setComplete();
+	}
+
+	/**
+	 * If-None-Match 는 약한 비교를 사용하므로 W/ 접두사를 무시하고 비교
+	 */
+	static boolean matches(String ifNoneMatch, String etag) {
+		return matching(ifNoneMatch, etag) != null;
+	}
+
+	/**
+	 * If-None-Match 에서 ETag 와 일치하는 값, * 이면 ETag
+	 *
+	 * @return 일치하는 값, 없으면 null
+	 */
+	static String matching(String ifNoneMatch, String etag) {
+		String normalized = stripWeak(etag);
+
+		for (String candidate : ifNoneMatch.split(",")) {
+			String trimmed = candidate.trim();
+			if (trimmed.equals("*")) {
+				return etag;
+			}
+			if (stripWeak(trimmed).equals(normalized)) {
+				return trimmed;
+			}
+		}
+		return null;
+	}
+
+	private static String stripWeak(String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private static String weak(String etag) {
+		return etag.startsWith("W/") ? etag : "W/" + etag;
+	}
+
+	private static String digest(byte[] body) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(body)) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			// 모든 JVM 은 SHA-256 을 지원해야 한다
+			throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+		}
+	}
+
+	public static class Config {
+
+		// ETag 를 계산할 본문 최대 크기
+		private DataSize maxBodySize = DataSize.ofKilobytes(512);
+
+		public DataSize getMaxBodySize() {
+			return maxBodySize;
+		}
+
+		public Config setMaxBodySize(DataSize maxBodySize) {
+			this.maxBodySize = maxBodySize;
+			return this;
+		}
+	}
+}
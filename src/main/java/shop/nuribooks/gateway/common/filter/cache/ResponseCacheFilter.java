@@ -0,0 +1,124 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.cache.CachedResponse;
+import shop.nuribooks.gateway.common.cache.ResponseCache;
+import shop.nuribooks.gateway.common.cache.ResponseCachePolicy;
+
+/**
+ * 익명 GET 요청의 응답을 게이트웨이에 캐시하는 필터
+ *
+ * <p>
+ * 캐시 적중 시 upstream 을 호출하지 않고 바로 응답한다.
+ * stale-while-revalidate 기간을 지정한 라우트는 만료된 응답도 그 기간 동안 바로 내보내고
+ * {@link CacheRevalidator} 로 백그라운드에서 갱신하며, upstream 호출이 실패하면 stale 응답으로 대신한다.
+ * 응답 본문을 복사해야 하므로 {@link NettyWriteResponseFilter} 보다 먼저 실행되는 {@link #ORDER} 순서를 갖는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+	// 응답을 쓰는 NettyWriteResponseFilter 보다 앞에서 응답을 감싸야 함
+	public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+	private final ResponseCache responseCache;
+	private final CacheRevalidator cacheRevalidator;
+
+	public ResponseCacheFilter(ResponseCache responseCache, CacheRevalidator cacheRevalidator) {
+		super(Config.class);
+		this.responseCache = responseCache;
+		this.cacheRevalidator = cacheRevalidator;
+	}
+
+	/**
+	 * 응답 캐시 필터
+	 *
+	 * @param config 라우트별 캐시 설정
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		Duration staleWindow = config.getStaleWhileRevalidate() != null
+			? config.getStaleWhileRevalidate() : Duration.ZERO;
+
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+
+			if (!responseCache.isEnabled() || !ResponseCachePolicy.isCacheableRequest(request)) {
+				return chain.filter(exchange);
+			}
+
+			if (ResponseCachePolicy.acceptsCachedResponse(request)) {
+				CachedResponse cached = responseCache.getIncludingStale(request);
+
+				if (cached != null && cached.isFreshAt(Instant.now())) {
+					log.debug("응답 캐시 적중. path={}", request.getPath());
+					return CachedResponseWriter.write(exchange, cached, "HIT");
+				}
+				if (cached != null) {
+					log.debug("stale 응답 후 백그라운드 갱신. path={}", request.getPath());
+					cacheRevalidator.revalidate(exchange, cached, config.getTtl(), staleWindow);
+					return CachedResponseWriter.write(exchange, cached, "STALE");
+				}
+			}
+
+			ResponseCaptureDecorator response = new ResponseCaptureDecorator(exchange.getResponse(),
+				responseCache.getMaxEntrySize(),
+				(status, headers, body) -> responseCache.put(request, status, headers, body, config.getTtl(),
+					staleWindow));
+
+			return chain.filter(exchange.mutate().response(response).build())
+				.onErrorResume(e -> {
+					// upstream 오류나 시간 초과 시 남아 있는 stale 응답으로 대신
+					CachedResponse stale = responseCache.getIncludingStale(request);
+					if (stale == null || exchange.getResponse().isCommitted()) {
+						return Mono.error(e);
+					}
+					log.warn("upstream 호출 실패, stale 응답으로 대신합니다. path={}, error={}", request.getPath(),
+						e.toString());
+					return CachedResponseWriter.write(exchange, stale, "STALE");
+				});
+		}, ORDER);
+	}
+
+	public static class Config {
+
+		// 응답에 max-age 가 없을 때 사용할 수명, null 이면 전역 기본값
+		private Duration ttl;
+
+		// 만료 후에도 stale 응답을 내보내며 백그라운드에서 갱신할 기간, null 이면 사용하지 않음
+		private Duration staleWhileRevalidate;
+
+		public Duration getTtl() {
+			return ttl;
+		}
+
+		public Config setTtl(Duration ttl) {
+			this.ttl = ttl;
+			return this;
+		}
+
+		public Duration getStaleWhileRevalidate() {
+			return staleWhileRevalidate;
+		}
+
+		public Config setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+			this.staleWhileRevalidate = staleWhileRevalidate;
+			return this;
+		}
+	}
+}
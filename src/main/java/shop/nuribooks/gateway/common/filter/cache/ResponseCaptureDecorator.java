@@ -0,0 +1,105 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 클라이언트로 나가는 응답 본문을 그대로 흘려보내면서 복사해 두는 응답 데코레이터
+ *
+ * <p>
+ * 본문을 모은 뒤 쓰지 않고 버퍼가 지나갈 때 복사하므로 응답 지연이 늘지 않는다.
+ * 본문이 한도를 넘거나 쓰기가 실패/취소되면 복사를 포기하고 {@link Listener#onAbandoned()} 를 호출한다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class ResponseCaptureDecorator extends ServerHttpResponseDecorator {
+
+	private final long maxBodySize;
+	private final Listener listener;
+
+	public ResponseCaptureDecorator(ServerHttpResponse delegate, long maxBodySize, Listener listener) {
+		super(delegate);
+		this.maxBodySize = maxBodySize;
+		this.listener = listener;
+	}
+
+	@Override
+	public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+		Capture capture = new Capture();
+
+		Flux<? extends DataBuffer> captured = Flux.from(body)
+			.doOnNext(capture::append)
+			.doOnComplete(() -> {
+				if (capture.out == null) {
+					listener.onAbandoned();
+					return;
+				}
+				HttpStatusCode status = getStatusCode();
+				listener.onCaptured(status != null ? status.value() : 200, getHeaders(), capture.out.toByteArray());
+			})
+			.doOnError(e -> listener.onAbandoned())
+			.doOnCancel(listener::onAbandoned);
+
+		return super.writeWith(captured);
+	}
+
+	@Override
+	public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+		// 스트리밍 응답은 복사하지 않는다
+		listener.onAbandoned();
+		return super.writeAndFlushWith(body);
+	}
+
+	private class Capture {
+
+		private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		private void append(DataBuffer buffer) {
+			if (out == null) {
+				return;
+			}
+
+			int length = buffer.readableByteCount();
+			if (out.size() + (long)length > maxBodySize) {
+				out = null;
+				return;
+			}
+
+			ByteBuffer copy = ByteBuffer.allocate(length);
+			buffer.toByteBuffer(buffer.readPosition(), copy, 0, length);
+			out.write(copy.array(), 0, length);
+		}
+	}
+
+	/**
+	 * 복사 결과를 받는 콜백
+	 */
+	public interface Listener {
+
+		/**
+		 * 본문 전체를 복사한 경우 호출
+		 *
+		 * @param status 응답 상태 코드
+		 * @param headers 응답 헤더
+		 * @param body 복사한 본문
+		 */
+		void onCaptured(int status, HttpHeaders headers, byte[] body);
+
+		/**
+		 * 본문을 복사하지 못한 경우 호출
+		 */
+		default void onAbandoned() {
+		}
+	}
+}
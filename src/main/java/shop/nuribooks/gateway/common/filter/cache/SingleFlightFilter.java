@@ -0,0 +1,192 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import shop.nuribooks.gateway.common.cache.CachedResponse;
+import shop.nuribooks.gateway.common.cache.ResponseCachePolicy;
+
+/**
+ * 동시에 들어온 같은 GET 요청을 하나의 upstream 호출로 합치는 필터 (single-flight)
+ *
+ * <p>
+ * 먼저 들어온 요청(leader)만 upstream 을 호출하고, 그 응답이 끝날 때까지 들어온 같은 요청(follower)은
+ * leader 의 응답 본문을 복사해 받는다. 본문이 한도를 넘거나 leader 가 실패하면 follower 는 각자 upstream 을 호출한다.
+ * 같은 라우트에 응답 캐시 필터가 있으면 그 뒤에 추가해 캐시 미스만 합치도록 한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class SingleFlightFilter extends AbstractGatewayFilterFactory<SingleFlightFilter.Config> {
+
+	// 응답 캐시 필터와 같은 순서, 라우트에 추가한 순서대로 실행
+	public static final int ORDER = ResponseCacheFilter.ORDER;
+
+	public static final String METRIC_NAME = "single.flight";
+
+	private final Counter coalescedCounter;
+	private final Counter overflowCounter;
+
+	public SingleFlightFilter(MeterRegistry meterRegistry) {
+		super(Config.class);
+		this.coalescedCounter = Counter.builder(METRIC_NAME + ".coalesced")
+			.description("leader 의 응답을 공유받은 요청 수")
+			.register(meterRegistry);
+		this.overflowCounter = Counter.builder(METRIC_NAME + ".overflow")
+			.description("대기자 수 한도를 넘어 직접 upstream 을 호출한 요청 수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * single-flight 필터
+	 *
+	 * @param config 대기자 수, 본문 크기 한도와 키에 포함할 요청 헤더
+	 * @return GatewayFilter 객체로, 다음 필터 체인으로 요청을 전달하는 역할을 수행
+	 */
+	@Override
+	public GatewayFilter apply(Config config) {
+		// 라우트별로 진행 중인 요청
+		Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+		return new OrderedGatewayFilter((exchange, chain) -> {
+			ServerHttpRequest request = exchange.getRequest();
+
+			if (!ResponseCachePolicy.isCacheableRequest(request)) {
+				return chain.filter(exchange);
+			}
+
+			String key = key(request, config.getKeyHeaders());
+			Flight flight = new Flight();
+			Flight inFlight = flights.putIfAbsent(key, flight);
+
+			if (inFlight == null) {
+				return lead(exchange, chain, config, flights, key, flight);
+			}
+
+			if (inFlight.waiters.incrementAndGet() > config.getMaxWaiters()) {
+				overflowCounter.increment();
+				return chain.filter(exchange);
+			}
+
+			return inFlight.result.asMono()
+				.flatMap(result -> {
+					if (result.isEmpty()) {
+						return chain.filter(exchange);
+					}
+					coalescedCounter.increment();
+					return CachedResponseWriter.write(exchange, result.get(), "COALESCED");
+				});
+		}, ORDER);
+	}
+
+	private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+		Map<String, Flight> flights, String key, Flight flight) {
+		ResponseCaptureDecorator response = new ResponseCaptureDecorator(exchange.getResponse(),
+			config.getMaxBodySize().toBytes(), new ResponseCaptureDecorator.Listener() {
+			@Override
+			public void onCaptured(int status, HttpHeaders headers, byte[] body) {
+				flights.remove(key, flight);
+				flight.result.tryEmitValue(
+					Optional.of(CachedResponse.of(status, headers, body, Instant.now(), Duration.ZERO)));
+			}
+
+			@Override
+			public void onAbandoned() {
+				flights.remove(key, flight);
+				flight.result.tryEmitValue(Optional.empty());
+			}
+		});
+
+		// 오류 응답처럼 데코레이터를 거치지 않고 끝나는 경우에도 follower 가 기다리지 않도록 정리
+		return chain.filter(exchange.mutate().response(response).build())
+			.doFinally(signal -> {
+				flights.remove(key, flight);
+				flight.result.tryEmitValue(Optional.empty());
+			});
+	}
+
+	private static String key(ServerHttpRequest request, List<String> keyHeaders) {
+		StringBuilder key = new StringBuilder(request.getMethod().name())
+			.append(' ')
+			.append(request.getURI().getRawPath());
+
+		String rawQuery = request.getURI().getRawQuery();
+		if (rawQuery != null) {
+			key.append('?').append(rawQuery);
+		}
+		for (String name : keyHeaders) {
+			key.append('\n').append(name).append('=')
+				.append(String.join(",", request.getHeaders().getOrEmpty(name)));
+		}
+		return key.toString();
+	}
+
+	private static final class Flight {
+
+		// leader 의 응답, 공유할 수 없으면 빈 값
+		private final Sinks.One<Optional<CachedResponse>> result = Sinks.one();
+		private final AtomicInteger waiters = new AtomicInteger();
+	}
+
+	public static class Config {
+
+		// 요청 하나에 붙을 수 있는 최대 대기자 수
+		private int maxWaiters = 256;
+
+		// 공유할 수 있는 응답 본문 최대 크기
+		private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+		// 응답이 달라질 수 있어 키에 포함하는 요청 헤더
+		private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING,
+			HttpHeaders.ACCEPT_LANGUAGE);
+
+		public int getMaxWaiters() {
+			return maxWaiters;
+		}
+
+		public Config setMaxWaiters(int maxWaiters) {
+			this.maxWaiters = maxWaiters;
+			return this;
+		}
+
+		public DataSize getMaxBodySize() {
+			return maxBodySize;
+		}
+
+		public Config setMaxBodySize(DataSize maxBodySize) {
+			this.maxBodySize = maxBodySize;
+			return this;
+		}
+
+		public List<String> getKeyHeaders() {
+			return keyHeaders;
+		}
+
+		public Config setKeyHeaders(List<String> keyHeaders) {
+			this.keyHeaders = keyHeaders;
+			return this;
+		}
+	}
+}
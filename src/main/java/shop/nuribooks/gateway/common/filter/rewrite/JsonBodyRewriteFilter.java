@@ -0,0 +1,99 @@
+package shop.nuribooks.gateway.common.filter.rewrite;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 요청 본문을 바이트 단위로 읽어 {@link JsonFieldRewriter} 로 재작성하는 필터
+ *
+ * <p>
+ * 본문을 String 으로 디코딩하지 않고 pooled {@link DataBuffer} 를 하나로 합친 뒤 바로 바이트 배열로 복사하고
+ * 즉시 반환한다. 재작성된 바이트는 그대로 감싸 다음 필터로 전달하며 Content-Length 를 다시 계산한다.
+ * 라우트 설정 시 한 번만 생성하여 모든 요청에서 재사용한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+public class JsonBodyRewriteFilter implements GatewayFilter {
+
+	private final JsonFieldRewriter rewriter;
+	private final Function<String, Mono<String>> valueMapper;
+
+	/**
+	 * 생성자
+	 *
+	 * @param rewriter 대상 필드 규칙을 가진 재작성기
+	 * @param valueMapper 대상 값 변환 함수
+	 */
+	public JsonBodyRewriteFilter(JsonFieldRewriter rewriter, Function<String, Mono<String>> valueMapper) {
+		this.rewriter = rewriter;
+		this.valueMapper = valueMapper;
+	}
+
+	/**
+	 * 요청 본문을 재작성한 뒤 다음 필터로 전달
+	 *
+	 * @param exchange 요청 및 응답 정보
+	 * @param chain 다음 필터 체인
+	 * @return 필터 적용 결과, JSON 형식이 올바르지 않으면 400
+	 */
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		return DataBufferUtils.join(exchange.getRequest().getBody())
+			.map(JsonBodyRewriteFilter::toBytes)
+			.flatMap(body -> rewriter.rewrite(body, valueMapper))
+			.onErrorMap(IOException.class, e -> {
+				log.error("RequestBodyRewrite 의 request body 를 json 으로 변환하는 중 예외가 발생했습니다.");
+				return new ResponseStatusException(HttpStatus.BAD_REQUEST, "malformed json body", e);
+			})
+			.map(rewritten -> exchange.mutate().request(decorate(exchange, rewritten)).build())
+			// 본문이 없는 요청은 그대로 전달
+			.defaultIfEmpty(exchange)
+			.flatMap(chain::filter);
+	}
+
+	private static byte[] toBytes(DataBuffer dataBuffer) {
+		try {
+			byte[] bytes = new byte[dataBuffer.readableByteCount()];
+			dataBuffer.read(bytes);
+			return bytes;
+		} finally {
+			DataBufferUtils.release(dataBuffer);
+		}
+	}
+
+	private static ServerHttpRequest decorate(ServerWebExchange exchange, byte[] body) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.putAll(exchange.getRequest().getHeaders());
+		headers.remove(HttpHeaders.TRANSFER_ENCODING);
+		headers.setContentLength(body.length);
+
+		return new ServerHttpRequestDecorator(exchange.getRequest()) {
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+
+			@Override
+			public Flux<DataBuffer> getBody() {
+				return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+			}
+		};
+	}
+}
@@ -0,0 +1,135 @@
+package shop.nuribooks.gateway.common.filter.rewrite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON pointer 규칙으로 지정한 문자열 필드만 교체하는 스트리밍 재작성기
+ *
+ * <p>
+ * 본문을 Map 등의 객체 그래프로 만들지 않고 토큰 단위로 읽는다.
+ * 먼저 대상 값만 문서 순서대로 수집하고, 교체할 값이 준비되면 다시 한 번 읽으면서
+ * 대상 값만 바꾸고 나머지 토큰은 그대로 복사한다.
+ * 대상 위치의 값이 문자열이 아니면(null, 숫자, 객체 등) 건드리지 않는다.
+ * 중복 키가 있는 본문은 같은 대상 값을 여러 번 변환하게 되므로 형식 오류로 거부한다.
+ * </p>
+ *
+ * @author nuri
+ */
+public final class JsonFieldRewriter {
+
+	private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+		.enable(StreamReadFeature.STRICT_DUPLICATE_DETECTION)
+		.build();
+
+	private final Set<JsonPointer> targets;
+
+	private JsonFieldRewriter(Set<JsonPointer> targets) {
+		this.targets = targets;
+	}
+
+	/**
+	 * 재작성 대상 JSON pointer 로 재작성기를 생성
+	 *
+	 * @param pointers 대상 필드의 JSON pointer (예: {@code /password}, {@code /customerRegister/password})
+	 * @return 재작성기
+	 */
+	public static JsonFieldRewriter of(String... pointers) {
+		return new JsonFieldRewriter(Arrays.stream(pointers)
+			.map(JsonPointer::compile)
+			.collect(Collectors.toUnmodifiableSet()));
+	}
+
+	/**
+	 * 대상 문자열 값을 비동기로 변환하여 본문을 재작성
+	 *
+	 * @param body 원본 JSON 본문
+	 * @param valueMapper 대상 값 변환 함수
+	 * @return 재작성된 본문, JSON 형식이 올바르지 않으면 {@link IOException} 에러
+	 */
+	public Mono<byte[]> rewrite(byte[] body, Function<String, Mono<String>> valueMapper) {
+		return Mono.fromCallable(() -> extract(body))
+			.flatMap(values -> {
+				if (values.isEmpty()) {
+					return Mono.just(body);
+				}
+				return Flux.fromIterable(values)
+					.concatMap(valueMapper)
+					.collectList()
+					.map(replacements -> replace(body, replacements));
+			});
+	}
+
+	/**
+	 * 대상 문자열 값을 문서 순서대로 수집
+	 *
+	 * @param body JSON 본문
+	 * @return 대상 값 목록
+	 * @throws IOException JSON 형식이 올바르지 않은 경우
+	 */
+	List<String> extract(byte[] body) throws IOException {
+		List<String> values = new ArrayList<>();
+
+		try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (isTarget(parser, token)) {
+					values.add(parser.getText());
+				}
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * 대상 문자열 값을 순서대로 교체하고 나머지 토큰은 그대로 복사
+	 *
+	 * @param body JSON 본문
+	 * @param replacements {@link #extract(byte[])} 순서와 같은 교체 값 목록
+	 * @return 재작성된 본문
+	 */
+	byte[] replace(byte[] body, List<String> replacements) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 64 * replacements.size());
+		Iterator<String> iterator = replacements.iterator();
+
+		try (JsonParser parser = JSON_FACTORY.createParser(body);
+			 JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (isTarget(parser, token) && iterator.hasNext()) {
+					generator.writeString(iterator.next());
+				} else {
+					generator.copyCurrentEventExact(parser);
+				}
+			}
+		} catch (IOException e) {
+			// extract 단계에서 이미 읽은 본문이므로 발생하지 않아야 한다
+			throw new IllegalStateException("JSON 본문을 재작성하는 중 예외가 발생했습니다.", e);
+		}
+
+		return out.toByteArray();
+	}
+
+	private boolean isTarget(JsonParser parser, JsonToken token) {
+		return token == JsonToken.VALUE_STRING
+			&& targets.contains(parser.getParsingContext().pathAsPointer());
+	}
+}
@@ -0,0 +1,66 @@
+package shop.nuribooks.gateway.common.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 게이트웨이 전체의 hedge 요청 예산
+ *
+ * <p>
+ * hedge 대상 요청이 들어올 때마다 {@code ratio} 만큼 예산을 쌓고, hedge 요청을 보낼 때 1 만큼 쓴다.
+ * 예산은 {@code max-balance} 까지만 쌓이므로 hedge 요청은 길게 보면 전체 요청의 {@code ratio} 를 넘지 않고,
+ * upstream 이 모두 느려진 상황에서도 부하를 두 배로 만들지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class HedgeBudget {
+
+	// 정수 연산을 위한 예산 단위 (1 = SCALE)
+	private static final long SCALE = 1_000_000L;
+
+	private final long depositPerRequest;
+	private final long maxBalance;
+	private final AtomicLong balance = new AtomicLong();
+
+	public HedgeBudget(
+		@Value("${hedge.budget.ratio:0.05}") double ratio,
+		@Value("${hedge.budget.max-balance:100}") int maxBalance) {
+		this.depositPerRequest = (long)(ratio * SCALE);
+		this.maxBalance = maxBalance * SCALE;
+	}
+
+	/**
+	 * hedge 대상 요청 하나만큼 예산 적립
+	 */
+	public void deposit() {
+		balance.getAndUpdate(current -> Math.min(maxBalance, current + depositPerRequest));
+	}
+
+	/**
+	 * hedge 요청 하나만큼 예산 사용
+	 *
+	 * @return 예산이 있어 사용했으면 true
+	 */
+	public boolean tryWithdraw() {
+		while (true) {
+			long current = balance.get();
+			if (current < SCALE) {
+				return false;
+			}
+			if (balance.compareAndSet(current, current - SCALE)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * 사용했지만 hedge 요청을 보내지 않은 예산 반환
+	 */
+	public void refund() {
+		balance.getAndUpdate(current -> Math.min(maxBalance, current + SCALE));
+	}
+}
@@ -0,0 +1,77 @@
+package shop.nuribooks.gateway.common.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 응답 시간의 백분위를 구하는 추적기
+ *
+ * <p>
+ * 최근 {@code capacity} 개의 응답 시간을 원형 버퍼에 두고, 백분위는 {@code refreshNanos} 마다 한 번만 정렬해 계산한다.
+ * 표본이 {@code minSamples} 보다 적으면 백분위 대신 기본값을 쓴다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class LatencyTracker {
+
+	private final AtomicLongArray samples;
+	private final AtomicLong count = new AtomicLong();
+	private final double percentile;
+	private final int minSamples;
+	private final long refreshNanos;
+
+	private volatile long cachedQuantile = -1L;
+	private volatile long cachedAt;
+
+	/**
+	 * 생성자
+	 *
+	 * @param capacity 보관할 최근 응답 시간 수
+	 * @param percentile 구할 백분위 (0~1)
+	 * @param minSamples 백분위를 구하기 위한 최소 표본 수
+	 * @param refreshNanos 백분위를 다시 계산하는 주기 (나노초)
+	 */
+	public LatencyTracker(int capacity, double percentile, int minSamples, long refreshNanos) {
+		this.samples = new AtomicLongArray(capacity);
+		this.percentile = percentile;
+		this.minSamples = Math.min(minSamples, capacity);
+		this.refreshNanos = refreshNanos;
+	}
+
+	/**
+	 * 응답 시간 기록
+	 *
+	 * @param latencyNanos 응답 시간 (나노초)
+	 */
+	public void record(long latencyNanos) {
+		long index = count.getAndIncrement();
+		samples.set((int)(index % samples.length()), latencyNanos);
+	}
+
+	/**
+	 * 최근 응답 시간의 백분위
+	 *
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 * @param defaultNanos 표본이 부족할 때 사용할 값
+	 * @return 백분위 응답 시간 (나노초)
+	 */
+	public long quantile(long nowNanos, long defaultNanos) {
+		long recorded = count.get();
+		if (recorded < minSamples) {
+			return defaultNanos;
+		}
+		if (cachedQuantile < 0 || nowNanos - cachedAt >= refreshNanos) {
+			int size = (int)Math.min(recorded, samples.length());
+			long[] sorted = new long[size];
+			for (int i = 0; i < size; i++) {
+				sorted[i] = samples.get(i);
+			}
+			Arrays.sort(sorted);
+			cachedQuantile = sorted[Math.max(0, Math.min(size - 1, (int)Math.ceil(percentile * size) - 1))];
+			cachedAt = nowNanos;
+		}
+		return cachedQuantile;
+	}
+}
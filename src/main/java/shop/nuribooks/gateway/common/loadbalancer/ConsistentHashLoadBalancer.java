@@ -0,0 +1,114 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.cache.ResponseCachePolicy;
+
+/**
+ * 지정한 경로의 요청을 사용자별로 같은 인스턴스에 보내는 로드밸런서 (consistent hashing with bounded loads)
+ *
+ * <p>
+ * {@code X-USER-ID} 가 있으면 회원 id, 없으면 비회원 장바구니 쿠키를 키로 ring 에서 인스턴스를 고른다.
+ * 인스턴스의 처리 중 요청 수가 평균의 {@code load-factor} 배를 넘으면 ring 의 다음 인스턴스로 넘겨
+ * 요청이 많은 사용자가 인스턴스 하나에 몰리지 않게 한다.
+ * 경로가 맞지 않거나 키가 없는 요청은 서비스의 기본 로드밸런서가 처리한다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+	private final ReactorServiceInstanceLoadBalancer delegate;
+	private final InstanceStatsRegistry statsRegistry;
+	private final ConsistentHashProperties properties;
+	private final List<PathPattern> paths;
+
+	private volatile ConsistentHashRing ring;
+
+	public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+		ReactorServiceInstanceLoadBalancer delegate, InstanceStatsRegistry statsRegistry,
+		ConsistentHashProperties properties) {
+		this.supplierProvider = supplierProvider;
+		this.delegate = delegate;
+		this.statsRegistry = statsRegistry;
+		this.properties = properties;
+		this.paths = properties.getPaths().stream()
+			.map(PathPatternParser.defaultInstance::parse)
+			.toList();
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		String key = hashKey(request);
+		if (key == null) {
+			return delegate.choose(request);
+		}
+
+		ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		return supplier.get(request)
+			.next()
+			.map(instances -> choose(instances, key));
+	}
+
+	Response<ServiceInstance> choose(List<ServiceInstance> instances, String key) {
+		if (instances.isEmpty()) {
+			return new EmptyResponse();
+		}
+
+		ConsistentHashRing current = ring;
+		if (current == null || !current.isBuiltFrom(instances)) {
+			current = ConsistentHashRing.of(instances, properties.getVirtualNodes());
+			ring = current;
+		}
+
+		// 이번 요청을 포함한 평균 부하의 load-factor 배까지 허용
+		long totalLoad = 1;
+		for (ServiceInstance instance : instances) {
+			totalLoad += statsRegistry.get(instance).inFlight();
+		}
+		double capacity = Math.ceil(properties.getLoadFactor() * totalLoad / instances.size());
+
+		ServiceInstance chosen = current.select(key,
+			instance -> statsRegistry.get(instance).inFlight() + 1 <= capacity);
+		return new DefaultResponse(chosen);
+	}
+
+	private String hashKey(Request<?> request) {
+		if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+			return null;
+		}
+
+		RequestData requestData = context.getClientRequest();
+		PathContainer path = PathContainer.parsePath(requestData.getUrl().getRawPath());
+		if (paths.stream().noneMatch(pattern -> pattern.matches(path))) {
+			return null;
+		}
+
+		String userId = requestData.getHeaders().getFirst(ResponseCachePolicy.USER_ID_HEADER);
+		if (userId != null) {
+			return "member:" + userId;
+		}
+		if (requestData.getCookies() == null) {
+			return null;
+		}
+		String cartId = requestData.getCookies().getFirst(properties.getCookie());
+		return cartId != null ? "cart:" + cartId : null;
+	}
+}
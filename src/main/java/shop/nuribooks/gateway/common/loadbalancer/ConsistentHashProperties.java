@@ -0,0 +1,37 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 사용자별 고정 라우팅(consistent hash) 설정
+ *
+ * @author nuri
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "loadbalancer.consistent-hash")
+public class ConsistentHashProperties {
+
+	// 고정 라우팅을 사용할 서비스 id
+	private List<String> services = new ArrayList<>();
+
+	// 고정 라우팅을 적용할 경로 패턴, 나머지 경로는 서비스의 기본 로드밸런서 사용
+	private List<String> paths = new ArrayList<>();
+
+	// 비회원 장바구니를 구분하는 쿠키 이름
+	private String cookie = "CART_ID";
+
+	// 인스턴스 하나가 맡을 수 있는 처리 중 요청 수의 평균 대비 배수
+	private double loadFactor = 1.25;
+
+	// 인스턴스별 가상 노드 수
+	private int virtualNodes = 160;
+}
@@ -0,0 +1,124 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+/**
+ * 인스턴스마다 가상 노드를 두는 consistent hash ring
+ *
+ * <p>
+ * 인스턴스가 추가되거나 빠져도 그 인스턴스의 가상 노드 구간에 속한 키만 옮겨진다.
+ * </p>
+ *
+ * @author nuri
+ */
+public final class ConsistentHashRing {
+
+	private final Set<String> instanceKeys;
+	private final long[] hashes;
+	private final ServiceInstance[] owners;
+	private final int instanceCount;
+
+	private ConsistentHashRing(Set<String> instanceKeys, long[] hashes, ServiceInstance[] owners, int instanceCount) {
+		this.instanceKeys = instanceKeys;
+		this.hashes = hashes;
+		this.owners = owners;
+		this.instanceCount = instanceCount;
+	}
+
+	/**
+	 * 인스턴스 목록으로 ring 생성
+	 *
+	 * @param instances 인스턴스 목록
+	 * @param virtualNodes 인스턴스별 가상 노드 수
+	 * @return ring
+	 */
+	public static ConsistentHashRing of(List<ServiceInstance> instances, int virtualNodes) {
+		int size = instances.size() * virtualNodes;
+		long[][] nodes = new long[size][2];
+
+		for (int i = 0; i < instances.size(); i++) {
+			String instanceKey = InstanceStatsRegistry.key(instances.get(i));
+			for (int v = 0; v < virtualNodes; v++) {
+				nodes[i * virtualNodes + v][0] = hash(instanceKey + "#" + v);
+				nodes[i * virtualNodes + v][1] = i;
+			}
+		}
+		Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+		long[] hashes = new long[size];
+		ServiceInstance[] owners = new ServiceInstance[size];
+		for (int i = 0; i < size; i++) {
+			hashes[i] = nodes[i][0];
+			owners[i] = instances.get((int)nodes[i][1]);
+		}
+		return new ConsistentHashRing(keys(instances), hashes, owners, instances.size());
+	}
+
+	/**
+	 * 같은 인스턴스 구성으로 만든 ring 인지 확인
+	 *
+	 * @param instances 인스턴스 목록
+	 * @return 같은 구성 여부
+	 */
+	public boolean isBuiltFrom(List<ServiceInstance> instances) {
+		return instances.size() == instanceCount && instanceKeys.equals(keys(instances));
+	}
+
+	/**
+	 * 키의 위치에서 시계 방향으로 처음 만나는 인스턴스 중 조건을 만족하는 인스턴스 선택
+	 *
+	 * @param key 해시 키
+	 * @param accept 선택 조건, 부하 한도를 넘은 인스턴스를 건너뛰는 데 사용
+	 * @return 선택된 인스턴스, 모두 조건을 만족하지 않으면 키의 기본 인스턴스
+	 */
+	public ServiceInstance select(String key, Predicate<ServiceInstance> accept) {
+		if (hashes.length == 0) {
+			return null;
+		}
+
+		int index = Arrays.binarySearch(hashes, hash(key));
+		if (index < 0) {
+			index = -index - 1;
+		}
+
+		ServiceInstance primary = owners[index % hashes.length];
+		Set<ServiceInstance> visited = new HashSet<>();
+		for (int i = 0; i < hashes.length && visited.size() < instanceCount; i++) {
+			ServiceInstance owner = owners[(index + i) % hashes.length];
+			if (visited.add(owner) && accept.test(owner)) {
+				return owner;
+			}
+		}
+		return primary;
+	}
+
+	private static Set<String> keys(List<ServiceInstance> instances) {
+		Set<String> keys = new HashSet<>();
+		for (ServiceInstance instance : instances) {
+			keys.add(InstanceStatsRegistry.key(instance));
+		}
+		return keys;
+	}
+
+	// FNV-1a 64 에 murmur3 finalizer 를 더해 가상 노드가 고르게 퍼지도록 함
+	static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+}
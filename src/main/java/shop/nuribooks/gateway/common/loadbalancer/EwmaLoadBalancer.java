@@ -0,0 +1,75 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * 지연 EWMA 와 처리 중인 요청 수로 인스턴스를 고르는 로드밸런서 (power of two choices)
+ *
+ * <p>
+ * 무작위로 두 인스턴스를 뽑아 비용이 작은 쪽을 선택한다. 모든 인스턴스를 비교하지 않아도
+ * 느린 인스턴스로 가는 요청이 크게 줄고, 모든 요청이 가장 빠른 인스턴스 하나로 몰리지도 않는다.
+ * 통계는 {@link InstanceStatsLifecycle} 이 요청마다 기록한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+public class EwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+	private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+	private final String serviceId;
+	private final InstanceStatsRegistry statsRegistry;
+
+	public EwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+		InstanceStatsRegistry statsRegistry) {
+		this.supplierProvider = supplierProvider;
+		this.serviceId = serviceId;
+		this.statsRegistry = statsRegistry;
+	}
+
+	@Override
+	public Mono<Response<ServiceInstance>> choose(Request request) {
+		ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+
+		return supplier.get(request)
+			.next()
+			.map(this::choose);
+	}
+
+	Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+		if (instances.isEmpty()) {
+			log.warn("사용 가능한 인스턴스가 없습니다. serviceId={}", serviceId);
+			return new EmptyResponse();
+		}
+		if (instances.size() == 1) {
+			return new DefaultResponse(instances.get(0));
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int first = random.nextInt(instances.size());
+		int second = random.nextInt(instances.size() - 1);
+		if (second >= first) {
+			second++;
+		}
+
+		ServiceInstance a = instances.get(first);
+		ServiceInstance b = instances.get(second);
+		long now = System.nanoTime();
+
+		return new DefaultResponse(statsRegistry.get(a).cost(now) <= statsRegistry.get(b).cost(now) ? a : b);
+	}
+}
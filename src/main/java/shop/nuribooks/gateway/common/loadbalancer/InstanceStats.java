@@ -0,0 +1,93 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 인스턴스 하나의 응답 지연 EWMA 와 처리 중인 요청 수
+ *
+ * <p>
+ * EWMA 는 마지막 관측 이후 경과 시간에 따라 감쇠하므로 요청이 드문 인스턴스도 오래된 값에 묶이지 않는다.
+ * 평균보다 큰 지연은 즉시 반영해(peak EWMA) GC 멈춤 같은 급격한 지연에 빠르게 반응한다.
+ * </p>
+ * <p>
+ * 관측이 없는 인스턴스는 기본 지연에서 시작하고, 오래 관측이 없으면 0 이 아닌 기본 지연으로 돌아간다.
+ * 지연이 0 으로 보이면 처리 중인 요청 수와 관계없이 비용이 0 이 되어 새 인스턴스에 요청이 몰리기 때문이다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class InstanceStats {
+
+	private final long decayNanos;
+	private final long defaultRttNanos;
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private double ewmaNanos;
+	private long lastUpdateNanos;
+
+	InstanceStats(long decayNanos, long defaultRttNanos, long nowNanos) {
+		this.decayNanos = decayNanos;
+		this.defaultRttNanos = defaultRttNanos;
+		this.ewmaNanos = defaultRttNanos;
+		this.lastUpdateNanos = nowNanos;
+	}
+
+	/**
+	 * 요청 시작 기록
+	 */
+	public void start() {
+		inFlight.incrementAndGet();
+	}
+
+	/**
+	 * 요청 종료와 지연 시간 기록
+	 *
+	 * @param latencyNanos 응답 지연 (나노초)
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 */
+	public void complete(long latencyNanos, long nowNanos) {
+		inFlight.updateAndGet(count -> Math.max(count - 1, 0));
+		observe(latencyNanos, nowNanos);
+	}
+
+	/**
+	 * 요청 수 변화 없이 지연 시간만 반영
+	 *
+	 * @param latencyNanos 응답 지연 (나노초)
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 */
+	public synchronized void observe(long latencyNanos, long nowNanos) {
+		if (latencyNanos > ewmaNanos) {
+			ewmaNanos = latencyNanos;
+		} else {
+			double weight = Math.exp(-(double)Math.max(nowNanos - lastUpdateNanos, 0L) / decayNanos);
+			ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+		}
+		lastUpdateNanos = nowNanos;
+	}
+
+	/**
+	 * 현재 시각 기준으로 기본 지연 쪽으로 감쇠한 지연 EWMA
+	 *
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 * @return 지연 EWMA (나노초)
+	 */
+	public synchronized double ewmaNanos(long nowNanos) {
+		double weight = Math.exp(-(double)Math.max(nowNanos - lastUpdateNanos, 0L) / decayNanos);
+		return defaultRttNanos + (ewmaNanos - defaultRttNanos) * weight;
+	}
+
+	public int inFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * 선택 비용, 지연 EWMA 에 처리 중인 요청 수를 곱해 바쁜 인스턴스를 피한다
+	 *
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 * @return 비용, 작을수록 우선
+	 */
+	public double cost(long nowNanos) {
+		return ewmaNanos(nowNanos) * (inFlight() + 1);
+	}
+}
@@ -0,0 +1,151 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+/**
+ * 로드밸런서가 고른 인스턴스의 요청 시작/종료를 {@link InstanceStatsRegistry} 와 {@link OutlierDetector} 에 기록
+ *
+ * <p>
+ * 실패한 요청은 빠르게 끝나더라도 빠른 인스턴스로 보이지 않도록 최소 {@code failure-penalty} 만큼의 지연으로 기록한다.
+ * 시작된 뒤 취소된 요청은 실패로 보지 않고 취소될 때까지 걸린 시간만 기록한다.
+ * </p>
+ * <p>
+ * 기본 로드밸런서 필터는 클라이언트가 연결을 끊어도 {@code onComplete} 를 부르지 않으므로, 시작한 요청을 요청 속성에
+ * 남겨 두고 {@link #release(Map)} 로도 종료할 수 있게 한다. 종료는 요청당 한 번만 반영된다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class InstanceStatsLifecycle
+	implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+	public static final String IN_FLIGHT_ATTR = InstanceStatsLifecycle.class.getName() + ".inFlight";
+
+	private final InstanceStatsRegistry statsRegistry;
+	private final OutlierDetector outlierDetector;
+	private final long failurePenaltyNanos;
+
+	public InstanceStatsLifecycle(
+		InstanceStatsRegistry statsRegistry,
+		OutlierDetector outlierDetector,
+		@Value("${loadbalancer.ewma.failure-penalty:1s}") Duration failurePenalty) {
+		this.statsRegistry = statsRegistry;
+		this.outlierDetector = outlierDetector;
+		this.failurePenaltyNanos = failurePenalty.toNanos();
+	}
+
+	@Override
+	public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+		return RequestDataContext.class.isAssignableFrom(requestContextClass)
+			&& ResponseData.class.isAssignableFrom(responseClass)
+			&& ServiceInstance.class.isAssignableFrom(serverTypeClass);
+	}
+
+	@Override
+	public void onStart(Request<RequestDataContext> request) {
+		// 인스턴스를 고르기 전에는 기록할 것이 없음
+	}
+
+	@Override
+	public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+		long startTime = System.nanoTime();
+		if (request.getContext() instanceof TimedRequestContext context) {
+			context.setRequestStartTime(startTime);
+		}
+		statsRegistry.get(lbResponse.getServer()).start();
+
+		Map<String, Object> attributes = attributes(request);
+		if (attributes != null) {
+			attributes.put(IN_FLIGHT_ATTR, new InFlightRequest(lbResponse.getServer(), startTime));
+		}
+	}
+
+	/**
+	 * onComplete 없이 끝난 요청(클라이언트 취소)의 처리 중 요청 수를 되돌림, 이미 종료된 요청이면 무시
+	 *
+	 * @param attributes 요청 시작 시 사용한 요청 속성 (exchange 속성)
+	 */
+	public void release(Map<String, Object> attributes) {
+		if (!(attributes.get(IN_FLIGHT_ATTR) instanceof InFlightRequest inFlight) || !inFlight.finish()) {
+			return;
+		}
+		long now = System.nanoTime();
+		statsRegistry.get(inFlight.instance()).complete(now - inFlight.startTime(), now);
+	}
+
+	@Override
+	public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+		Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+		if (lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		Map<String, Object> attributes = attributes(completionContext.getLoadBalancerRequest());
+		if (attributes != null && attributes.get(IN_FLIGHT_ATTR) instanceof InFlightRequest inFlight
+			&& !inFlight.finish()) {
+			// 취소 처리에서 이미 종료됨
+			return;
+		}
+
+		long now = System.nanoTime();
+		long startTime = completionContext.getLoadBalancerRequest().getContext().getRequestStartTime();
+		long latency = startTime > 0 ? now - startTime : 0L;
+
+		if (completionContext.status() == CompletionContext.Status.DISCARD) {
+			// 시작된 요청이 취소된 경우(hedge 요청에서 진 쪽), 실패로 보지 않고 걸린 시간만 기록
+			if (startTime > 0) {
+				statsRegistry.get(lbResponse.getServer()).complete(latency, now);
+			}
+			return;
+		}
+
+		boolean failed = isFailure(completionContext);
+		outlierDetector.record(lbResponse.getServer(), latency, failed);
+
+		if (failed) {
+			latency = Math.max(latency, failurePenaltyNanos);
+		}
+		statsRegistry.get(lbResponse.getServer()).complete(latency, now);
+	}
+
+	private static Map<String, Object> attributes(Request<RequestDataContext> request) {
+		if (request == null || request.getContext() == null || request.getContext().getClientRequest() == null) {
+			return null;
+		}
+		return request.getContext().getClientRequest().getAttributes();
+	}
+
+	private static boolean isFailure(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context) {
+		if (context.status() == CompletionContext.Status.FAILED) {
+			return true;
+		}
+		ResponseData response = context.getClientResponse();
+		HttpStatusCode status = response != null ? response.getHttpStatus() : null;
+		return status != null && status.is5xxServerError();
+	}
+
+	private record InFlightRequest(ServiceInstance instance, long startTime, AtomicBoolean finished) {
+
+		InFlightRequest(ServiceInstance instance, long startTime) {
+			this(instance, startTime, new AtomicBoolean());
+		}
+
+		boolean finish() {
+			return finished.compareAndSet(false, true);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * upstream 인스턴스별 통계 저장소
+ *
+ * @author nuri
+ */
+@Component
+public class InstanceStatsRegistry {
+
+	private final long decayNanos;
+	private final long defaultRttNanos;
+	private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+	public InstanceStatsRegistry(
+		@Value("${loadbalancer.ewma.decay:10s}") Duration decay,
+		@Value("${loadbalancer.ewma.default-rtt:50ms}") Duration defaultRtt) {
+		this.decayNanos = decay.toNanos();
+		this.defaultRttNanos = defaultRtt.toNanos();
+	}
+
+	/**
+	 * 인스턴스 통계 조회, 없으면 생성
+	 *
+	 * @param instance upstream 인스턴스
+	 * @return 인스턴스 통계
+	 */
+	public InstanceStats get(ServiceInstance instance) {
+		return stats.computeIfAbsent(key(instance), key -> new InstanceStats(decayNanos, defaultRttNanos, System.nanoTime()));
+	}
+
+	/**
+	 * 인스턴스를 구분하는 키, Eureka 인스턴스 id 가 없으면 host:port
+	 *
+	 * @param instance upstream 인스턴스
+	 * @return 인스턴스 키
+	 */
+	public static String key(ServiceInstance instance) {
+		String instanceId = instance.getInstanceId();
+		return instanceId != null ? instanceId : instance.getHost() + ":" + instance.getPort();
+	}
+}
@@ -0,0 +1,201 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 요청 결과로 upstream 인스턴스 상태를 추적해 이상 인스턴스를 일시적으로 제외하는 컴포넌트
+ *
+ * <p>
+ * 연속 실패(5xx, 연결 실패, {@code latency-threshold} 를 넘는 지연)가 {@code consecutive-failures} 에 이르면
+ * 인스턴스를 제외한다. 제외 시간은 제외될 때마다 두 배로 늘어나 {@code max-ejection-time} 에서 멈추고,
+ * 마지막 제외가 끝난 뒤 {@code max-ejection-time} 동안 다시 제외되지 않으면 처음부터 센다.
+ * 한 서비스에서 동시에 제외되는 인스턴스는 {@code max-ejection-percent} 를 넘지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Slf4j
+@Component
+public class OutlierDetector {
+
+	public static final String METRIC_NAME = "loadbalancer.outlier.ejection";
+
+	private final MeterRegistry meterRegistry;
+	private final int consecutiveFailures;
+	private final long latencyThresholdNanos;
+	private final Duration baseEjectionTime;
+	private final Duration maxEjectionTime;
+	private final int maxEjectionPercent;
+	private final Clock clock;
+
+	private final Map<String, Outlier> outliers = new ConcurrentHashMap<>();
+	private final Map<String, Integer> poolSizes = new ConcurrentHashMap<>();
+
+	@Autowired
+	public OutlierDetector(
+		MeterRegistry meterRegistry,
+		@Value("${loadbalancer.outlier.consecutive-failures:5}") int consecutiveFailures,
+		@Value("${loadbalancer.outlier.latency-threshold:3s}") Duration latencyThreshold,
+		@Value("${loadbalancer.outlier.base-ejection-time:30s}") Duration baseEjectionTime,
+		@Value("${loadbalancer.outlier.max-ejection-time:5m}") Duration maxEjectionTime,
+		@Value("${loadbalancer.outlier.max-ejection-percent:50}") int maxEjectionPercent) {
+		this(meterRegistry, consecutiveFailures, latencyThreshold, baseEjectionTime, maxEjectionTime,
+			maxEjectionPercent, Clock.systemUTC());
+	}
+
+	OutlierDetector(MeterRegistry meterRegistry, int consecutiveFailures, Duration latencyThreshold,
+		Duration baseEjectionTime, Duration maxEjectionTime, int maxEjectionPercent, Clock clock) {
+		this.meterRegistry = meterRegistry;
+		this.consecutiveFailures = consecutiveFailures;
+		this.latencyThresholdNanos = latencyThreshold.toNanos();
+		this.baseEjectionTime = baseEjectionTime;
+		this.maxEjectionTime = maxEjectionTime;
+		this.maxEjectionPercent = maxEjectionPercent;
+		this.clock = clock;
+	}
+
+	/**
+	 * 요청 결과 기록
+	 *
+	 * @param instance 요청을 처리한 인스턴스
+	 * @param latencyNanos 응답 지연 (나노초)
+	 * @param failed 5xx 응답 또는 연결 실패 여부
+	 */
+	public void record(ServiceInstance instance, long latencyNanos, boolean failed) {
+		Outlier outlier = outliers.computeIfAbsent(InstanceStatsRegistry.key(instance),
+			key -> new Outlier(instance.getServiceId(), key));
+		Instant now = clock.instant();
+
+		synchronized (outlier) {
+			// 제외되기 전에 보낸 요청의 결과는 반영하지 않음
+			if (outlier.isEjectedAt(now)) {
+				return;
+			}
+			if (!failed && latencyNanos <= latencyThresholdNanos) {
+				outlier.consecutiveFailures = 0;
+				return;
+			}
+			if (++outlier.consecutiveFailures >= consecutiveFailures) {
+				eject(outlier, now);
+			}
+		}
+	}
+
+	/**
+	 * 제외된 인스턴스를 뺀 목록, 모두 제외되어 있으면 원래 목록을 그대로 사용
+	 *
+	 * @param serviceId 서비스 id
+	 * @param instances 디스커버리에서 받은 인스턴스 목록
+	 * @return 요청을 보낼 인스턴스 목록
+	 */
+	public List<ServiceInstance> filter(String serviceId, List<ServiceInstance> instances) {
+		poolSizes.put(serviceId, instances.size());
+		Instant now = clock.instant();
+
+		List<ServiceInstance> available = new ArrayList<>(instances.size());
+		for (ServiceInstance instance : instances) {
+			if (!isEjected(instance, now)) {
+				available.add(instance);
+			}
+		}
+		return available.isEmpty() ? instances : available;
+	}
+
+	/**
+	 * 현재 제외 중인 인스턴스
+	 *
+	 * @return 서비스 id 별 제외 중인 인스턴스
+	 */
+	public Map<String, List<Ejection>> ejections() {
+		Instant now = clock.instant();
+		Map<String, List<Ejection>> result = new TreeMap<>();
+
+		for (Outlier outlier : outliers.values()) {
+			synchronized (outlier) {
+				if (outlier.isEjectedAt(now)) {
+					result.computeIfAbsent(outlier.serviceId, key -> new ArrayList<>())
+						.add(new Ejection(outlier.instanceKey, outlier.ejectedUntil, outlier.ejections));
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean isEjected(ServiceInstance instance, Instant now) {
+		Outlier outlier = outliers.get(InstanceStatsRegistry.key(instance));
+		return outlier != null && outlier.isEjectedAt(now);
+	}
+
+	private synchronized void eject(Outlier outlier, Instant now) {
+		long ejected = outliers.values().stream()
+			.filter(other -> other.serviceId.equals(outlier.serviceId) && other.isEjectedAt(now))
+			.count();
+		int poolSize = poolSizes.getOrDefault(outlier.serviceId, 0);
+		if ((ejected + 1) * 100 > (long)poolSize * maxEjectionPercent) {
+			log.debug("제외 한도를 넘어 인스턴스를 제외하지 않습니다. instance={}, ejected={}, pool={}",
+				outlier.instanceKey, ejected, poolSize);
+			return;
+		}
+
+		if (outlier.ejectedUntil != null && outlier.ejectedUntil.plus(maxEjectionTime).isBefore(now)) {
+			outlier.ejections = 0;
+		}
+		outlier.ejections++;
+		outlier.consecutiveFailures = 0;
+		outlier.ejectedUntil = now.plus(ejectionTime(outlier.ejections));
+
+		meterRegistry.counter(METRIC_NAME, "service", String.valueOf(outlier.serviceId)).increment();
+		log.warn("인스턴스를 일시적으로 제외합니다. instance={}, until={}, ejections={}",
+			outlier.instanceKey, outlier.ejectedUntil, outlier.ejections);
+	}
+
+	private Duration ejectionTime(int ejections) {
+		Duration time = baseEjectionTime.multipliedBy(1L << Math.min(ejections - 1, 30));
+		return time.compareTo(maxEjectionTime) > 0 ? maxEjectionTime : time;
+	}
+
+	/**
+	 * 제외 중인 인스턴스 정보
+	 *
+	 * @param instance 인스턴스 키
+	 * @param ejectedUntil 제외가 끝나는 시각
+	 * @param ejections 연속으로 제외된 횟수
+	 */
+	public record Ejection(String instance, Instant ejectedUntil, int ejections) {
+	}
+
+	private static final class Outlier {
+
+		private final String serviceId;
+		private final String instanceKey;
+
+		private int consecutiveFailures;
+		private int ejections;
+		private volatile Instant ejectedUntil;
+
+		private Outlier(String serviceId, String instanceKey) {
+			this.serviceId = serviceId;
+			this.instanceKey = instanceKey;
+		}
+
+		private boolean isEjectedAt(Instant now) {
+			Instant until = ejectedUntil;
+			return until != null && until.isAfter(now);
+		}
+	}
+}
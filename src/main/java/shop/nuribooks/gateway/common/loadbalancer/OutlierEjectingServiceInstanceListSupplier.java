@@ -0,0 +1,30 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.List;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link OutlierDetector} 가 제외한 인스턴스를 뺀 목록을 로드밸런서에 전달
+ *
+ * @author nuri
+ */
+public class OutlierEjectingServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+	private final OutlierDetector outlierDetector;
+
+	public OutlierEjectingServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+		OutlierDetector outlierDetector) {
+		super(delegate);
+		this.outlierDetector = outlierDetector;
+	}
+
+	@Override
+	public Flux<List<ServiceInstance>> get() {
+		return delegate.get().map(instances -> outlierDetector.filter(getServiceId(), instances));
+	}
+}
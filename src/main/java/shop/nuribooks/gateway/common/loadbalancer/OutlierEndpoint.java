@@ -0,0 +1,29 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 제외 중인 upstream 인스턴스를 보여주는 actuator 엔드포인트 ({@code /actuator/outliers})
+ *
+ * @author nuri
+ */
+@Component
+@Endpoint(id = "outliers")
+public class OutlierEndpoint {
+
+	private final OutlierDetector outlierDetector;
+
+	public OutlierEndpoint(OutlierDetector outlierDetector) {
+		this.outlierDetector = outlierDetector;
+	}
+
+	@ReadOperation
+	public Map<String, List<OutlierDetector.Ejection>> outliers() {
+		return outlierDetector.ejections();
+	}
+}
@@ -0,0 +1,66 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 서비스별 로드밸런서 설정
+ *
+ * <p>
+ * {@code loadbalancer.ewma.services} 에 포함된 서비스는 {@link EwmaLoadBalancer}, 나머지는 기본 라운드로빈을 사용한다.
+ * {@code loadbalancer.consistent-hash.services} 에 포함된 서비스는 지정 경로에 한해 {@link ConsistentHashLoadBalancer} 로 감싼다.
+ * 모든 서비스의 인스턴스 목록에서 {@link OutlierDetector} 가 제외한 인스턴스를 뺀다.
+ * 서비스마다 만들어지는 자식 컨텍스트에서만 사용해야 하므로 {@code @Configuration} 을 붙이지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class ServiceLoadBalancerConfiguration {
+
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(
+		Environment environment,
+		LoadBalancerClientFactory loadBalancerClientFactory,
+		InstanceStatsRegistry statsRegistry,
+		ConsistentHashProperties consistentHashProperties,
+		@Value("${loadbalancer.ewma.services:}") List<String> ewmaServices) {
+		String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		var supplierProvider = loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+
+		ReactorServiceInstanceLoadBalancer loadBalancer = ewmaServices.contains(serviceId)
+			? new EwmaLoadBalancer(supplierProvider, serviceId, statsRegistry)
+			: new RoundRobinLoadBalancer(supplierProvider, serviceId);
+
+		if (consistentHashProperties.getServices().contains(serviceId)) {
+			return new ConsistentHashLoadBalancer(supplierProvider, loadBalancer, statsRegistry,
+				consistentHashProperties);
+		}
+		return loadBalancer;
+	}
+
+	@Bean
+	@ConditionalOnBean(ReactiveDiscoveryClient.class)
+	public ServiceInstanceListSupplier outlierEjectingServiceInstanceListSupplier(
+		ConfigurableApplicationContext context,
+		OutlierDetector outlierDetector) {
+		return ServiceInstanceListSupplier.builder()
+			.withDiscoveryClient()
+			.withCaching()
+			.with((ctx, delegate) -> new OutlierEjectingServiceInstanceListSupplier(delegate, outlierDetector))
+			// hedge 요청은 첫 요청과 다른 인스턴스로
+			.withRetryAwareness()
+			.build(context);
+	}
+}
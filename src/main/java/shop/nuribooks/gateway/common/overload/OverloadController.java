@@ -0,0 +1,145 @@
+package shop.nuribooks.gateway.common.overload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.concurrent.EventExecutor;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * event loop 지연과 처리 중인 요청 수로 게이트웨이의 과부하 정도를 계산
+ *
+ * <p>
+ * 주기마다 서버 event loop 마다 빈 작업을 넣어 실행되기까지 걸린 시간을 지연으로 본다.
+ * 이전 작업이 아직 실행되지 않았으면 넣은 뒤 지난 시간을 지연으로 보므로, 막혀 있는 event loop 도 드러난다.
+ * 과부하 정도는 지연과 처리 중인 요청 수를 각각 한도로 나눈 값 중 큰 값이며, 1 이상이면 과부하이다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Component
+public class OverloadController implements DisposableBean {
+
+	public static final String METRIC_NAME = "overload";
+
+	private final OverloadProperties properties;
+	private final List<EventExecutor> executors = new ArrayList<>();
+	private final AtomicLongArray probeSubmittedAt;
+	private final AtomicLongArray lastLagNanos;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Disposable sampler;
+
+	@Autowired
+	public OverloadController(OverloadProperties properties, MeterRegistry meterRegistry) {
+		this(properties, meterRegistry, HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE));
+	}
+
+	/**
+	 * 지연을 측정할 event loop 를 지정하는 생성자
+	 *
+	 * @param properties 과부하 설정
+	 * @param meterRegistry 메트릭 레지스트리
+	 * @param eventLoops 지연을 측정할 event loop, 비어 있으면 처리 중 요청 수만 사용
+	 */
+	public OverloadController(OverloadProperties properties, MeterRegistry meterRegistry,
+		Iterable<EventExecutor> eventLoops) {
+		this.properties = properties;
+		eventLoops.forEach(executors::add);
+		this.probeSubmittedAt = new AtomicLongArray(executors.size());
+		this.lastLagNanos = new AtomicLongArray(executors.size());
+
+		Gauge.builder(METRIC_NAME + ".event-loop.lag", this, controller -> controller.eventLoopLagNanos() / 1e6)
+			.description("event loop 지연 (ms)")
+			.baseUnit("milliseconds")
+			.register(meterRegistry);
+		Gauge.builder(METRIC_NAME + ".in-flight", inFlight, AtomicInteger::get)
+			.description("게이트웨이에서 처리 중인 요청 수")
+			.register(meterRegistry);
+
+		long interval = properties.getSampleInterval().toNanos();
+		this.sampler = executors.isEmpty()
+			? Disposables.disposed()
+			: Schedulers.parallel().schedulePeriodically(this::sample, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * 우선순위의 요청을 받아도 되는지 확인하고, 받으면 처리 중 요청 수에 더함
+	 *
+	 * @param priority 요청 우선순위
+	 * @return 받으면 true, 버려야 하면 false
+	 */
+	public boolean tryAcquire(RequestPriority priority) {
+		if (pressure() >= priority.shedThreshold(properties.getPriorityStep())) {
+			return false;
+		}
+		inFlight.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * 요청 종료
+	 */
+	public void release() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * 현재 과부하 정도
+	 *
+	 * @return event loop 지연과 처리 중 요청 수를 각각 한도로 나눈 값 중 큰 값
+	 */
+	public double pressure() {
+		double lag = (double)eventLoopLagNanos() / properties.getMaxEventLoopLag().toNanos();
+		double load = (double)inFlight.get() / properties.getMaxInFlight();
+		return Math.max(lag, load);
+	}
+
+	/**
+	 * 가장 늦은 event loop 의 지연
+	 *
+	 * @return 지연 (나노초)
+	 */
+	public long eventLoopLagNanos() {
+		long now = System.nanoTime();
+		long max = 0L;
+		for (int i = 0; i < executors.size(); i++) {
+			long submittedAt = probeSubmittedAt.get(i);
+			long lag = submittedAt != 0L ? Math.max(lastLagNanos.get(i), now - submittedAt) : lastLagNanos.get(i);
+			max = Math.max(max, lag);
+		}
+		return max;
+	}
+
+	void sample() {
+		for (int i = 0; i < executors.size(); i++) {
+			int index = i;
+			long now = System.nanoTime();
+			// 이전 측정 작업이 아직 실행되지 않았으면 새로 넣지 않음
+			if (!probeSubmittedAt.compareAndSet(index, 0L, now)) {
+				continue;
+			}
+			executors.get(index).execute(() -> {
+				lastLagNanos.set(index, System.nanoTime() - now);
+				probeSubmittedAt.set(index, 0L);
+			});
+		}
+	}
+
+	@Override
+	public void destroy() {
+		sampler.dispose();
+	}
+}
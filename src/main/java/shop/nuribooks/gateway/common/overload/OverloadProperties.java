@@ -0,0 +1,43 @@
+package shop.nuribooks.gateway.common.overload;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 과부하 시 우선순위별 요청 버리기 설정
+ *
+ * @author nuri
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "overload")
+public class OverloadProperties {
+
+	private boolean enabled = true;
+
+	// 이 지연을 넘으면 event loop 가 과부하
+	private Duration maxEventLoopLag = Duration.ofMillis(50);
+
+	// 이 수를 넘으면 처리 중인 요청이 과부하
+	private int maxInFlight = 2000;
+
+	// event loop 지연 측정 주기
+	private Duration sampleInterval = Duration.ofMillis(100);
+
+	// 우선순위 한 단계마다 버리기 시작하는 과부하 정도의 차이
+	private double priorityStep = 0.25;
+
+	// 라우트 id 별 우선순위
+	private Map<String, RequestPriority> priorities = new LinkedHashMap<>();
+
+	// 우선순위를 지정하지 않은 라우트의 우선순위
+	private RequestPriority defaultPriority = RequestPriority.NORMAL;
+}
@@ -0,0 +1,33 @@
+package shop.nuribooks.gateway.common.overload;
+
+/**
+ * 과부하 시 요청을 버리는 순서를 정하는 우선순위, 낮은 우선순위부터 버린다
+ *
+ * @author nuri
+ */
+public enum RequestPriority {
+
+	// 주문, 결제처럼 과부하 중에도 버리지 않는 요청
+	CRITICAL,
+
+	// 로그인, 회원 가입
+	HIGH,
+
+	NORMAL,
+
+	// 도서 목록 조회처럼 다시 시도해도 되는 요청
+	LOW;
+
+	/**
+	 * 과부하 정도가 얼마 이상일 때 이 우선순위의 요청을 버리는지
+	 *
+	 * @param step 우선순위 한 단계마다 더하는 과부하 정도
+	 * @return 버리기 시작하는 과부하 정도, 버리지 않으면 무한대
+	 */
+	public double shedThreshold(double step) {
+		if (this == CRITICAL) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return 1.0 + step * (LOW.ordinal() - ordinal());
+	}
+}
@@ -0,0 +1,63 @@
+package shop.nuribooks.gateway.common.pool;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * 라우트별로 격리한 upstream 연결 풀 설정
+ *
+ * <p>
+ * 라우트 metadata 의 {@link #POOL_METADATA} 로 풀 이름을 지정하며, 지정하지 않은 라우트는 기본 풀
+ * ({@code spring.cloud.gateway.httpclient.pool})을 함께 사용한다.
+ * </p>
+ *
+ * @author nuri
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "upstream")
+public class ConnectionPoolProperties {
+
+	// 라우트가 사용할 연결 풀 이름을 지정하는 metadata 키
+	public static final String POOL_METADATA = "connection-pool";
+
+	// 풀 이름별 설정
+	private Map<String, Pool> pools = new LinkedHashMap<>();
+
+	@Getter
+	@Setter
+	public static class Pool {
+
+		// upstream 과 사용할 프로토콜, HTTP11 과 H2C 를 함께 지정하면 h2c upgrade 후 HTTP/2 로 다중화하고
+		// upgrade 를 지원하지 않는 인스턴스와는 HTTP/1.1 사용
+		private List<HttpProtocol> protocols = List.of(HttpProtocol.HTTP11);
+
+		// 인스턴스(호스트)별 최대 연결 수
+		private int maxConnections = 100;
+
+		// 연결을 기다릴 수 있는 최대 요청 수, 넘으면 바로 실패 (-1 은 제한 없음)
+		private int pendingAcquireMaxCount = 200;
+
+		// 연결을 기다리는 최대 시간
+		private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+
+		// 이 시간 동안 쓰이지 않은 연결은 닫음
+		private Duration maxIdleTime = Duration.ofSeconds(30);
+
+		// 연결의 최대 수명
+		private Duration maxLifeTime = Duration.ofMinutes(5);
+
+		// 유휴, 수명이 지난 연결을 정리하는 주기
+		private Duration evictionInterval = Duration.ofSeconds(30);
+	}
+}
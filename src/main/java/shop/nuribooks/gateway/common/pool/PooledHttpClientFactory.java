@@ -0,0 +1,75 @@
+package shop.nuribooks.gateway.common.pool;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * 연결 풀 하나를 쓰는 HttpClient 생성기
+ *
+ * <p>
+ * 연결 풀을 제외한 설정(연결 타임아웃, SSL, 프록시, customizer)은 게이트웨이 기본 HttpClient 와 같게 만든다.
+ * 풀은 Micrometer 메트릭({@code reactor.netty.connection.provider.*})을 풀 이름 태그로 기록하며,
+ * 연결 대기 시간은 {@code pending.connections.time}, 대기 중 요청 수는 {@code pending.connections} 로 기록된다.
+ * 풀의 {@code protocols} 에 H2C 가 있으면 연결 하나로 여러 요청을 다중화하므로 {@code maxConnections} 는 인스턴스별
+ * HTTP/2 연결 수가 된다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class PooledHttpClientFactory extends HttpClientFactory {
+
+	private final String poolName;
+	private final ConnectionPoolProperties.Pool pool;
+
+	private ConnectionProvider connectionProvider;
+
+	public PooledHttpClientFactory(String poolName, ConnectionPoolProperties.Pool pool,
+		HttpClientProperties properties, ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+		List<HttpClientCustomizer> customizers) {
+		super(properties, serverProperties, sslConfigurer, customizers);
+		this.poolName = poolName;
+		this.pool = pool;
+	}
+
+	/**
+	 * 이 풀을 쓰는 HttpClient 생성
+	 *
+	 * @return HttpClient
+	 */
+	public HttpClient create() {
+		return createInstance()
+			.protocol(pool.getProtocols().toArray(HttpProtocol[]::new));
+	}
+
+	/**
+	 * 생성한 연결 풀, 종료 시 정리에 사용
+	 *
+	 * @return 연결 풀, 생성 전이면 null
+	 */
+	public ConnectionProvider getConnectionProvider() {
+		return connectionProvider;
+	}
+
+	@Override
+	protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+		connectionProvider = ConnectionProvider.builder(poolName)
+			.maxConnections(pool.getMaxConnections())
+			.pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+			.pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+			.maxIdleTime(pool.getMaxIdleTime())
+			.maxLifeTime(pool.getMaxLifeTime())
+			.evictInBackground(pool.getEvictionInterval())
+			.metrics(true)
+			.build();
+		return connectionProvider;
+	}
+}
@@ -0,0 +1,89 @@
+package shop.nuribooks.gateway.common.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키별 token bucket 을 메모리에 두는 rate limiter
+ *
+ * <p>
+ * 버킷 하나를 다음 토큰이 생기는 이론적 시각(GCRA 의 TAT) 하나로 표현하고 CAS 로 갱신하므로 잠금이 없고,
+ * 이미 본 키의 요청은 객체를 만들지 않는다. 토큰이 가득 찬 버킷은 상태가 없는 버킷과 같으므로
+ * {@link #sweep(long)} 으로 지워도 한도가 달라지지 않는다.
+ * </p>
+ *
+ * @author nuri
+ */
+public final class TokenBucketRateLimiter {
+
+	private final long emissionIntervalNanos;
+	private final long burstToleranceNanos;
+	private final int burstCapacity;
+
+	// ConcurrentHashMap 은 bin 단위로 잠그므로 서로 다른 키의 갱신이 경합하지 않음
+	private final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+	/**
+	 * 생성자
+	 *
+	 * @param replenishRate 초당 채워지는 토큰 수
+	 * @param burstCapacity 버킷 크기 (순간 최대 요청 수)
+	 */
+	public TokenBucketRateLimiter(double replenishRate, int burstCapacity) {
+		if (replenishRate <= 0 || burstCapacity < 1) {
+			throw new IllegalArgumentException("replenishRate 와 burstCapacity 는 0 보다 커야 합니다.");
+		}
+		this.emissionIntervalNanos = Math.max(1L, (long)(1_000_000_000L / replenishRate));
+		this.burstToleranceNanos = emissionIntervalNanos * burstCapacity;
+		this.burstCapacity = burstCapacity;
+	}
+
+	/**
+	 * 토큰 하나 사용
+	 *
+	 * @param key 버킷 키
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 * @return 허용되면 남은 토큰 수(0 이상), 거절되면 다음 토큰까지 기다릴 시간(나노초)의 음수
+	 */
+	public long tryAcquire(Object key, long nowNanos) {
+		AtomicLong bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+		}
+
+		while (true) {
+			long tat = bucket.get();
+			long start = tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat;
+			long next = start + emissionIntervalNanos;
+			long excess = next - nowNanos - burstToleranceNanos;
+
+			if (excess > 0) {
+				return -excess;
+			}
+			if (bucket.compareAndSet(tat, next)) {
+				return (burstToleranceNanos - (next - nowNanos)) / emissionIntervalNanos;
+			}
+		}
+	}
+
+	/**
+	 * 토큰이 가득 찬 버킷 제거
+	 *
+	 * @param nowNanos 현재 시각 (System.nanoTime 기준)
+	 */
+	public void sweep(long nowNanos) {
+		buckets.values().removeIf(bucket -> {
+			long tat = bucket.get();
+			return tat == Long.MIN_VALUE || tat - nowNanos <= 0;
+		});
+	}
+
+	public int getBurstCapacity() {
+		return burstCapacity;
+	}
+
+	public int size() {
+		return buckets.size();
+	}
+}
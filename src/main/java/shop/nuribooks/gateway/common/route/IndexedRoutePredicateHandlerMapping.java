@@ -0,0 +1,66 @@
+package shop.nuribooks.gateway.common.route;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.util.Set;
+
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.core.env.Environment;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link RouteIndex} 로 후보 라우트를 먼저 추린 뒤 predicate 를 평가하는 핸들러 매핑
+ *
+ * <p>
+ * 기본 구현은 모든 라우트의 predicate 를 선언 순서대로 평가한다.
+ * 이 구현은 인덱스에 등록된 라우트 중 경로가 맞지 않는 라우트를 건너뛰고,
+ * 남은 후보와 인덱스에 없는 라우트만 같은 순서로 평가하므로 매칭 결과는 기본 구현과 같다.
+ * </p>
+ *
+ * @author nuri
+ */
+public class IndexedRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping {
+
+	private final RouteLocator routeLocator;
+	private final RouteIndex routeIndex;
+
+	public IndexedRoutePredicateHandlerMapping(FilteringWebHandler webHandler, RouteLocator routeLocator,
+		GlobalCorsProperties globalCorsProperties, Environment environment, RouteIndex routeIndex) {
+		super(webHandler, routeLocator, globalCorsProperties, environment);
+		this.routeLocator = routeLocator;
+		this.routeIndex = routeIndex;
+	}
+
+	@Override
+	protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+		Set<String> candidates = routeIndex.candidates(exchange.getRequest().getPath().pathWithinApplication());
+
+		return this.routeLocator.getRoutes()
+			.filter(route -> !routeIndex.isIndexed(route.getId()) || candidates.contains(route.getId()))
+			.concatMap(route -> Mono.just(route).filterWhen(r -> {
+					exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, r.getId());
+					return r.getPredicate().apply(exchange);
+				})
+				.doOnError(e -> logger.error("Error applying predicate for route: " + route.getId(), e))
+				.onErrorResume(e -> Mono.empty()))
+			.next()
+			.map(route -> {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Route matched: " + route.getId());
+				}
+				validateRoute(route, exchange);
+				return route;
+			});
+	}
+
+	@Override
+	protected String getSimpleName() {
+		return "IndexedRoutePredicateHandlerMapping";
+	}
+}
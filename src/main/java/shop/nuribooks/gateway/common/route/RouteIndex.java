@@ -0,0 +1,147 @@
+package shop.nuribooks.gateway.common.route;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.server.PathContainer;
+
+/**
+ * 라우트의 Path 패턴을 세그먼트 트라이로 컴파일한 인덱스
+ *
+ * <p>
+ * 요청 경로를 한 번 훑어 매칭 가능성이 있는 라우트 id 만 후보로 돌려준다.
+ * 후보는 실제 매칭 결과의 상위 집합이므로, 최종 판단은 각 라우트의 predicate 로 다시 한다.
+ * {@code **}, {@code {*var}} 는 접두사 매칭으로, 그 밖의 와일드카드 세그먼트는 임의의 한 세그먼트로 취급한다.
+ * </p>
+ *
+ * @author nuri
+ */
+public final class RouteIndex {
+
+	private final Node root;
+	private final Set<String> indexedRouteIds;
+
+	private RouteIndex(Node root, Set<String> indexedRouteIds) {
+		this.root = root;
+		this.indexedRouteIds = indexedRouteIds;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * 인덱스에 등록된 라우트인지 확인
+	 *
+	 * @param routeId 라우트 id
+	 * @return 등록된 라우트면 true, 등록되지 않은 라우트는 항상 후보로 취급해야 함
+	 */
+	public boolean isIndexed(String routeId) {
+		return indexedRouteIds.contains(routeId);
+	}
+
+	/**
+	 * 요청 경로와 매칭될 수 있는 라우트 id 목록 조회
+	 *
+	 * @param path 애플리케이션 기준 요청 경로
+	 * @return 후보 라우트 id 집합
+	 */
+	public Set<String> candidates(PathContainer path) {
+		List<String> segments = new ArrayList<>();
+		for (PathContainer.Element element : path.elements()) {
+			if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+				segments.add(segment.valueToMatch());
+			}
+		}
+
+		Set<String> result = new HashSet<>();
+		collect(root, segments, 0, result);
+		return result;
+	}
+
+	private static void collect(Node node, List<String> segments, int depth, Set<String> result) {
+		result.addAll(node.prefixRoutes);
+
+		if (depth == segments.size()) {
+			result.addAll(node.exactRoutes);
+			return;
+		}
+
+		Node literal = node.children.get(segments.get(depth));
+		if (literal != null) {
+			collect(literal, segments, depth + 1, result);
+		}
+		if (node.wildcard != null) {
+			collect(node.wildcard, segments, depth + 1, result);
+		}
+	}
+
+	private static final class Node {
+
+		private final Map<String, Node> children = new HashMap<>();
+		private final Set<String> exactRoutes = new LinkedHashSet<>();
+		private final Set<String> prefixRoutes = new LinkedHashSet<>();
+		private Node wildcard;
+	}
+
+	public static final class Builder {
+
+		private final Node root = new Node();
+		private final Set<String> indexedRouteIds = new HashSet<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * 라우트의 Path 패턴 등록
+		 *
+		 * @param routeId 라우트 id
+		 * @param patterns 라우트에 선언된 Path 패턴
+		 * @return 빌더
+		 */
+		public Builder route(String routeId, String... patterns) {
+			indexedRouteIds.add(routeId);
+			for (String pattern : patterns) {
+				insert(routeId, pattern);
+			}
+			return this;
+		}
+
+		public RouteIndex build() {
+			return new RouteIndex(root, Collections.unmodifiableSet(new HashSet<>(indexedRouteIds)));
+		}
+
+		private void insert(String routeId, String pattern) {
+			Node node = root;
+
+			for (String segment : pattern.split("/")) {
+				if (segment.isEmpty()) {
+					continue;
+				}
+				if (segment.equals("**") || segment.startsWith("{*")) {
+					node.prefixRoutes.add(routeId);
+					return;
+				}
+				if (isWildcard(segment)) {
+					if (node.wildcard == null) {
+						node.wildcard = new Node();
+					}
+					node = node.wildcard;
+				} else {
+					node = node.children.computeIfAbsent(segment, key -> new Node());
+				}
+			}
+			node.exactRoutes.add(routeId);
+		}
+
+		private static boolean isWildcard(String segment) {
+			return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package shop.nuribooks.gateway.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 게이트웨이가 직접 만드는 에러 응답 유틸
+ *
+ * <p>
+ * 다른 필터의 401 응답과 같은 {@code {"status", "message", "details"}} 형식으로 응답 본문을 작성
+ * </p>
+ *
+ * @author nuri
+ */
+public final class ErrorResponseUtils {
+
+	private ErrorResponseUtils() {
+	}
+
+	/**
+	 * 에러 응답을 작성
+	 *
+	 * @param exchange 요청-응답 교환 객체
+	 * @param status 응답 상태
+	 * @param details 상세 메시지
+	 * @return 응답 작성 결과
+	 */
+	public static Mono<Void> writeErrorResponse(ServerWebExchange exchange, HttpStatus status, String details) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(status);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+		String errorResponseBody = "{\"status\": " + status.value()
+			+ ", \"message\": \"" + status.name()
+			+ "\", \"details\": \"" + details + "\"}";
+
+		return response.writeWith(Mono.just(
+			response.bufferFactory().wrap(errorResponseBody.getBytes(StandardCharsets.UTF_8))
+		));
+	}
+
+	/**
+	 * Retry-After 헤더를 포함한 에러 응답을 작성
+	 *
+	 * @param exchange 요청-응답 교환 객체
+	 * @param status 응답 상태 (429, 503 등)
+	 * @param details 상세 메시지
+	 * @param retryAfter 재시도까지 기다릴 시간 (초 단위로 올림)
+	 * @return 응답 작성 결과
+	 */
+	public static Mono<Void> writeRetryableErrorResponse(ServerWebExchange exchange, HttpStatus status,
+		String details, Duration retryAfter) {
+		long seconds = Math.max(1L, (retryAfter.toMillis() + 999L) / 1000L);
+		exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+
+		return writeErrorResponse(exchange, status, details);
+	}
+}
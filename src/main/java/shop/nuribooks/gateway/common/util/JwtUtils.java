@@ -9,7 +9,10 @@ import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 /**
@@ -20,51 +23,62 @@ import io.jsonwebtoken.Jwts;
 public class JwtUtils {
 	private final SecretKey secretKey;
 
+	// 파서는 불변이며 thread-safe 하므로 키 당 한 번만 생성
+	private final JwtParser jwtParser;
+
 	public JwtUtils(@Value("${spring.jwt.secret}") String secret) {
 		this.secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8),
 			Jwts.SIG.HS256.key().build().getAlgorithm());
+		this.jwtParser = Jwts.parser()
+			.verifyWith(secretKey)
+			.build();
 	}
 
 	public SecretKey getSecretKey() {
 		return secretKey;
 	}
 
+	/**
+	 * 토큰의 서명과 만료를 한 번에 검증하고 검증된 클레임을 반환
+	 *
+	 * @param token 검증할 jwt 토큰
+	 * @return 검증된 클레임 (userId, role, 만료 시각)
+	 * @throws ExpiredJwtException 토큰이 만료된 경우
+	 * @throws JwtException 서명이 올바르지 않거나 형식이 잘못된 경우
+	 */
+	public VerifiedClaims verify(String token) throws JwtException {
+		Claims claims = parseClaims(token);
+		Date expiration = claims.getExpiration();
+
+		return new VerifiedClaims(
+			claims.get("userId", String.class),
+			claims.get("role", String.class),
+			expiration != null ? expiration.toInstant() : null
+		);
+	}
+
 	public String getUserId(String token) {
-		return Jwts
-			.parser()
-			.verifyWith(secretKey)
-			.build()
-			.parseSignedClaims(token)
-			.getPayload()
-			.get("userId", String.class);
+		return verify(token).userId();
 	}
 
 	public String getRole(String token) {
-		return Jwts
-			.parser()
-			.verifyWith(secretKey)
-			.build()
-			.parseSignedClaims(token)
-			.getPayload()
-			.get("role", String.class);
+		return verify(token).role();
 	}
 
 	public boolean isExpired(String token) {
-		return Jwts
-			.parser()
-			.verifyWith(secretKey)
-			.build()
-			.parseSignedClaims(token)
-			.getPayload()
+		return parseClaims(token)
 			.getExpiration()
 			.before(new Date());
 	}
 
 	public void validateToken(String token) throws ExpiredJwtException {
 		// 토큰 파싱 및 유효성 검사
-		Jwts.parser()
-			.verifyWith(secretKey)
-			.build()
-			.parseSignedClaims(token);
+		parseClaims(token);
+	}
+
+	private Claims parseClaims(String token) {
+		return jwtParser
+			.parseSignedClaims(token)
+			.getPayload();
 	}
 }
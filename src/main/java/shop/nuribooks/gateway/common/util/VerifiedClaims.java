@@ -0,0 +1,28 @@
+package shop.nuribooks.gateway.common.util;
+
+import java.time.Instant;
+
+/**
+ * 서명 검증을 마친 jwt 클레임
+ *
+ * <p>
+ * 한 번 검증한 결과를 필터 간에 재사용하기 위한 불변 값 객체
+ * </p>
+ *
+ * @param userId 사용자 아이디
+ * @param role 사용자 권한
+ * @param expiration 토큰 만료 시각 (만료 클레임이 없으면 null)
+ * @author nuri
+ */
+public record VerifiedClaims(String userId, String role, Instant expiration) {
+
+	/**
+	 * 주어진 시각 기준으로 만료되었는지 확인
+	 *
+	 * @param now 기준 시각
+	 * @return 만료 여부
+	 */
+	public boolean isExpiredAt(Instant now) {
+		return expiration != null && !now.isBefore(expiration);
+	}
+}
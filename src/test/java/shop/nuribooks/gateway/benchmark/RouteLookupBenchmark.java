@@ -0,0 +1,130 @@
+package shop.nuribooks.gateway.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Flux;
+import shop.nuribooks.gateway.common.route.IndexedRoutePredicateHandlerMapping;
+import shop.nuribooks.gateway.common.route.RouteIndex;
+
+/**
+ * 라우트 수에 따른 기본 매핑과 인덱스 매핑의 라우트 조회 비용 비교
+ *
+ * <p>
+ * 실행: {@code mvn test-compile} 후 test classpath 로 {@code main} 실행
+ * </p>
+ *
+ * @author nuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int routeCount;
+
+	private RoutePredicateHandlerMapping defaultMapping;
+	private RoutePredicateHandlerMapping indexedMapping;
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+			.include(RouteLookupBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+
+	@Setup
+	public void setUp() {
+		PathRoutePredicateFactory pathFactory = new PathRoutePredicateFactory();
+		MethodRoutePredicateFactory methodFactory = new MethodRoutePredicateFactory();
+		RouteIndex.Builder indexBuilder = RouteIndex.builder();
+		List<Route> routes = new ArrayList<>();
+
+		// RouteLocatorConfig 처럼 method 조건이 있는 정확한 경로 라우트와 접두사 라우트를 번갈아 배치
+		for (int i = 0; i < routeCount; i++) {
+			String id = "route_" + i;
+			AsyncPredicate<ServerWebExchange> predicate;
+
+			if (i % 2 == 0) {
+				String pattern = "/api/service-" + i + "/**";
+				predicate = pathFactory.applyAsync(c -> c.setPatterns(List.of(pattern)));
+				indexBuilder.route(id, pattern);
+			} else {
+				String pattern = "/api/service-" + i + "/items/{id}";
+				predicate = pathFactory.applyAsync(c -> c.setPatterns(List.of(pattern)))
+					.and(methodFactory.applyAsync(c -> c.setMethods(HttpMethod.POST)));
+				indexBuilder.route(id, pattern);
+			}
+			routes.add(Route.async().id(id).uri("http://localhost").asyncPredicate(predicate).build());
+		}
+
+		RouteLocator routeLocator = () -> Flux.fromIterable(routes);
+		FilteringWebHandler webHandler = new FilteringWebHandler(List.of());
+
+		defaultMapping = new RoutePredicateHandlerMapping(webHandler, routeLocator, new GlobalCorsProperties(),
+			new MockEnvironment());
+		indexedMapping = new IndexedRoutePredicateHandlerMapping(webHandler, routeLocator, new GlobalCorsProperties(),
+			new MockEnvironment(), indexBuilder.build());
+	}
+
+	private String lastRoutePath() {
+		int last = (routeCount - 1) / 2 * 2;
+		return "/api/service-" + last + "/books/1";
+	}
+
+	private static Object lookup(RoutePredicateHandlerMapping mapping, String path) {
+		return mapping.getHandler(MockServerWebExchange.from(MockServerHttpRequest.get(path))).block();
+	}
+
+	@Benchmark
+	public Object defaultLastRoute() {
+		return lookup(defaultMapping, lastRoutePath());
+	}
+
+	@Benchmark
+	public Object indexedLastRoute() {
+		return lookup(indexedMapping, lastRoutePath());
+	}
+
+	@Benchmark
+	public Object defaultNoRoute() {
+		return lookup(defaultMapping, "/api/unknown/1");
+	}
+
+	@Benchmark
+	public Object indexedNoRoute() {
+		return lookup(indexedMapping, "/api/unknown/1");
+	}
+}
@@ -0,0 +1,113 @@
+package shop.nuribooks.gateway.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import shop.nuribooks.gateway.common.pool.ConnectionPoolProperties;
+import shop.nuribooks.gateway.common.pool.PooledHttpClientFactory;
+
+/**
+ * 로컬 upstream stub 에 같은 동시 요청을 HTTP/1.1 풀과 h2c 풀로 보내 응답 시간 비교
+ *
+ * <p>
+ * HTTP/1.1 풀은 동시 요청 수만큼, h2c 풀은 연결 4개로 요청을 다중화한다.
+ * 실행: {@code mvn test-compile} 후 test classpath 로 {@code main} 실행
+ * </p>
+ *
+ * @author nuri
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpstreamProtocolBenchmark {
+
+	private static final int CONCURRENCY = 100;
+
+	@Param({"http11", "h2c"})
+	private String protocol;
+
+	private DisposableServer server;
+	private PooledHttpClientFactory factory;
+	private HttpClient httpClient;
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+			.include(UpstreamProtocolBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+
+	@Setup
+	public void setUp() {
+		// 요청마다 5ms 걸리는 upstream stub
+		server = HttpServer.create()
+			.port(0)
+			.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+			.route(routes -> routes.get("/api/books", (request, response) -> response
+				.sendString(Mono.delay(Duration.ofMillis(5)).thenReturn("[]"))))
+			.bindNow();
+
+		ConnectionPoolProperties.Pool pool = new ConnectionPoolProperties.Pool();
+		if ("h2c".equals(protocol)) {
+			pool.setProtocols(List.of(HttpProtocol.HTTP11, HttpProtocol.H2C));
+			pool.setMaxConnections(4);
+		} else {
+			pool.setProtocols(List.of(HttpProtocol.HTTP11));
+			pool.setMaxConnections(CONCURRENCY);
+		}
+		pool.setPendingAcquireMaxCount(-1);
+
+		HttpClientProperties properties = new HttpClientProperties();
+		ServerProperties serverProperties = new ServerProperties();
+		factory = new PooledHttpClientFactory("books", pool, properties, serverProperties,
+			new HttpClientSslConfigurer(properties.getSsl(), serverProperties) {
+			}, new ArrayList<>());
+		httpClient = factory.create().baseUrl("http://localhost:" + server.port());
+	}
+
+	@TearDown
+	public void tearDown() {
+		factory.getConnectionProvider().disposeLater().block();
+		server.disposeNow();
+	}
+
+	// CONCURRENCY 개 요청을 동시에 보내고 모두 끝날 때까지의 시간
+	@Benchmark
+	public List<String> concurrentRequests() {
+		return Flux.range(0, CONCURRENCY)
+			.flatMap(i -> httpClient.get()
+				.uri("/api/books")
+				.responseSingle((response, body) -> body.asString()), CONCURRENCY)
+			.collectList()
+			.block(Duration.ofSeconds(30));
+	}
+}
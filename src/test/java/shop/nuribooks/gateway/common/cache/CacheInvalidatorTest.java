@@ -0,0 +1,84 @@
+package shop.nuribooks.gateway.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheInvalidatorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ResponseCache responseCache = new ResponseCache(meterRegistry,
+		new ResponseCompressor(new ServerProperties()), true, DataSize.ofKilobytes(64),
+		DataSize.ofKilobytes(1), Duration.ofMinutes(5));
+	private final ETagIndex etagIndex = new ETagIndex(meterRegistry, 100, Duration.ofMinutes(5));
+	private CacheInvalidator cacheInvalidator;
+
+	@BeforeEach
+	void setUp() {
+		CacheInvalidationProperties properties = new CacheInvalidationProperties();
+		properties.setTags(Map.of(
+			"books", List.of("/api/books"),
+			"categories", List.of("/api/categories")));
+		properties.setAdminPaths(Map.of(
+			"/admin/api/books", List.of("books"),
+			"/admin/api/categories", List.of("categories", "books")));
+		cacheInvalidator = new CacheInvalidator(responseCache, etagIndex, properties, meterRegistry);
+
+		for (String path : List.of("/api/books/1", "/api/books?page=1", "/api/categories", "/api/publishers")) {
+			responseCache.put(MockServerHttpRequest.get(path).build(), 200, new HttpHeaders(), new byte[1], null);
+			etagIndex.put(MockServerHttpRequest.get(path).build(), "\"etag\"");
+		}
+	}
+
+	private boolean cached(String path) {
+		return responseCache.get(MockServerHttpRequest.get(path).build()) != null;
+	}
+
+	@Test
+	@DisplayName("관리자 경로 접두사로 태그를 찾음")
+	void tagsForTest() {
+		assertEquals(Set.of("books"), cacheInvalidator.tagsFor("/admin/api/books/1"));
+		assertEquals(Set.of("categories", "books"), cacheInvalidator.tagsFor("/admin/api/categories"));
+		assertTrue(cacheInvalidator.tagsFor("/admin/api/members").isEmpty());
+	}
+
+	@Test
+	@DisplayName("태그에 속한 캐시 항목과 ETag 만 무효화")
+	void invalidateTest() {
+		// when
+		cacheInvalidator.invalidate("/admin/api/books/1");
+
+		// then
+		assertFalse(cached("/api/books/1"));
+		assertFalse(cached("/api/books?page=1"));
+		assertNull(etagIndex.get(MockServerHttpRequest.get("/api/books/1").build()));
+		assertTrue(cached("/api/categories"));
+		assertTrue(cached("/api/publishers"));
+		assertEquals(1.0, meterRegistry.get(CacheInvalidator.METRIC_NAME).tag("tag", "books").counter().count());
+	}
+
+	@Test
+	@DisplayName("여러 태그에 연결된 관리자 경로는 모든 태그를 무효화")
+	void invalidateMultipleTagsTest() {
+		// when
+		cacheInvalidator.invalidate("/admin/api/categories/3");
+
+		// then
+		assertFalse(cached("/api/books/1"));
+		assertFalse(cached("/api/categories"));
+		assertTrue(cached("/api/publishers"));
+	}
+}
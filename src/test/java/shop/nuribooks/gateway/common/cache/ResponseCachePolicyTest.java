@@ -0,0 +1,83 @@
+package shop.nuribooks.gateway.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+class ResponseCachePolicyTest {
+
+	private static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+	private HttpHeaders headers(String name, String value) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(name, value);
+		return headers;
+	}
+
+	@Test
+	@DisplayName("인증 정보가 있거나 GET 이 아닌 요청은 캐시 대상이 아님")
+	void isCacheableRequestTest() {
+		assertTrue(ResponseCachePolicy.isCacheableRequest(MockServerHttpRequest.get("/api/books").build()));
+		assertFalse(ResponseCachePolicy.isCacheableRequest(MockServerHttpRequest.post("/api/books").build()));
+		assertFalse(ResponseCachePolicy.isCacheableRequest(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.AUTHORIZATION, "Bearer token").build()));
+		assertFalse(ResponseCachePolicy.isCacheableRequest(MockServerHttpRequest.get("/api/books")
+			.header("X-USER-ID", "1").build()));
+		assertFalse(ResponseCachePolicy.isCacheableRequest(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.CACHE_CONTROL, "no-store").build()));
+	}
+
+	@Test
+	@DisplayName("요청의 no-cache, max-age=0 은 캐시된 응답을 사용하지 않음")
+	void acceptsCachedResponseTest() {
+		assertTrue(ResponseCachePolicy.acceptsCachedResponse(MockServerHttpRequest.get("/api/books").build()));
+		assertFalse(ResponseCachePolicy.acceptsCachedResponse(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.CACHE_CONTROL, "no-cache").build()));
+		assertFalse(ResponseCachePolicy.acceptsCachedResponse(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.CACHE_CONTROL, "max-age=0").build()));
+	}
+
+	@Test
+	@DisplayName("응답 Cache-Control 에 따라 수명을 계산")
+	void freshnessLifetimeTest() {
+		assertEquals(DEFAULT_TTL, ResponseCachePolicy.freshnessLifetime(200, new HttpHeaders(), DEFAULT_TTL));
+		assertEquals(Duration.ofSeconds(60), ResponseCachePolicy.freshnessLifetime(200,
+			headers(HttpHeaders.CACHE_CONTROL, "public, max-age=10, s-maxage=60"), DEFAULT_TTL));
+		assertEquals(Duration.ZERO, ResponseCachePolicy.freshnessLifetime(200,
+			headers(HttpHeaders.CACHE_CONTROL, "private, max-age=60"), DEFAULT_TTL));
+		assertEquals(Duration.ZERO, ResponseCachePolicy.freshnessLifetime(200,
+			headers(HttpHeaders.CACHE_CONTROL, "no-store"), DEFAULT_TTL));
+		assertEquals(Duration.ZERO, ResponseCachePolicy.freshnessLifetime(200,
+			headers(HttpHeaders.VARY, "*"), DEFAULT_TTL));
+		assertEquals(Duration.ZERO, ResponseCachePolicy.freshnessLifetime(200,
+			headers(HttpHeaders.SET_COOKIE, "a=b"), DEFAULT_TTL));
+		assertEquals(Duration.ZERO, ResponseCachePolicy.freshnessLifetime(500, new HttpHeaders(), DEFAULT_TTL));
+	}
+
+	@Test
+	@DisplayName("Vary 헤더 이름은 소문자로 정렬")
+	void varyHeadersTest() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.VARY, "Accept-Language, Accept");
+		headers.add(HttpHeaders.VARY, "accept");
+
+		assertEquals(List.of("accept", "accept-language"), ResponseCachePolicy.varyHeaders(headers));
+	}
+
+	@Test
+	@DisplayName("경로 접두사는 세그먼트 경계에서만 일치")
+	void matchesPathPrefixTest() {
+		assertTrue(ResponseCachePolicy.matchesPathPrefix("/api/books", "/api/books"));
+		assertTrue(ResponseCachePolicy.matchesPathPrefix("/api/books/1", "/api/books"));
+		assertTrue(ResponseCachePolicy.matchesPathPrefix("/api/books?page=1", "/api/books"));
+		assertTrue(ResponseCachePolicy.matchesPathPrefix("/api/books\naccept=en", "/api/books"));
+		assertFalse(ResponseCachePolicy.matchesPathPrefix("/api/books-tags", "/api/books"));
+		assertFalse(ResponseCachePolicy.matchesPathPrefix("/api/book", "/api/books"));
+	}
+}
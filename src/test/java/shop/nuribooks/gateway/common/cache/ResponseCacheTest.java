@@ -0,0 +1,124 @@
+package shop.nuribooks.gateway.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResponseCacheTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ResponseCache responseCache = new ResponseCache(meterRegistry,
+		new ResponseCompressor(new ServerProperties()), true, DataSize.ofKilobytes(64),
+		DataSize.ofKilobytes(1), Duration.ofSeconds(30));
+
+	private static byte[] body(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	@DisplayName("저장한 응답은 같은 경로와 쿼리로 조회되고 제외 헤더는 저장하지 않음")
+	void putAndGetTest() {
+		// given
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.CONTENT_TYPE, "application/json");
+		headers.add(HttpHeaders.TRANSFER_ENCODING, "chunked");
+		headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "http://localhost:3000");
+
+		// when
+		responseCache.put(MockServerHttpRequest.get("/api/books?page=1").build(), 200, headers, body("[]"), null);
+
+		// then
+		CachedResponse cached = responseCache.get(MockServerHttpRequest.get("/api/books?page=1").build());
+		assertNotNull(cached);
+		assertArrayEquals(body("[]"), cached.body());
+		assertEquals("application/json", cached.headers().getFirst(HttpHeaders.CONTENT_TYPE));
+		assertFalse(cached.headers().containsKey(HttpHeaders.TRANSFER_ENCODING));
+		assertFalse(cached.headers().containsKey(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+		assertNull(responseCache.get(MockServerHttpRequest.get("/api/books?page=2").build()));
+		assertEquals(0.5, meterRegistry.get("cache.hit.ratio").gauge().value());
+	}
+
+	@Test
+	@DisplayName("Vary 헤더가 있으면 요청 헤더 값별로 따로 저장")
+	void varyTest() {
+		// given
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.VARY, "Accept-Language");
+
+		// when
+		responseCache.put(MockServerHttpRequest.get("/api/books").header(HttpHeaders.ACCEPT_LANGUAGE, "ko").build(),
+			200, headers, body("ko"), null);
+		responseCache.put(MockServerHttpRequest.get("/api/books").header(HttpHeaders.ACCEPT_LANGUAGE, "en").build(),
+			200, headers, body("en"), null);
+
+		// then
+		assertArrayEquals(body("ko"), responseCache.get(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.ACCEPT_LANGUAGE, "ko").build()).body());
+		assertArrayEquals(body("en"), responseCache.get(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.ACCEPT_LANGUAGE, "en").build()).body());
+		assertNull(responseCache.get(MockServerHttpRequest.get("/api/books").build()));
+	}
+
+	@Test
+	@DisplayName("저장할 수 없거나 항목 한도를 넘는 응답은 저장하지 않음")
+	void notStoredTest() {
+		// given
+		HttpHeaders noStore = new HttpHeaders();
+		noStore.add(HttpHeaders.CACHE_CONTROL, "no-store");
+
+		// when
+		CachedResponse notCacheable = responseCache.put(MockServerHttpRequest.get("/api/books/1").build(), 200,
+			noStore, body("{}"), null);
+		CachedResponse tooLarge = responseCache.put(MockServerHttpRequest.get("/api/books/2").build(), 200,
+			new HttpHeaders(), new byte[2048], null);
+
+		// then
+		assertNull(notCacheable);
+		assertNull(tooLarge);
+		assertNull(responseCache.get(MockServerHttpRequest.get("/api/books/1").build()));
+		assertNull(responseCache.get(MockServerHttpRequest.get("/api/books/2").build()));
+	}
+
+	@Test
+	@DisplayName("수명이 지나도 stale 기간 안이면 stale 조회로만 조회됨")
+	void staleTest() throws InterruptedException {
+		// given
+		responseCache.put(MockServerHttpRequest.get("/api/categories").build(), 200, new HttpHeaders(), body("[]"),
+			Duration.ofMillis(1), Duration.ofHours(1));
+
+		// when
+		Thread.sleep(20);
+
+		// then
+		assertNull(responseCache.get(MockServerHttpRequest.get("/api/categories").build()));
+		CachedResponse stale = responseCache.getIncludingStale(MockServerHttpRequest.get("/api/categories").build());
+		assertNotNull(stale);
+		assertFalse(stale.isFreshAt(Instant.now()));
+	}
+
+	@Test
+	@DisplayName("수명이 지난 응답은 조회되지 않음")
+	void expiredTest() {
+		// given
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.CACHE_CONTROL, "max-age=0");
+
+		// when
+		responseCache.put(MockServerHttpRequest.get("/api/books").build(), 200, headers, body("[]"),
+			Duration.ofSeconds(30));
+
+		// then
+		assertNull(responseCache.get(MockServerHttpRequest.get("/api/books").build()));
+	}
+}
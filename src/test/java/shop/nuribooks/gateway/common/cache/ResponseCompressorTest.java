@@ -0,0 +1,94 @@
+package shop.nuribooks.gateway.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+class ResponseCompressorTest {
+
+	private static final byte[] JSON = ("[" + "{\"title\":\"book\"},".repeat(200) + "{}]")
+		.getBytes(StandardCharsets.UTF_8);
+
+	private static ResponseCompressor compressor(boolean enabled) {
+		ServerProperties serverProperties = new ServerProperties();
+		serverProperties.getCompression().setEnabled(enabled);
+		serverProperties.getCompression().setMinResponseSize(DataSize.ofKilobytes(1));
+		return new ResponseCompressor(serverProperties);
+	}
+
+	private static HttpHeaders headers(MediaType contentType) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(contentType);
+		return headers;
+	}
+
+	@Test
+	@DisplayName("gzip 을 허용한 요청의 최소 크기 이상, 허용된 MIME 타입 응답만 서버가 압축")
+	void willCompressTest() {
+		// given
+		ResponseCompressor compressor = compressor(true);
+		HttpHeaders request = new HttpHeaders();
+		request.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		HttpHeaders response = headers(MediaType.APPLICATION_JSON);
+		response.setContentLength(JSON.length);
+		HttpHeaders small = headers(MediaType.APPLICATION_JSON);
+		small.setContentLength(10);
+
+		// when & then
+		assertTrue(compressor.willCompress(request, response));
+		assertFalse(compressor.willCompress(new HttpHeaders(), response));
+		assertFalse(compressor.willCompress(request, small));
+		assertFalse(compressor(false).willCompress(request, response));
+	}
+
+	@Test
+	@DisplayName("최소 크기 이상의 허용된 MIME 타입 본문만 압축")
+	void gzipTest() {
+		// given
+		ResponseCompressor compressor = compressor(true);
+
+		// when & then
+		byte[] compressed = compressor.gzip(headers(MediaType.APPLICATION_JSON), JSON);
+		assertNotNull(compressed);
+		assertTrue(compressed.length < JSON.length);
+		assertNull(compressor.gzip(headers(MediaType.APPLICATION_JSON), "[]".getBytes(StandardCharsets.UTF_8)));
+		assertNull(compressor.gzip(headers(MediaType.IMAGE_PNG), JSON));
+		assertNull(compressor.gzip(new HttpHeaders(), JSON));
+	}
+
+	@Test
+	@DisplayName("이미 인코딩된 본문이나 압축을 끈 경우 압축하지 않음")
+	void skipTest() {
+		// given
+		HttpHeaders encoded = headers(MediaType.APPLICATION_JSON);
+		encoded.set(HttpHeaders.CONTENT_ENCODING, "br");
+
+		// when & then
+		assertNull(compressor(true).gzip(encoded, JSON));
+		assertNull(compressor(false).gzip(headers(MediaType.APPLICATION_JSON), JSON));
+	}
+
+	@Test
+	@DisplayName("Accept-Encoding 의 gzip 허용 여부 확인")
+	void acceptsGzipTest() {
+		// when & then
+		assertTrue(ResponseCompressor.acceptsGzip(acceptEncoding("gzip, deflate, br")));
+		assertTrue(ResponseCompressor.acceptsGzip(acceptEncoding("br;q=1.0, GZIP;q=0.5")));
+		assertFalse(ResponseCompressor.acceptsGzip(acceptEncoding("gzip;q=0, br")));
+		assertFalse(ResponseCompressor.acceptsGzip(acceptEncoding("identity")));
+		assertFalse(ResponseCompressor.acceptsGzip(new HttpHeaders()));
+	}
+
+	private static HttpHeaders acceptEncoding(String value) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.ACCEPT_ENCODING, value);
+		return headers;
+	}
+}
@@ -0,0 +1,102 @@
+package shop.nuribooks.gateway.common.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import shop.nuribooks.gateway.common.util.JwtUtils;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+	private static final String TOKEN = "valid.jwt.token";
+
+	@Mock
+	private JwtUtils jwtUtils;
+
+	private MeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	@DisplayName("캐시 적중 시 서명 검증을 다시 하지 않음")
+	void cacheHitSkipsVerificationTest() {
+		// given
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtils, meterRegistry, true, 100);
+		VerifiedClaims claims = new VerifiedClaims("user123", "ROLE_USER", Instant.now().plusSeconds(60));
+		when(jwtUtils.verify(TOKEN)).thenReturn(claims);
+
+		// when
+		VerifiedClaims first = cache.getOrVerify(TOKEN);
+		VerifiedClaims second = cache.getOrVerify(TOKEN);
+
+		// then
+		assertEquals(claims, first);
+		assertEquals(claims, second);
+		verify(jwtUtils, times(1)).verify(TOKEN);
+		assertEquals(1.0, meterRegistry.get("cache.gets")
+			.tag("cache", VerifiedTokenCache.CACHE_NAME)
+			.tag("result", "hit")
+			.functionCounter()
+			.count());
+	}
+
+	@Test
+	@DisplayName("만료된 토큰은 캐시하지 않고 원본 검증 예외를 그대로 전달")
+	void expiredTokenIsNotCachedTest() {
+		// given
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtils, meterRegistry, true, 100);
+		when(jwtUtils.verify(TOKEN)).thenThrow(ExpiredJwtException.class);
+
+		// when & then
+		assertThrows(ExpiredJwtException.class, () -> cache.getOrVerify(TOKEN));
+		assertThrows(ExpiredJwtException.class, () -> cache.getOrVerify(TOKEN));
+		verify(jwtUtils, times(2)).verify(TOKEN);
+	}
+
+	@Test
+	@DisplayName("만료 클레임이 없는 토큰은 캐시하지 않음")
+	void tokenWithoutExpirationIsNotCachedTest() {
+		// given
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtils, meterRegistry, true, 100);
+		when(jwtUtils.verify(TOKEN)).thenReturn(new VerifiedClaims("user123", "ROLE_USER", null));
+
+		// when
+		cache.getOrVerify(TOKEN);
+		cache.getOrVerify(TOKEN);
+
+		// then
+		verify(jwtUtils, times(2)).verify(TOKEN);
+	}
+
+	@Test
+	@DisplayName("캐시 비활성화 시 매번 검증")
+	void disabledCacheAlwaysVerifiesTest() {
+		// given
+		VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtils, meterRegistry, false, 100);
+		when(jwtUtils.verify(TOKEN)).thenReturn(
+			new VerifiedClaims("user123", "ROLE_USER", Instant.now().plusSeconds(60)));
+
+		// when
+		cache.getOrVerify(TOKEN);
+		cache.getOrVerify(TOKEN);
+
+		// then
+		verify(jwtUtils, times(2)).verify(TOKEN);
+	}
+}
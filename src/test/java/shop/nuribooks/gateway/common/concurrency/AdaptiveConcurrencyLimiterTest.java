@@ -0,0 +1,156 @@
+package shop.nuribooks.gateway.common.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import reactor.test.StepVerifier;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long BASE_RTT = Duration.ofMillis(10).toNanos();
+
+	@Test
+	@DisplayName("한도까지만 자리를 확보")
+	void tryAcquireTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0);
+
+		// when & then
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		limiter.release(BASE_RTT, false);
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	@DisplayName("한도를 채워 쓰는 동안 RTT 가 안정적이면 한도 증가")
+	void increaseLimitTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0);
+
+		// when
+		for (int i = 0; i < 100; i++) {
+			while (limiter.tryAcquire()) {
+				// 한도까지 채움
+			}
+			limiter.release(BASE_RTT, false);
+			limiter.release(BASE_RTT, false);
+		}
+
+		// then
+		assertTrue(limiter.getLimit() > 10, "limit: " + limiter.getLimit());
+	}
+
+	@Test
+	@DisplayName("한도를 절반도 쓰지 않으면 한도를 늘리지 않음")
+	void appLimitedTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0);
+
+		// when
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire();
+			limiter.release(BASE_RTT, false);
+		}
+
+		// then
+		assertEquals(10, limiter.getLimit());
+	}
+
+	@Test
+	@DisplayName("RTT 가 기준값보다 크게 늘면 한도 감소")
+	void decreaseOnLatencyTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 0);
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire();
+			limiter.release(BASE_RTT, false);
+		}
+
+		// when
+		for (int i = 0; i < 20; i++) {
+			limiter.tryAcquire();
+			limiter.release(BASE_RTT * 10, false);
+		}
+
+		// then
+		assertTrue(limiter.getLimit() < 25, "limit: " + limiter.getLimit());
+	}
+
+	@Test
+	@DisplayName("실패한 요청은 한도를 곱으로 줄이고 최소 한도에서 멈춤")
+	void backoffTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 100, 0);
+
+		// when
+		limiter.tryAcquire();
+		limiter.release(BASE_RTT, true);
+		int afterOneFailure = limiter.getLimit();
+		for (int i = 0; i < 50; i++) {
+			limiter.tryAcquire();
+			limiter.release(BASE_RTT, true);
+		}
+
+		// then
+		assertEquals(18, afterOneFailure);
+		assertEquals(5, limiter.getLimit());
+	}
+
+	@Test
+	@DisplayName("한도에 이른 요청은 대기하다 자리가 나면 이어서 실행")
+	void queueHandOffTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1);
+		limiter.tryAcquire();
+
+		// when & then
+		StepVerifier.create(limiter.acquire(Duration.ofSeconds(1)))
+			.then(() -> limiter.release(BASE_RTT, false))
+			.expectNext(true)
+			.verifyComplete();
+		assertEquals(1, limiter.getInFlight());
+		assertEquals(0, limiter.getQueued());
+	}
+
+	@Test
+	@DisplayName("자리를 넘겨받은 뒤 가져가기 전에 취소되면 자리를 반납")
+	void cancelAfterHandOffTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1);
+		limiter.tryAcquire();
+
+		// when
+		StepVerifier.create(limiter.acquire(Duration.ofSeconds(1)), 0)
+			.then(() -> limiter.release(BASE_RTT, false))
+			.thenCancel()
+			.verify();
+
+		// then
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(0, limiter.getQueued());
+	}
+
+	@Test
+	@DisplayName("대기 시간이 지나거나 대기열이 가득 차면 거절")
+	void queueRejectTest() {
+		// given
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1);
+		limiter.tryAcquire();
+
+		// when & then
+		StepVerifier.create(limiter.acquire(Duration.ofMillis(200)))
+			.then(() -> StepVerifier.create(limiter.acquire(Duration.ofMillis(200)))
+				.expectNext(false)
+				.verifyComplete())
+			.expectNext(false)
+			.verifyComplete();
+		assertEquals(1, limiter.getInFlight());
+		assertEquals(0, limiter.getQueued());
+	}
+}
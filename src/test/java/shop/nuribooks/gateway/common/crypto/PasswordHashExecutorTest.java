@@ -0,0 +1,108 @@
+package shop.nuribooks.gateway.common.crypto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.test.StepVerifier;
+
+class PasswordHashExecutorTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private PasswordHashExecutor passwordHashExecutor;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		passwordHashExecutor.destroy();
+	}
+
+	@Test
+	@DisplayName("해시 작업은 전용 스레드에서 실행")
+	void submitRunsOnDedicatedThreadTest() {
+		// given
+		passwordHashExecutor = new PasswordHashExecutor(meterRegistry, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2));
+
+		// when & then
+		StepVerifier.create(passwordHashExecutor.submit(() -> Thread.currentThread().getName()))
+			.assertNext(threadName -> assertTrue(threadName.startsWith("password-hash-")))
+			.verifyComplete();
+		assertEquals(1L, meterRegistry.get(PasswordHashExecutor.METRIC_NAME + ".duration").timer().count());
+	}
+
+	@Test
+	@DisplayName("대기열이 가득 차면 Retry-After 와 함께 거절")
+	void submitRejectedWhenQueueFullTest() {
+		// given
+		passwordHashExecutor = new PasswordHashExecutor(meterRegistry, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(2));
+		// 실행 스레드와 대기열을 모두 점유
+		StepVerifier running = awaitingRelease();
+		StepVerifier queued = awaitingRelease();
+
+		// when & then
+		StepVerifier.create(passwordHashExecutor.submit(() -> "hash"))
+			.expectErrorSatisfies(e -> {
+				assertInstanceOf(PasswordHashRejectedException.class, e);
+				assertEquals(Duration.ofSeconds(2), ((PasswordHashRejectedException)e).getRetryAfter());
+			})
+			.verify();
+		assertEquals(1.0, meterRegistry.get(PasswordHashExecutor.METRIC_NAME + ".rejected").counter().count());
+
+		release.countDown();
+		running.verify(Duration.ofSeconds(5));
+		queued.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	@DisplayName("제한 시간을 넘기면 Retry-After 와 함께 거절")
+	void submitTimeoutTest() {
+		// given
+		passwordHashExecutor = new PasswordHashExecutor(meterRegistry, 1, 1, Duration.ofMillis(50), Duration.ofSeconds(2));
+
+		// when & then
+		StepVerifier.create(passwordHashExecutor.submit(this::awaitReleaseUninterruptibly))
+			.expectErrorSatisfies(e -> {
+				assertInstanceOf(PasswordHashRejectedException.class, e);
+				assertEquals(Duration.ofSeconds(2), ((PasswordHashRejectedException)e).getRetryAfter());
+			})
+			.verify();
+		assertEquals(1.0, meterRegistry.get(PasswordHashExecutor.METRIC_NAME + ".timeout").counter().count());
+	}
+
+	private StepVerifier awaitingRelease() {
+		return StepVerifier.create(passwordHashExecutor.submit(this::awaitRelease))
+			.expectNext("hash")
+			.expectComplete()
+			.verifyLater();
+	}
+
+	private String awaitRelease() throws InterruptedException {
+		release.await();
+		return "hash";
+	}
+
+	// BCrypt 처럼 시간 초과로 취소되어도 인터럽트에 반응하지 않고 끝까지 실행되는 작업
+	private String awaitReleaseUninterruptibly() {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				release.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return "hash";
+	}
+}
@@ -0,0 +1,102 @@
+package shop.nuribooks.gateway.common.crypto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PasswordHashingServiceTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private PasswordHashExecutor passwordHashExecutor;
+
+	@BeforeEach
+	void setUp() {
+		passwordHashExecutor = new PasswordHashExecutor(meterRegistry, 1, 8, Duration.ofSeconds(5), Duration.ofSeconds(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		passwordHashExecutor.destroy();
+	}
+
+	@Test
+	@DisplayName("설정된 cost 로 비밀번호를 해시화")
+	void encodeWithConfiguredStrengthTest() {
+		// given
+		PasswordHashingService service = new PasswordHashingService(passwordHashExecutor, meterRegistry, 5, 4,
+			Duration.ofSeconds(1));
+
+		// when & then
+		StepVerifier.create(service.encode("plainPassword123"))
+			.assertNext(hashed -> {
+				assertTrue(hashed.startsWith("$2a$05$"));
+				assertTrue(new BCryptPasswordEncoder().matches("plainPassword123", hashed));
+			})
+			.verifyComplete();
+		assertEquals(1L, meterRegistry.get(PasswordHashExecutor.METRIC_NAME + ".latency").timer().count());
+		assertEquals(0.0, meterRegistry.get(PasswordHashExecutor.METRIC_NAME + ".in-flight").gauge().value());
+	}
+
+	@Test
+	@DisplayName("동시 처리 한도를 넘으면 대기하지 않고 즉시 거절")
+	void encodeShedWhenLimitExceededTest() {
+		// given
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordHashingService service = new PasswordHashingService(passwordHashExecutor, meterRegistry, 4, 1,
+			Duration.ofSeconds(2));
+
+		// 실행 스레드를 점유하여 첫 번째 해시가 끝나지 않도록 한다
+		StepVerifier occupied = StepVerifier.create(passwordHashExecutor.submit(() -> {
+				release.await();
+				return "";
+			}))
+			.expectNext("")
+			.expectComplete()
+			.verifyLater();
+		StepVerifier first = StepVerifier.create(service.encode("first"))
+			.expectNextCount(1)
+			.expectComplete()
+			.verifyLater();
+
+		// when & then
+		StepVerifier.create(service.encode("second"))
+			.expectErrorSatisfies(e -> {
+				assertInstanceOf(PasswordHashRejectedException.class, e);
+				assertEquals(Duration.ofSeconds(2), ((PasswordHashRejectedException)e).getRetryAfter());
+			})
+			.verify();
+		assertEquals(1.0, meterRegistry.get(PasswordHashExecutor.METRIC_NAME + ".shed").counter().count());
+
+		release.countDown();
+		occupied.verify(Duration.ofSeconds(5));
+		first.verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	@DisplayName("작업이 끝나면 허가를 반환하여 다음 요청을 처리")
+	void encodeReleasesPermitTest() {
+		// given
+		PasswordHashingService service = new PasswordHashingService(passwordHashExecutor, meterRegistry, 4, 1,
+			Duration.ofSeconds(1));
+
+		// when & then
+		StepVerifier.create(service.encode("first").then(service.encode("second")))
+			.assertNext(hashed -> assertTrue(hashed.startsWith("$2a$04$")))
+			.verifyComplete();
+		StepVerifier.create(Mono.defer(() -> service.encode("third")))
+			.expectNextCount(1)
+			.verifyComplete();
+	}
+}
@@ -0,0 +1,73 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class AdaptiveConcurrencyFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final GatewayFilter filter = new AdaptiveConcurrencyFilter(meterRegistry)
+		.apply(new AdaptiveConcurrencyFilter.Config()
+			.setName("books_route")
+			.setInitialLimit(1)
+			.setMinLimit(1)
+			.setMaxQueueTime(Duration.ZERO));
+
+	private static MockServerWebExchange exchange() {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/api/books"));
+	}
+
+	@Test
+	@DisplayName("한도를 넘는 요청은 upstream 을 호출하지 않고 503")
+	void rejectOverLimitTest() {
+		// given
+		Sinks.Empty<Void> upstream = Sinks.empty();
+		MockServerWebExchange first = exchange();
+		MockServerWebExchange second = exchange();
+
+		// when & then
+		StepVerifier.create(filter.filter(first, exchange -> upstream.asMono()))
+			.then(() -> {
+				StepVerifier.create(filter.filter(second, exchange -> Mono.error(new AssertionError("호출되면 안 됨"))))
+					.verifyComplete();
+				upstream.tryEmitEmpty();
+			})
+			.verifyComplete();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, second.getResponse().getStatusCode());
+		assertEquals("1", second.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(1.0, meterRegistry.get(AdaptiveConcurrencyFilter.METRIC_NAME + ".rejected")
+			.tag("route", "books_route").counter().count());
+	}
+
+	@Test
+	@DisplayName("요청이 끝나면 자리를 반납")
+	void releaseTest() {
+		// given
+		MockServerWebExchange first = exchange();
+		MockServerWebExchange second = exchange();
+
+		// when
+		filter.filter(first, exchange -> Mono.empty()).block();
+		filter.filter(second, exchange -> Mono.empty()).block();
+
+		// then
+		assertNull(second.getResponse().getStatusCode());
+		assertEquals(0.0, meterRegistry.get(AdaptiveConcurrencyFilter.METRIC_NAME + ".in-flight")
+			.tag("route", "books_route").gauge().value());
+	}
+}
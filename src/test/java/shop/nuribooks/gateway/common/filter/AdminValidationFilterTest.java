@@ -3,6 +3,8 @@ package shop.nuribooks.gateway.common.filter;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Instant;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,27 +15,19 @@ import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.server.ServerWebExchange;
 
-import io.jsonwebtoken.ExpiredJwtException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
-import shop.nuribooks.gateway.common.util.JwtUtils;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
 
 @ExtendWith(MockitoExtension.class)
 class AdminValidationFilterTest {
 
-	@Mock
-	private JwtUtils jwtUtils;
-
 	@Mock
 	private ServerWebExchange exchange;
 
-	@Mock
-	private ServerHttpRequest request;
-
 	@Mock
 	private ServerHttpResponse response;
 
@@ -47,16 +41,10 @@ class AdminValidationFilterTest {
 	@DisplayName("ADMIN 권한 검증 필터 테스트 - 검증 성공")
 	void adminRoleWithValidTokenTest() {
 		// given
-		String accessToken = "valid.jwt.token";
-
-		HttpHeaders headers = new HttpHeaders();
-		headers.set(HttpHeaders.AUTHORIZATION, accessToken);
+		VerifiedClaims claims = new VerifiedClaims("admin", AdminValidationFilter.ROLE_ADMIN,
+			Instant.now().plusSeconds(60));
 
-		when(exchange.getRequest()).thenReturn(request);
-		when(exchange.getRequest().getHeaders()).thenReturn(headers);
-
-		doNothing().when(jwtUtils).validateToken(accessToken);
-		when(jwtUtils.getRole(accessToken)).thenReturn(AdminValidationFilter.ROLE_ADMIN);
+		when(exchange.getAttribute(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR)).thenReturn(claims);
 		when(chain.filter(exchange)).thenReturn(Mono.empty());
 
 		AdminValidationFilter.Config config = new AdminValidationFilter.Config();
@@ -79,8 +67,7 @@ class AdminValidationFilterTest {
 		DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
 		AdminValidationFilter.Config config = new AdminValidationFilter.Config();
 
-		when(exchange.getRequest()).thenReturn(request);
-		when(exchange.getRequest().getHeaders()).thenReturn(headers);
+		when(exchange.getAttribute(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR)).thenReturn(null);
 		when(exchange.getResponse()).thenReturn(response);
 		when(exchange.getResponse().getHeaders()).thenReturn(headers);
 		when(response.bufferFactory()).thenReturn(bufferFactory);
@@ -95,24 +82,18 @@ class AdminValidationFilterTest {
 			.verifyComplete();
 
 		verify(exchange, times(5)).getResponse();
+		verify(chain, never()).filter(any());
 	}
 
 	@Test
 	@DisplayName("ADMIN 권한 검증 필터 테스트 - ROLE_ADMIN 값없음")
 	void adminRoleWithInValidNotExistAdminTokenTest() {
 		// given
-		String accessToken = "valid.jwt.token";
-
 		HttpHeaders headers = new HttpHeaders();
 		DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
-		headers.set(HttpHeaders.AUTHORIZATION, accessToken);
-
-		when(exchange.getRequest()).thenReturn(request);
-		when(exchange.getRequest().getHeaders()).thenReturn(headers);
-
-		doNothing().when(jwtUtils).validateToken(accessToken);
-		when(jwtUtils.getRole(accessToken)).thenReturn("ROLE_MEMBER");
+		VerifiedClaims claims = new VerifiedClaims("member", "ROLE_MEMBER", Instant.now().plusSeconds(60));
 
+		when(exchange.getAttribute(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR)).thenReturn(claims);
 		when(exchange.getResponse()).thenReturn(response);
 		when(exchange.getResponse().getHeaders()).thenReturn(headers);
 		when(response.bufferFactory()).thenReturn(bufferFactory);
@@ -129,23 +110,18 @@ class AdminValidationFilterTest {
 			.verifyComplete();
 
 		verify(exchange, times(5)).getResponse();
+		verify(chain, never()).filter(any());
 	}
 
 	@Test
-	@DisplayName("ADMIN 권한 검증 필터 테스트 - 토큰 말료")
+	@DisplayName("ADMIN 권한 검증 필터 테스트 - 토큰 만료로 전역 필터의 검증 결과가 없음")
 	void adminRoleWithInValidExpiredTokenTest() {
 		// given
-		String accessToken = "valid.jwt.token";
-
 		HttpHeaders headers = new HttpHeaders();
 		DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
-		headers.set(HttpHeaders.AUTHORIZATION, accessToken);
-
-		when(exchange.getRequest()).thenReturn(request);
-		when(exchange.getRequest().getHeaders()).thenReturn(headers);
-
-		doThrow(ExpiredJwtException.class).when(jwtUtils).validateToken(accessToken);
 
+		// 만료된 토큰은 GlobalTokenValidationFilter 에서 검증 결과를 남기지 않는다
+		when(exchange.getAttribute(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR)).thenReturn(null);
 		when(exchange.getResponse()).thenReturn(response);
 		when(exchange.getResponse().getHeaders()).thenReturn(headers);
 		when(response.bufferFactory()).thenReturn(bufferFactory);
@@ -163,4 +139,4 @@ class AdminValidationFilterTest {
 
 		verify(exchange, times(5)).getResponse();
 	}
-}
\ No newline at end of file
+}
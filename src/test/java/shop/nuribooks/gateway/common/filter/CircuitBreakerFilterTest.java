@@ -0,0 +1,113 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CircuitBreakerFilterTest {
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+		.slidingWindowSize(4)
+		.minimumNumberOfCalls(4)
+		.failureRateThreshold(50)
+		.waitDurationInOpenState(Duration.ofSeconds(5))
+		.build());
+	private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+		.maxConcurrentCalls(1)
+		.maxWaitDuration(Duration.ZERO)
+		.build());
+	private final GatewayFilter filter = new CircuitBreakerFilter(circuitBreakerRegistry, bulkheadRegistry)
+		.apply(new CircuitBreakerFilter.Config().setName("auth"));
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private static MockServerWebExchange exchange() {
+		return MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login"));
+	}
+
+	private GatewayFilterChain upstream(HttpStatus status) {
+		return exchange -> {
+			upstreamCalls.incrementAndGet();
+			exchange.getResponse().setStatusCode(status);
+			return Mono.empty();
+		};
+	}
+
+	@Test
+	@DisplayName("5xx 응답이 실패율을 넘으면 circuit 이 열려 upstream 을 호출하지 않고 503")
+	void openOnFailuresTest() {
+		// given
+		for (int i = 0; i < 4; i++) {
+			filter.filter(exchange(), upstream(HttpStatus.BAD_GATEWAY)).block();
+		}
+		MockServerWebExchange exchange = exchange();
+
+		// when
+		StepVerifier.create(filter.filter(exchange, upstream(HttpStatus.OK)))
+			.verifyComplete();
+
+		// then
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("auth").getState());
+		assertEquals(4, upstreamCalls.get());
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+		assertEquals("5", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	@DisplayName("에러와 4xx 는 각각 실패와 성공으로 기록")
+	void recordOutcomeTest() {
+		// given
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("auth");
+
+		// when
+		filter.filter(exchange(), upstream(HttpStatus.UNAUTHORIZED)).block();
+		StepVerifier.create(filter.filter(exchange(), exchange -> Mono.error(new IllegalStateException("timeout"))))
+			.expectError(IllegalStateException.class)
+			.verify();
+
+		// then
+		assertEquals(1, circuitBreaker.getMetrics().getNumberOfSuccessfulCalls());
+		assertEquals(1, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+	}
+
+	@Test
+	@DisplayName("동시 호출 한도를 넘으면 기다리지 않고 503, 끝나면 자리를 반납")
+	void bulkheadTest() {
+		// given
+		Sinks.Empty<Void> pending = Sinks.empty();
+		MockServerWebExchange rejected = exchange();
+		MockServerWebExchange afterRelease = exchange();
+
+		// when & then
+		StepVerifier.create(filter.filter(exchange(), exchange -> pending.asMono()))
+			.then(() -> {
+				filter.filter(rejected, upstream(HttpStatus.OK)).block();
+				pending.tryEmitEmpty();
+			})
+			.verifyComplete();
+		filter.filter(afterRelease, upstream(HttpStatus.OK)).block();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getResponse().getStatusCode());
+		assertEquals(HttpStatus.OK, afterRelease.getResponse().getStatusCode());
+		assertEquals(1, bulkheadRegistry.bulkhead("auth").getMetrics().getAvailableConcurrentCalls());
+	}
+}
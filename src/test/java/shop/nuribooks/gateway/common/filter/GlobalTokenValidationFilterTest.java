@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.net.URI;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,12 +25,13 @@ import org.springframework.web.server.ServerWebExchange;
 import io.jsonwebtoken.ExpiredJwtException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
-import shop.nuribooks.gateway.common.util.JwtUtils;
+import shop.nuribooks.gateway.common.cache.VerifiedTokenCache;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
 
 @ExtendWith(MockitoExtension.class)
 class GlobalTokenValidationFilterTest {
 	@Mock
-	private JwtUtils jwtUtils;
+	private VerifiedTokenCache verifiedTokenCache;
 
 	@Mock
 	private ServerWebExchange exchange;
@@ -49,6 +53,7 @@ class GlobalTokenValidationFilterTest {
 	void validTokenTest() {
 		// given
 		String accessToken = "valid.jwt.token";
+		Map<String, Object> attributes = new HashMap<>();
 
 		HttpHeaders headers = new HttpHeaders();
 		headers.set(HttpHeaders.AUTHORIZATION, accessToken);
@@ -57,14 +62,14 @@ class GlobalTokenValidationFilterTest {
 		when(exchange.getRequest().getHeaders()).thenReturn(headers);
 		when(request.getURI()).thenReturn(URI.create("http://localhost:8080/api/book"));
 
-		doNothing().when(jwtUtils).validateToken(accessToken);
-		when(jwtUtils.getUserId(accessToken)).thenReturn("user123");
-		when(jwtUtils.getRole(accessToken)).thenReturn("ROLE_USER");
+		when(verifiedTokenCache.getOrVerify(accessToken)).thenReturn(
+			new VerifiedClaims("user123", "ROLE_USER", Instant.now().plusSeconds(60)));
 
 		ServerWebExchange.Builder exchangeBuilder = mock(ServerWebExchange.Builder.class);
 		when(exchange.mutate()).thenReturn(exchangeBuilder);
 		when(exchangeBuilder.request(any(ServerHttpRequest.class))).thenReturn(exchangeBuilder);
 		when(exchangeBuilder.build()).thenReturn(exchange);
+		when(exchange.getAttributes()).thenReturn(attributes);
 		when(chain.filter(exchange)).thenReturn(Mono.empty());
 
 		// when
@@ -75,6 +80,11 @@ class GlobalTokenValidationFilterTest {
 			.expectSubscription()
 			.verifyComplete();
 
+		VerifiedClaims published = (VerifiedClaims)attributes.get(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR);
+		assertNotNull(published);
+		assertEquals("user123", published.userId());
+		assertEquals("ROLE_USER", published.role());
+
 	}
 
 	@Test
@@ -140,7 +150,7 @@ class GlobalTokenValidationFilterTest {
 		when(response.bufferFactory()).thenReturn(bufferFactory);
 		when(response.writeWith(any())).thenReturn(Mono.empty());
 
-		when(jwtUtils.getRole(accessToken)).thenThrow(ExpiredJwtException.class);
+		when(verifiedTokenCache.getOrVerify(accessToken)).thenThrow(ExpiredJwtException.class);
 
 		// when
 		Mono<Void> result = globalTokenValidationFilter.filter(exchange, chain);
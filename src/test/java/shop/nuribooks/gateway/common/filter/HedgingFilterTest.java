@@ -0,0 +1,334 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.RetryableRequestContext;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.hedge.HedgeBudget;
+import shop.nuribooks.gateway.common.loadbalancer.InstanceStatsLifecycle;
+import shop.nuribooks.gateway.common.loadbalancer.InstanceStatsRegistry;
+import shop.nuribooks.gateway.common.loadbalancer.OutlierDetector;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HedgingFilterTest {
+
+	private final ServiceInstance primary = new DefaultServiceInstance("books-1", "books", "books-1", 8080, false);
+	private final ServiceInstance secondary = new DefaultServiceInstance("books-2", "books", "books-2", 8080, false);
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InstanceStatsRegistry statsRegistry = new InstanceStatsRegistry(Duration.ofSeconds(10), Duration.ofMillis(50));
+	private final InstanceStatsLifecycle lifecycle = new InstanceStatsLifecycle(statsRegistry,
+		new OutlierDetector(new SimpleMeterRegistry(), 5, Duration.ofSeconds(3), Duration.ofSeconds(30),
+			Duration.ofMinutes(5), 50), Duration.ofSeconds(1));
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+	private final Map<String, Duration> upstreamDelays = new HashMap<>();
+	private final Set<String> failingHosts = new HashSet<>();
+	private final Map<String, Mono<ClientResponse>> upstreamResponses = new HashMap<>();
+
+	@Mock
+	private ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory;
+
+	@Mock
+	private ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+	@Mock
+	private PooledNettyRoutingFilter routingFilter;
+
+	@Mock
+	private GatewayFilterChain chain;
+
+	@BeforeEach
+	void setUp() {
+		// 첫 요청은 books-1, hedge 요청은 첫 요청과 다른 인스턴스
+		ReactiveLoadBalancer<ServiceInstance> loadBalancer = request -> Mono.just(new DefaultResponse(
+			request.getContext() instanceof RetryableRequestContext context
+				&& primary.equals(context.getPreviousServiceInstance()) ? secondary : primary));
+		when(loadBalancerFactory.getInstance("books")).thenReturn(loadBalancer);
+		when(loadBalancerFactory.getInstances("books", LoadBalancerLifecycle.class))
+			.thenReturn(Map.of("instanceStatsLifecycle", lifecycle));
+		when(chain.filter(any())).thenReturn(Mono.empty());
+		when(routingFilter.getHttpClient(any(), any())).thenReturn(HttpClient.create());
+		when(routingFilter.getResponseTimeout(any())).thenReturn(null);
+	}
+
+	private GatewayFilter filter(HedgeBudget hedgeBudget, ExchangeStrategies strategies) {
+		WebClient.Builder webClientBuilder = WebClient.builder()
+			.exchangeFunction(request -> {
+				upstreamCalls.incrementAndGet();
+				String host = request.url().getHost();
+				if (upstreamResponses.containsKey(host)) {
+					return upstreamResponses.get(host);
+				}
+				if (failingHosts.contains(host)) {
+					return Mono.delay(upstreamDelays.get(host))
+						.then(Mono.error(new IllegalStateException(host)));
+				}
+				return Mono.delay(upstreamDelays.get(host))
+					.thenReturn(ClientResponse.create(HttpStatus.OK, strategies)
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+						.body(host)
+						.build());
+			});
+		return new HedgingFilter(loadBalancerFactory, webClientBuilder, hedgeBudget,
+			headersFiltersProvider, routingFilter, meterRegistry)
+			.apply(new HedgingFilter.Config().setName("catalog_route").setMinDelay(Duration.ofMillis(20)));
+	}
+
+	private GatewayFilter filter(double budgetRatio) {
+		return filter(new HedgeBudget(budgetRatio, 100), ExchangeStrategies.withDefaults());
+	}
+
+	private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+			.id("catalog_route")
+			.uri("lb://books")
+			.predicate(e -> true)
+			.build());
+		return exchange;
+	}
+
+	private double count(String name) {
+		return meterRegistry.counter(HedgingFilter.METRIC_NAME + "." + name, "route", "catalog_route").count();
+	}
+
+	@Test
+	@DisplayName("첫 요청이 느리면 다른 인스턴스로 hedge 요청을 보내 먼저 끝난 응답을 쓰고 늦은 요청은 취소")
+	void hedgeSlowRequestTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ofSeconds(2));
+		upstreamDelays.put("books-2", Duration.ZERO);
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when
+		StepVerifier.create(filter(1.0).filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		StepVerifier.create(exchange.getResponse().getBodyAsString())
+			.expectNext("books-2")
+			.verifyComplete();
+		assertEquals(7, exchange.getResponse().getHeaders().getContentLength());
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(1, count("sent"));
+		assertEquals(1, count("won"));
+		assertEquals(0, statsRegistry.get(primary).inFlight());
+		assertEquals(0, statsRegistry.get(secondary).inFlight());
+		verify(chain, never()).filter(any());
+	}
+
+	@Test
+	@DisplayName("첫 요청이 hedge 지연 안에 끝나면 hedge 요청을 보내지 않음")
+	void noHedgeForFastRequestTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ZERO);
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when
+		StepVerifier.create(filter(1.0).filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		StepVerifier.create(exchange.getResponse().getBodyAsString())
+			.expectNext("books-1")
+			.verifyComplete();
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(0, count("sent"));
+	}
+
+	@Test
+	@DisplayName("예산이 없으면 hedge 요청 없이 첫 요청의 응답을 기다림")
+	void budgetExhaustedTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ofMillis(100));
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when
+		StepVerifier.create(filter(0).filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		StepVerifier.create(exchange.getResponse().getBodyAsString())
+			.expectNext("books-1")
+			.verifyComplete();
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(1, count("budget.exhausted"));
+	}
+
+	@Test
+	@DisplayName("라우트의 연결 풀 HttpClient 로 라우트마다 한 번 WebClient 를 만듦")
+	void routeHttpClientTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ZERO);
+		GatewayFilter filter = filter(0);
+
+		// when
+		filter.filter(exchange(MockServerHttpRequest.get("/api/books/1")), chain).block();
+		filter.filter(exchange(MockServerHttpRequest.get("/api/books/2")), chain).block();
+
+		// then
+		verify(routingFilter).getHttpClient(argThat(route -> "catalog_route".equals(route.getId())), any());
+		verify(routingFilter, times(2)).getResponseTimeout(any());
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	@DisplayName("hedge 요청 전에 첫 요청이 실패하면 hedge 지연을 기다리지 않고 그 에러를 전달")
+	void primaryErrorWithoutHedgeTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ZERO);
+		failingHosts.add("books-1");
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when & then
+		StepVerifier.create(filter(0).filter(exchange, chain))
+			.expectErrorMessage("books-1")
+			.verify(Duration.ofMillis(500));
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(0, count("budget.exhausted"));
+		assertEquals(0, statsRegistry.get(primary).inFlight());
+	}
+
+	@Test
+	@DisplayName("예산을 쓰는 사이 첫 요청이 실패하면 hedge 요청을 보내지 않고 예산을 돌려줌")
+	void refundBudgetWhenPrimaryFailedTest() {
+		// given
+		Sinks.One<ClientResponse> primaryResponse = Sinks.one();
+		upstreamResponses.put("books-1", primaryResponse.asMono());
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+		HedgeBudget hedgeBudget = spy(new HedgeBudget(1.0, 100));
+		// hedge 지연이 지나 예산을 쓴 직후, hedge 요청을 시작하기 전에 첫 요청이 실패
+		doAnswer(invocation -> {
+			Object withdrawn = invocation.callRealMethod();
+			primaryResponse.tryEmitError(new IllegalStateException("books-1"));
+			return withdrawn;
+		}).when(hedgeBudget).tryWithdraw();
+
+		// when
+		StepVerifier.create(filter(hedgeBudget, ExchangeStrategies.withDefaults()).filter(exchange, chain))
+			.expectErrorMessage("books-1")
+			.verify(Duration.ofMillis(500));
+
+		// then
+		verify(hedgeBudget, timeout(1000)).refund();
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(0, count("sent"));
+	}
+
+	@Test
+	@DisplayName("hedge 요청 중에 첫 요청이 실패하면 hedge 요청의 응답을 기다림")
+	void primaryErrorWithHedgeTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ofMillis(50));
+		upstreamDelays.put("books-2", Duration.ofMillis(100));
+		failingHosts.add("books-1");
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when
+		StepVerifier.create(filter(1.0).filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		StepVerifier.create(exchange.getResponse().getBodyAsString())
+			.expectNext("books-2")
+			.verifyComplete();
+		assertEquals(1, count("won"));
+	}
+
+	@Test
+	@DisplayName("라우트 응답 타임아웃이 지나면 504")
+	void routeResponseTimeoutTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ofSeconds(2));
+		when(routingFilter.getResponseTimeout(any())).thenReturn(Duration.ofMillis(100));
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when & then
+		StepVerifier.create(filter(0).filter(exchange, chain))
+			.expectErrorSatisfies(e -> assertEquals(HttpStatus.GATEWAY_TIMEOUT,
+				((ResponseStatusException)e).getStatusCode()))
+			.verify();
+		assertEquals(0, statsRegistry.get(primary).inFlight());
+	}
+
+	@Test
+	@DisplayName("GET 이 아닌 요청은 기본 라우팅으로 전달")
+	void skipNonGetTest() {
+		// given
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("/api/books"));
+
+		// when
+		StepVerifier.create(filter(1.0).filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		verify(chain).filter(exchange);
+		assertEquals(0, upstreamCalls.get());
+	}
+
+	@Test
+	@DisplayName("응답 본문이 한도를 넘으면 기본 라우팅으로 다시 전달")
+	void fallbackOnLargeBodyTest() {
+		// given
+		upstreamDelays.put("books-1", Duration.ZERO);
+		ExchangeStrategies strategies = ExchangeStrategies.builder()
+			.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4))
+			.build();
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/books/1"));
+
+		// when
+		StepVerifier.create(filter(new HedgeBudget(0, 100), strategies).filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		verify(chain).filter(exchange);
+		assertEquals(0, statsRegistry.get(primary).inFlight());
+	}
+}
@@ -0,0 +1,64 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import shop.nuribooks.gateway.common.loadbalancer.InstanceStatsLifecycle;
+import shop.nuribooks.gateway.common.loadbalancer.InstanceStatsRegistry;
+import shop.nuribooks.gateway.common.loadbalancer.OutlierDetector;
+
+class InFlightReleaseFilterTest {
+
+	private final InstanceStatsRegistry statsRegistry = new InstanceStatsRegistry(Duration.ofSeconds(10), Duration.ofMillis(50));
+	private final InstanceStatsLifecycle lifecycle = new InstanceStatsLifecycle(statsRegistry,
+		new OutlierDetector(new SimpleMeterRegistry(), 1, Duration.ofSeconds(3), Duration.ofSeconds(30),
+			Duration.ofMinutes(5), 100),
+		Duration.ofSeconds(1));
+	private final InFlightReleaseFilter filter = new InFlightReleaseFilter(lifecycle);
+	private final ServiceInstance instance = new DefaultServiceInstance("books-1", "books", "localhost", 8080, false);
+
+	@Test
+	@DisplayName("클라이언트가 취소하면 로드밸런서가 시작한 요청의 처리 중 요청 수를 되돌림")
+	void releaseOnCancelTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books"));
+		GatewayFilterChain chain = e -> {
+			RequestData requestData = new RequestData(e.getRequest(), e.getAttributes());
+			lifecycle.onStartRequest(new DefaultRequest<>(new RequestDataContext(requestData)),
+				new DefaultResponse(instance));
+			return Mono.never();
+		};
+		Disposable subscription = filter.filter(exchange, chain).subscribe();
+		assertEquals(1, statsRegistry.get(instance).inFlight());
+
+		// when
+		subscription.dispose();
+
+		// then
+		assertEquals(0, statsRegistry.get(instance).inFlight());
+	}
+
+	@Test
+	@DisplayName("로드밸런서 필터 바로 앞에서 실행")
+	void orderTest() {
+		// when & then
+		assertTrue(filter.getOrder() < ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER);
+	}
+}
@@ -0,0 +1,92 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.overload.OverloadController;
+import shop.nuribooks.gateway.common.overload.OverloadProperties;
+import shop.nuribooks.gateway.common.overload.RequestPriority;
+
+class LoadSheddingFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final OverloadProperties properties = properties();
+	private final OverloadController overloadController =
+		new OverloadController(properties, meterRegistry, List.of());
+	private final LoadSheddingFilter filter = new LoadSheddingFilter(overloadController, properties, meterRegistry);
+
+	private static OverloadProperties properties() {
+		OverloadProperties properties = new OverloadProperties();
+		properties.setMaxInFlight(1);
+		properties.setPriorities(Map.of(
+			"order_register_route", RequestPriority.CRITICAL,
+			"books_route", RequestPriority.LOW));
+		return properties;
+	}
+
+	private static MockServerWebExchange exchange(String routeId) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+			.id(routeId)
+			.uri("lb://books")
+			.predicate(e -> true)
+			.build());
+		return exchange;
+	}
+
+	@Test
+	@DisplayName("과부하 중에는 낮은 우선순위 라우트만 503 으로 버림")
+	void shedLowPriorityTest() {
+		// given
+		Sinks.Empty<Void> upstream = Sinks.empty();
+		GatewayFilterChain pending = exchange -> upstream.asMono();
+		GatewayFilterChain done = exchange -> Mono.empty();
+		MockServerWebExchange browse = exchange("books_route");
+		MockServerWebExchange checkout = exchange("order_register_route");
+
+		// when & then
+		StepVerifier.create(filter.filter(exchange("books_route"), pending))
+			.then(() -> {
+				filter.filter(browse, done).block();
+				filter.filter(checkout, done).block();
+				upstream.tryEmitEmpty();
+			})
+			.verifyComplete();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, browse.getResponse().getStatusCode());
+		assertNull(checkout.getResponse().getStatusCode());
+		assertEquals(1.0, meterRegistry.get(OverloadController.METRIC_NAME + ".shed")
+			.tag("priority", "low").counter().count());
+		assertEquals(0.0, overloadController.pressure());
+	}
+
+	@Test
+	@DisplayName("비활성화하면 과부하여도 모두 전달")
+	void disabledTest() {
+		// given
+		properties.setEnabled(false);
+		overloadController.tryAcquire(RequestPriority.CRITICAL);
+		MockServerWebExchange browse = exchange("books_route");
+
+		// when
+		filter.filter(browse, exchange -> Mono.empty()).block();
+
+		// then
+		assertNull(browse.getResponse().getStatusCode());
+	}
+}
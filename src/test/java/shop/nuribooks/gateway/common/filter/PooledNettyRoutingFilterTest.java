@@ -0,0 +1,109 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import shop.nuribooks.gateway.common.pool.ConnectionPoolProperties;
+
+class PooledNettyRoutingFilterTest {
+
+	private final HttpClient defaultHttpClient = HttpClient.create();
+	private final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders"));
+
+	private final PooledNettyRoutingFilter filter = filter();
+
+	@SuppressWarnings("unchecked")
+	private PooledNettyRoutingFilter filter() {
+		ConnectionPoolProperties.Pool pool = new ConnectionPoolProperties.Pool();
+		pool.setMaxConnections(5);
+		pool.setPendingAcquireTimeout(Duration.ofMillis(300));
+		ConnectionPoolProperties connectionPoolProperties = new ConnectionPoolProperties();
+		connectionPoolProperties.getPools().put("books-order", pool);
+
+		HttpClientProperties httpClientProperties = new HttpClientProperties();
+		ServerProperties serverProperties = new ServerProperties();
+		ObjectProvider<HttpClientCustomizer> customizers = mock(ObjectProvider.class);
+		when(customizers.orderedStream()).thenReturn(Stream.empty());
+
+		return new PooledNettyRoutingFilter(defaultHttpClient, mock(ObjectProvider.class), httpClientProperties,
+			serverProperties, new HttpClientSslConfigurer(httpClientProperties.getSsl(), serverProperties) {
+			}, customizers, connectionPoolProperties);
+	}
+
+	private static Route route(Map<String, Object> metadata) {
+		return Route.async()
+			.id("orders_route")
+			.uri("lb://books")
+			.predicate(e -> true)
+			.metadata(metadata)
+			.build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		filter.destroy();
+	}
+
+	@Test
+	@DisplayName("라우트에 지정한 연결 풀의 HttpClient 사용")
+	void pooledHttpClientTest() {
+		// when
+		HttpClient httpClient = filter.getHttpClient(
+			route(Map.of(ConnectionPoolProperties.POOL_METADATA, "books-order")), exchange);
+
+		// then
+		ConnectionProvider connectionProvider = httpClient.configuration().connectionProvider();
+		assertNotSame(defaultHttpClient, httpClient);
+		assertEquals("books-order", connectionProvider.name());
+		assertEquals(5, connectionProvider.maxConnections());
+	}
+
+	@Test
+	@DisplayName("풀을 지정하지 않았거나 설정에 없는 풀이면 기본 HttpClient 사용")
+	void defaultHttpClientTest() {
+		// when & then
+		assertSame(defaultHttpClient, filter.getHttpClient(route(Map.of()), exchange));
+		assertSame(defaultHttpClient, filter.getHttpClient(
+			route(Map.of(ConnectionPoolProperties.POOL_METADATA, "unknown")), exchange));
+	}
+
+	@Test
+	@DisplayName("라우트별 연결 타임아웃 metadata 도 적용")
+	void connectTimeoutTest() {
+		// when
+		HttpClient httpClient = filter.getHttpClient(route(Map.of(ConnectionPoolProperties.POOL_METADATA,
+			"books-order", RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, 200)), exchange);
+
+		// then
+		assertEquals(200, httpClient.configuration().options().get(ChannelOption.CONNECT_TIMEOUT_MILLIS));
+		assertEquals("books-order", httpClient.configuration().connectionProvider().name());
+	}
+
+	@Test
+	@DisplayName("기본 라우팅 필터보다 먼저 실행")
+	void orderTest() {
+		// when & then
+		assertTrue(filter.getOrder() < NettyRoutingFilter.ORDER);
+	}
+}
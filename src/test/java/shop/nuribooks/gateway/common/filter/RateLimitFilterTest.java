@@ -0,0 +1,159 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.util.VerifiedClaims;
+
+class RateLimitFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RateLimitFilter rateLimitFilter = new RateLimitFilter(meterRegistry, Duration.ofMinutes(1), 0);
+	private final GatewayFilter filter = rateLimitFilter.apply(new RateLimitFilter.Config()
+		.setReplenishRate(0.1)
+		.setBurstCapacity(2));
+
+	private final AtomicInteger forwarded = new AtomicInteger();
+	private final GatewayFilterChain chain = exchange -> {
+		forwarded.incrementAndGet();
+		return Mono.empty();
+	};
+
+	@AfterEach
+	void tearDown() {
+		rateLimitFilter.destroy();
+	}
+
+	private static MockServerWebExchange forwarded(String proxyIp, String xForwardedFor) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/api/books")
+			.remoteAddress(new InetSocketAddress(proxyIp, 40000))
+			.header("X-Forwarded-For", xForwardedFor));
+	}
+
+	private static MockServerWebExchange anonymous(String ip) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get("/api/books")
+			.remoteAddress(new InetSocketAddress(ip, 40000)));
+	}
+
+	private static MockServerWebExchange member(String ip, String userId) {
+		MockServerWebExchange exchange = anonymous(ip);
+		exchange.getAttributes().put(GlobalTokenValidationFilter.VERIFIED_CLAIMS_ATTR,
+			new VerifiedClaims(userId, "ROLE_MEMBER", Instant.MAX));
+		return exchange;
+	}
+
+	@Test
+	@DisplayName("한도 이내의 요청은 남은 요청 수 헤더와 함께 전달")
+	void allowTest() {
+		// given
+		MockServerWebExchange exchange = anonymous("10.0.0.1");
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertEquals(1, forwarded.get());
+		assertEquals("2", headers.getFirst(RateLimitFilter.LIMIT_HEADER));
+		assertEquals("1", headers.getFirst(RateLimitFilter.REMAINING_HEADER));
+	}
+
+	@Test
+	@DisplayName("한도를 넘으면 upstream 을 호출하지 않고 429 와 Retry-After")
+	void rejectTest() {
+		// given
+		filter.filter(anonymous("10.0.0.1"), chain).block();
+		filter.filter(anonymous("10.0.0.1"), chain).block();
+		MockServerWebExchange exchange = anonymous("10.0.0.1");
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertEquals(2, forwarded.get());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+		assertEquals("0", headers.getFirst(RateLimitFilter.REMAINING_HEADER));
+		assertEquals("10", headers.getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(1.0, meterRegistry.counter(RateLimitFilter.METRIC_NAME + ".rejected").count());
+	}
+
+	@Test
+	@DisplayName("회원은 IP 가 아니라 회원 id 로 한도를 계산")
+	void memberKeyTest() {
+		// given
+		filter.filter(member("10.0.0.1", "1"), chain).block();
+		filter.filter(member("10.0.0.2", "1"), chain).block();
+
+		// when
+		MockServerWebExchange sameMember = member("10.0.0.3", "1");
+		MockServerWebExchange otherMember = member("10.0.0.1", "2");
+		MockServerWebExchange anonymous = anonymous("10.0.0.1");
+		filter.filter(sameMember, chain).block();
+		filter.filter(otherMember, chain).block();
+		filter.filter(anonymous, chain).block();
+
+		// then
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, sameMember.getResponse().getStatusCode());
+		assertNull(otherMember.getResponse().getStatusCode());
+		assertNull(anonymous.getResponse().getStatusCode());
+	}
+
+	@Test
+	@DisplayName("프록시를 신뢰하면 X-Forwarded-For 의 클라이언트 IP 로 한도를 계산")
+	void forwardedKeyTest() {
+		// given
+		RateLimitFilter proxiedFilter = new RateLimitFilter(meterRegistry, Duration.ofMinutes(1), 1);
+		GatewayFilter proxied = proxiedFilter.apply(new RateLimitFilter.Config()
+			.setReplenishRate(0.1)
+			.setBurstCapacity(2));
+		proxied.filter(forwarded("10.0.0.100", "1.1.1.1"), chain).block();
+		// 클라이언트가 앞에 붙인 값은 무시하고 프록시가 추가한 마지막 값을 사용
+		proxied.filter(forwarded("10.0.0.100", "9.9.9.9, 1.1.1.1"), chain).block();
+
+		// when
+		MockServerWebExchange sameClient = forwarded("10.0.0.100", "8.8.8.8, 1.1.1.1");
+		MockServerWebExchange otherClient = forwarded("10.0.0.100", "2.2.2.2");
+		proxied.filter(sameClient, chain).block();
+		proxied.filter(otherClient, chain).block();
+		proxiedFilter.destroy();
+
+		// then
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, sameClient.getResponse().getStatusCode());
+		assertNull(otherClient.getResponse().getStatusCode());
+	}
+
+	@Test
+	@DisplayName("신뢰하는 프록시가 없으면 X-Forwarded-For 를 무시하고 소켓 주소로 한도를 계산")
+	void directKeyTest() {
+		// given
+		filter.filter(forwarded("10.0.0.1", "1.1.1.1"), chain).block();
+		filter.filter(forwarded("10.0.0.1", "2.2.2.2"), chain).block();
+
+		// when
+		MockServerWebExchange exchange = forwarded("10.0.0.1", "3.3.3.3");
+		filter.filter(exchange, chain).block();
+
+		// then
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+	}
+}
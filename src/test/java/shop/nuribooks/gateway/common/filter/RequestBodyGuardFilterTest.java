@@ -0,0 +1,139 @@
+package shop.nuribooks.gateway.common.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.test.StepVerifier;
+
+class RequestBodyGuardFilterTest {
+
+	private final GatewayFilter filter = new RequestBodyGuardFilter()
+		.apply(new RequestBodyGuardFilter.Config().setMaxSize(DataSize.ofBytes(32)));
+
+	private final AtomicReference<String> forwardedBody = new AtomicReference<>();
+
+	private final GatewayFilterChain chain = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+		.doOnNext(buffer -> {
+			forwardedBody.set(buffer.toString(StandardCharsets.UTF_8));
+			DataBufferUtils.release(buffer);
+		})
+		.then();
+
+	@Test
+	@DisplayName("한도 이내의 JSON 본문은 그대로 전달")
+	void allowJsonBodyTest() {
+		// given
+		String body = "{\"password\":\"plain\"}";
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.contentType(MediaType.APPLICATION_JSON)
+			.contentLength(body.length())
+			.body(body));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		assertEquals(body, forwardedBody.get());
+		assertNull(exchange.getResponse().getStatusCode());
+	}
+
+	@Test
+	@DisplayName("Content-Length 가 한도를 넘으면 본문을 읽지 않고 413")
+	void rejectLargeContentLengthTest() {
+		// given
+		String body = "{\"password\":\"" + "a".repeat(64) + "\"}";
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.contentType(MediaType.APPLICATION_JSON)
+			.contentLength(body.length())
+			.body(body));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+		assertNull(forwardedBody.get());
+	}
+
+	@Test
+	@DisplayName("JSON 이 아닌 본문은 415")
+	void rejectNonJsonTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.contentType(MediaType.TEXT_PLAIN)
+			.contentLength(5)
+			.body("plain"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, exchange.getResponse().getStatusCode());
+		assertNull(forwardedBody.get());
+	}
+
+	@Test
+	@DisplayName("chunked 본문은 읽는 도중 한도를 넘으면 413 에러")
+	void rejectLargeChunkedBodyTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.contentType(MediaType.APPLICATION_JSON)
+			.header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+			.body("{\"password\":\"" + "a".repeat(64) + "\"}"));
+
+		// when & then
+		StepVerifier.create(filter.filter(exchange, chain))
+			.expectErrorSatisfies(e -> assertEquals(HttpStatus.PAYLOAD_TOO_LARGE,
+				((ResponseStatusException)e).getStatusCode()))
+			.verify();
+		assertNull(forwardedBody.get());
+	}
+
+	@Test
+	@DisplayName("Content-Length 와 Transfer-Encoding 이 없는 본문(HTTP/2)도 읽는 도중 한도를 넘으면 413 에러")
+	void rejectLargeBodyWithoutLengthTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.contentType(MediaType.APPLICATION_JSON)
+			.body("{\"password\":\"" + "a".repeat(64) + "\"}"));
+
+		// when & then
+		StepVerifier.create(filter.filter(exchange, chain))
+			.expectErrorSatisfies(e -> assertEquals(HttpStatus.PAYLOAD_TOO_LARGE,
+				((ResponseStatusException)e).getStatusCode()))
+			.verify();
+		assertNull(forwardedBody.get());
+	}
+
+	@Test
+	@DisplayName("Content-Length, Content-Type 이 없는 본문 없는 요청은 그대로 전달")
+	void allowEmptyBodyWithoutLengthTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		assertNull(exchange.getResponse().getStatusCode());
+	}
+}
@@ -1,29 +1,36 @@
 package shop.nuribooks.gateway.common.filter;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyRequestBodyGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.web.server.ServerWebExchange;
 
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.crypto.PasswordHashRejectedException;
+import shop.nuribooks.gateway.common.crypto.PasswordHashingService;
 
 @ExtendWith(MockitoExtension.class)
 class SignupFilterTest {
 
 	@Mock
-	private ModifyRequestBodyGatewayFilterFactory modifyRequestBodyFilter;
-
-	@Mock
-	private ServerWebExchange exchange;
+	private PasswordHashingService passwordHashingService;
 
 	@Mock
 	private GatewayFilterChain chain;
@@ -34,10 +41,35 @@ class SignupFilterTest {
 	@Test
 	void testApply() {
 		// given
-		GatewayFilter mockFilter = (exchange1, chain2) -> Mono.empty();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.body("{\"name\":\"test\",\"password\":\"plainPassword123\"}"));
+		AtomicReference<String> forwardedBody = new AtomicReference<>();
+
+		when(passwordHashingService.encode("plainPassword123")).thenReturn(Mono.just("hashedPassword"));
+		when(chain.filter(any())).thenAnswer(invocation -> {
+			ServerWebExchange forwarded = invocation.getArgument(0);
+			return DataBufferUtils.join(forwarded.getRequest().getBody())
+				.doOnNext(buffer -> forwardedBody.set(buffer.toString(StandardCharsets.UTF_8)))
+				.then();
+		});
+
+		// when
+		Mono<Void> result = signupFilter.apply(new SignupFilter.Config()).filter(exchange, chain);
+
+		// then
+		StepVerifier.create(result)
+			.verifyComplete();
+		assertEquals("{\"name\":\"test\",\"password\":\"hashedPassword\"}", forwardedBody.get());
+	}
+
+	@Test
+	void testApplyHashRejected() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.body("{\"name\":\"test\",\"password\":\"plainPassword123\"}"));
 
-		when(modifyRequestBodyFilter.apply((ModifyRequestBodyGatewayFilterFactory.Config)any())).thenReturn(
-			mockFilter);
+		when(passwordHashingService.encode(anyString())).thenReturn(
+			Mono.error(new PasswordHashRejectedException(Duration.ofSeconds(3))));
 
 		// when
 		Mono<Void> result = signupFilter.apply(new SignupFilter.Config()).filter(exchange, chain);
@@ -45,5 +77,8 @@ class SignupFilterTest {
 		// then
 		StepVerifier.create(result)
 			.verifyComplete();
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+		assertEquals("3", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		verify(chain, never()).filter(any());
 	}
-}
\ No newline at end of file
+}
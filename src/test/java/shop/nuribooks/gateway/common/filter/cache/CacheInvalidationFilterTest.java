@@ -0,0 +1,65 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.cache.CacheInvalidator;
+
+class CacheInvalidationFilterTest {
+
+	private final CacheInvalidator cacheInvalidator = mock(CacheInvalidator.class);
+	private final GatewayFilter filter = new CacheInvalidationFilter(cacheInvalidator)
+		.apply(new CacheInvalidationFilter.Config());
+
+	private GatewayFilterChain respond(HttpStatus status) {
+		return exchange -> Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(status));
+	}
+
+	@Test
+	@DisplayName("2xx 변경 요청이 끝나면 클라이언트 경로로 캐시를 무효화")
+	void invalidateOnSuccessTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.put("/admin/api/books/1"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, respond(HttpStatus.OK))).verifyComplete();
+
+		// then
+		verify(cacheInvalidator).invalidate("/admin/api/books/1");
+	}
+
+	@Test
+	@DisplayName("실패한 변경 요청은 무효화하지 않음")
+	void skipOnFailureTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.delete("/admin/api/books/1"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, respond(HttpStatus.BAD_REQUEST))).verifyComplete();
+
+		// then
+		verifyNoInteractions(cacheInvalidator);
+	}
+
+	@Test
+	@DisplayName("조회 요청은 무효화하지 않음")
+	void skipOnGetTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/admin/api/books/1"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, respond(HttpStatus.OK))).verifyComplete();
+
+		// then
+		verifyNoInteractions(cacheInvalidator);
+	}
+}
@@ -0,0 +1,140 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import shop.nuribooks.gateway.common.cache.CachedResponse;
+import shop.nuribooks.gateway.common.cache.ResponseCache;
+import shop.nuribooks.gateway.common.cache.ResponseCompressor;
+
+class CacheRevalidatorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ResponseCache responseCache = new ResponseCache(meterRegistry,
+		new ResponseCompressor(new ServerProperties()), true, DataSize.ofKilobytes(64),
+		DataSize.ofKilobytes(1), Duration.ofSeconds(30));
+	private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+	private final AtomicInteger calls = new AtomicInteger();
+	private final AtomicReference<URI> requestedUri = new AtomicReference<>();
+
+	private final CachedResponse stale = CachedResponse.of(200, new HttpHeaders(), "old".getBytes(), Instant.now(),
+		Duration.ZERO, Duration.ofHours(1));
+
+	private CacheRevalidator revalidator(Mono<ClientResponse> response) {
+		ExchangeFunction exchangeFunction = request -> {
+			calls.incrementAndGet();
+			requestedUri.set(request.url());
+			return response;
+		};
+		return new CacheRevalidator(WebClient.builder().exchangeFunction(exchangeFunction).build(), responseCache,
+			circuitBreakerRegistry, BulkheadRegistry.ofDefaults(), meterRegistry, Duration.ofSeconds(1));
+	}
+
+	private MockServerWebExchange exchange() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories?depth=2"));
+		exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+			.id("tree_route")
+			.uri("lb://books")
+			.predicate(e -> true)
+			.build());
+		return exchange;
+	}
+
+	@Test
+	@DisplayName("라우트 URI 로 upstream 을 다시 호출해 캐시를 갱신")
+	void revalidateTest() {
+		// given
+		MockServerWebExchange exchange = exchange();
+		CacheRevalidator revalidator = revalidator(Mono.just(ClientResponse.create(HttpStatus.OK)
+			.header(HttpHeaders.CONTENT_TYPE, "application/json")
+			.body("[\"new\"]")
+			.build()));
+
+		// when
+		revalidator.revalidate(exchange, stale, null, Duration.ofHours(1));
+
+		// then
+		assertEquals(URI.create("lb://books/api/categories?depth=2"), requestedUri.get());
+		CachedResponse refreshed = responseCache.get(exchange.getRequest());
+		assertNotNull(refreshed);
+		assertEquals("[\"new\"]", new String(refreshed.body(), StandardCharsets.UTF_8));
+		assertEquals(1.0, meterRegistry.get(CacheRevalidator.METRIC_NAME).tag("result", "success").counter().count());
+		assertEquals(1, circuitBreakerRegistry.circuitBreaker("books").getMetrics().getNumberOfSuccessfulCalls());
+	}
+
+	@Test
+	@DisplayName("같은 요청의 갱신은 동시에 하나만 실행")
+	void singleRefreshInFlightTest() {
+		// given
+		Sinks.One<ClientResponse> pending = Sinks.one();
+		CacheRevalidator revalidator = revalidator(pending.asMono());
+
+		// when
+		revalidator.revalidate(exchange(), stale, null, Duration.ofHours(1));
+		revalidator.revalidate(exchange(), stale, null, Duration.ofHours(1));
+		pending.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("[]").build());
+		revalidator.revalidate(exchange(), stale, null, Duration.ofHours(1));
+
+		// then
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	@DisplayName("upstream 이 오류를 응답하면 캐시를 바꾸지 않음")
+	void revalidateFailureTest() {
+		// given
+		MockServerWebExchange exchange = exchange();
+		CacheRevalidator revalidator = revalidator(Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE)
+			.body("error")
+			.build()));
+
+		// when
+		revalidator.revalidate(exchange, stale, null, Duration.ofHours(1));
+
+		// then
+		assertNull(responseCache.getIncludingStale(exchange.getRequest()));
+		assertEquals(1.0, meterRegistry.get(CacheRevalidator.METRIC_NAME).tag("result", "failure").counter().count());
+		assertEquals(1, circuitBreakerRegistry.circuitBreaker("books").getMetrics().getNumberOfFailedCalls());
+	}
+
+	@Test
+	@DisplayName("downstream 의 circuit 이 열려 있으면 upstream 을 호출하지 않음")
+	void openCircuitSkipsRefreshTest() {
+		// given
+		circuitBreakerRegistry.circuitBreaker("books").transitionToOpenState();
+		CacheRevalidator revalidator = revalidator(Mono.just(ClientResponse.create(HttpStatus.OK).body("[]").build()));
+
+		// when
+		revalidator.revalidate(exchange(), stale, null, Duration.ofHours(1));
+
+		// then
+		assertEquals(0, calls.get());
+		assertEquals(1.0, meterRegistry.get(CacheRevalidator.METRIC_NAME).tag("result", "rejected").counter().count());
+	}
+}
@@ -0,0 +1,222 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.cache.ETagIndex;
+import shop.nuribooks.gateway.common.cache.ResponseCompressor;
+
+class ETagFilterTest {
+
+	private static final byte[] BODY = "[{\"categoryId\":1}]".getBytes(StandardCharsets.UTF_8);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ETagIndex etagIndex = new ETagIndex(meterRegistry, 100, Duration.ofSeconds(60));
+	private final GatewayFilter filter = new ETagFilter(etagIndex, compressor(), meterRegistry)
+		.apply(new ETagFilter.Config());
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private final GatewayFilterChain chain = exchange -> {
+		upstreamCalls.incrementAndGet();
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		response.getHeaders().setContentLength(BODY.length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY)));
+	};
+
+	private static ResponseCompressor compressor() {
+		ServerProperties serverProperties = new ServerProperties();
+		serverProperties.getCompression().setEnabled(true);
+		serverProperties.getCompression().setMinResponseSize(DataSize.ofBytes(1));
+		return new ResponseCompressor(serverProperties);
+	}
+
+	private String firstETag() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories"));
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+		return exchange.getResponse().getHeaders().getETag();
+	}
+
+	@Test
+	@DisplayName("응답 본문으로 강한 ETag 를 계산해 헤더에 추가")
+	void computeETagTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		// then
+		String etag = exchange.getResponse().getHeaders().getETag();
+		assertNotNull(etag);
+		assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+		assertArrayEquals(BODY, exchange.getResponse().getBodyAsString().block().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	@DisplayName("기억된 ETag 와 If-None-Match 가 일치하면 upstream 호출 없이 304")
+	void notModifiedFromIndexTest() {
+		// given
+		String etag = firstETag();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header(HttpHeaders.IF_NONE_MATCH, etag));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		// then
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+		assertEquals(etag, exchange.getResponse().getHeaders().getETag());
+		assertEquals(1.0, meterRegistry.get(ETagFilter.METRIC_NAME).tag("source", "index").counter().count());
+	}
+
+	@Test
+	@DisplayName("기억된 ETag 가 없어도 upstream 본문의 ETag 가 일치하면 본문 대신 304")
+	void notModifiedFromUpstreamTest() {
+		// given
+		String etag = firstETag();
+		etagIndex.invalidateAll();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		// then
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+		assertFalse(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH));
+		assertEquals(1.0, meterRegistry.get(ETagFilter.METRIC_NAME).tag("source", "upstream").counter().count());
+	}
+
+	@Test
+	@DisplayName("200 이 아닌 응답이 오면 기억된 ETag 를 지워 삭제된 자원에 304 로 응답하지 않음")
+	void invalidateOnNonOkTest() {
+		// given
+		String etag = firstETag();
+		GatewayFilterChain notFound = exchange -> {
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.NOT_FOUND);
+			response.getHeaders().setContentLength(0);
+			return response.writeWith(Mono.empty());
+		};
+		StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")),
+			notFound)).verifyComplete();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header(HttpHeaders.IF_NONE_MATCH, etag));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, notFound)).verifyComplete();
+
+		// then
+		assertNull(etagIndex.get(exchange.getRequest()));
+		assertEquals(HttpStatus.NOT_FOUND, exchange.getResponse().getStatusCode());
+		assertEquals(0.0, meterRegistry.get(ETagFilter.METRIC_NAME).tag("source", "index").counter().count());
+	}
+
+	@Test
+	@DisplayName("사용자가 다르면 기억된 ETag 를 공유하지 않음")
+	void perUserTest() {
+		// given
+		String etag = firstETag();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header("X-USER-ID", "1")
+			.header(HttpHeaders.IF_NONE_MATCH, "\"other\""));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		// then
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+		assertEquals(etag, exchange.getResponse().getHeaders().getETag());
+	}
+
+	@Test
+	@DisplayName("서버가 gzip 으로 압축할 응답에는 압축 전 본문의 ETag 를 약한 ETag 로 붙임")
+	void weakETagForCompressedResponseTest() {
+		// given
+		String etag = firstETag();
+		etagIndex.invalidateAll();
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		// then
+		assertEquals("W/" + etag, exchange.getResponse().getHeaders().getETag());
+		assertEquals(etag, etagIndex.get(exchange.getRequest()));
+	}
+
+	@Test
+	@DisplayName("캐시의 gzip 본문으로 응답해도 압축 전 본문으로 같은 ETag 를 계산")
+	void cachedGzipBodyTest() {
+		// given
+		String etag = firstETag();
+		byte[] gzipBody = {31, -117, 8, 0};
+		GatewayFilterChain cachedChain = exchange -> {
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, ResponseCompressor.GZIP);
+			response.getHeaders().setContentLength(gzipBody.length);
+			exchange.getAttributes().put(CachedResponseWriter.IDENTITY_BODY_ATTR, BODY);
+			return response.writeWith(Mono.just(response.bufferFactory().wrap(gzipBody)));
+		};
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, cachedChain)).verifyComplete();
+
+		// then
+		assertEquals("W/" + etag, exchange.getResponse().getHeaders().getETag());
+		assertEquals(etag, etagIndex.get(exchange.getRequest()));
+	}
+
+	@Test
+	@DisplayName("GET 이 아닌 요청은 처리하지 않음")
+	void nonGetTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/categories"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		// then
+		assertNull(exchange.getResponse().getHeaders().getETag());
+	}
+
+	@Test
+	@DisplayName("If-None-Match 비교는 약한 비교와 * 를 지원")
+	void matchesTest() {
+		assertTrue(ETagFilter.matches("*", "\"a\""));
+		assertTrue(ETagFilter.matches("W/\"a\"", "\"a\""));
+		assertTrue(ETagFilter.matches("\"b\", \"a\"", "\"a\""));
+		assertFalse(ETagFilter.matches("\"b\"", "\"a\""));
+		assertEquals("W/\"a\"", ETagFilter.matching("\"b\", W/\"a\"", "\"a\""));
+	}
+}
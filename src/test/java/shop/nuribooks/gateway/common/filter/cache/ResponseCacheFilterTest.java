@@ -0,0 +1,217 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.cache.ResponseCache;
+import shop.nuribooks.gateway.common.cache.ResponseCompressor;
+
+class ResponseCacheFilterTest {
+
+	private static final String BODY = "[{\"bookId\":1}]";
+
+	private final ResponseCache responseCache = new ResponseCache(new SimpleMeterRegistry(),
+		new ResponseCompressor(new ServerProperties()), true,
+		DataSize.ofKilobytes(64), DataSize.ofKilobytes(1), Duration.ofSeconds(30));
+	private final CacheRevalidator cacheRevalidator = mock(CacheRevalidator.class);
+	private final ResponseCacheFilter responseCacheFilter = new ResponseCacheFilter(responseCache, cacheRevalidator);
+	private final GatewayFilter filter = responseCacheFilter.apply(new ResponseCacheFilter.Config());
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	private final GatewayFilterChain chain = exchange -> {
+		upstreamCalls.incrementAndGet();
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.OK);
+		response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+	};
+
+	private MockServerWebExchange get(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+	}
+
+	@Test
+	@DisplayName("응답을 쓰는 NettyWriteResponseFilter 보다 먼저 실행")
+	void orderTest() {
+		assertTrue(((Ordered)filter).getOrder() < -1);
+	}
+
+	@Test
+	@DisplayName("첫 요청은 upstream 응답을 저장하고 두 번째 요청은 캐시에서 응답")
+	void missThenHitTest() {
+		// given
+		MockServerWebExchange first = get("/api/books/1");
+		MockServerWebExchange second = get("/api/books/1");
+
+		// when
+		StepVerifier.create(filter.filter(first, chain)).verifyComplete();
+		StepVerifier.create(filter.filter(second, chain)).verifyComplete();
+
+		// then
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(BODY, first.getResponse().getBodyAsString().block());
+		assertEquals(BODY, second.getResponse().getBodyAsString().block());
+		assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+		assertEquals("HIT", second.getResponse().getHeaders().getFirst(CachedResponseWriter.CACHE_STATUS_HEADER));
+		assertEquals(MediaType.APPLICATION_JSON, second.getResponse().getHeaders().getContentType());
+	}
+
+	@Test
+	@DisplayName("압축 대상 응답은 gzip 본문을 함께 저장해 gzip 을 허용하는 요청에는 gzip 본문으로 응답")
+	void precompressedHitTest() throws IOException {
+		// given
+		ServerProperties serverProperties = new ServerProperties();
+		serverProperties.getCompression().setEnabled(true);
+		serverProperties.getCompression().setMinResponseSize(DataSize.ofBytes(0));
+		GatewayFilter compressingFilter = new ResponseCacheFilter(new ResponseCache(new SimpleMeterRegistry(),
+			new ResponseCompressor(serverProperties), true, DataSize.ofKilobytes(64), DataSize.ofKilobytes(8),
+			Duration.ofSeconds(30)), cacheRevalidator).apply(new ResponseCacheFilter.Config());
+		String body = "[" + "{\"title\":\"book\"},".repeat(100) + "{}]";
+		GatewayFilterChain largeChain = exchange -> {
+			upstreamCalls.incrementAndGet();
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			return response.writeWith(
+				Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+		};
+		StepVerifier.create(compressingFilter.filter(get("/api/books"), largeChain)).verifyComplete();
+		MockServerWebExchange gzip = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books")
+			.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"));
+		MockServerWebExchange identity = get("/api/books");
+
+		// when
+		StepVerifier.create(compressingFilter.filter(gzip, largeChain)).verifyComplete();
+		StepVerifier.create(compressingFilter.filter(identity, largeChain)).verifyComplete();
+
+		// then
+		HttpHeaders gzipHeaders = gzip.getResponse().getHeaders();
+		byte[] compressed = DataBufferUtils.join(gzip.getResponse().getBody())
+			.map(buffer -> {
+				byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				return bytes;
+			})
+			.block();
+		assertEquals("gzip", gzipHeaders.getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(compressed.length, gzipHeaders.getContentLength());
+		assertTrue(compressed.length < body.length());
+		assertEquals(body, new String(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes(),
+			StandardCharsets.UTF_8));
+		assertTrue(gzipHeaders.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+
+		assertNull(identity.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(body, identity.getResponse().getBodyAsString().block());
+		assertEquals(1, upstreamCalls.get());
+	}
+
+	@Test
+	@DisplayName("인증된 요청은 캐시를 조회하거나 저장하지 않음")
+	void authenticatedRequestBypassTest() {
+		// given
+		MockServerWebExchange authenticated = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books/1")
+			.header("X-USER-ID", "1"));
+
+		// when
+		StepVerifier.create(filter.filter(authenticated, chain)).verifyComplete();
+		StepVerifier.create(filter.filter(get("/api/books/1"), chain)).verifyComplete();
+
+		// then
+		assertEquals(2, upstreamCalls.get());
+	}
+
+	@Test
+	@DisplayName("요청의 no-cache 는 캐시를 건너뛰고 upstream 응답으로 캐시를 갱신")
+	void requestNoCacheTest() {
+		// given
+		StepVerifier.create(filter.filter(get("/api/books/1"), chain)).verifyComplete();
+		MockServerWebExchange noCache = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books/1")
+			.header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+		// when
+		StepVerifier.create(filter.filter(noCache, chain)).verifyComplete();
+
+		// then
+		assertEquals(2, upstreamCalls.get());
+		assertNull(noCache.getResponse().getHeaders().getFirst(CachedResponseWriter.CACHE_STATUS_HEADER));
+	}
+
+	@Test
+	@DisplayName("stale-while-revalidate 기간에는 만료된 응답을 바로 내보내고 백그라운드 갱신을 요청")
+	void staleWhileRevalidateTest() throws InterruptedException {
+		// given
+		GatewayFilter swrFilter = responseCacheFilter.apply(new ResponseCacheFilter.Config()
+			.setTtl(Duration.ofMillis(1))
+			.setStaleWhileRevalidate(Duration.ofHours(1)));
+		StepVerifier.create(swrFilter.filter(get("/api/categories"), chain)).verifyComplete();
+		Thread.sleep(20);
+		MockServerWebExchange stale = get("/api/categories");
+
+		// when
+		StepVerifier.create(swrFilter.filter(stale, chain)).verifyComplete();
+
+		// then
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(BODY, stale.getResponse().getBodyAsString().block());
+		assertEquals("STALE", stale.getResponse().getHeaders().getFirst(CachedResponseWriter.CACHE_STATUS_HEADER));
+		verify(cacheRevalidator).revalidate(eq(stale), any(), eq(Duration.ofMillis(1)), eq(Duration.ofHours(1)));
+	}
+
+	@Test
+	@DisplayName("upstream 호출이 실패하면 남아 있는 stale 응답으로 대신")
+	void staleIfErrorTest() throws InterruptedException {
+		// given
+		GatewayFilter swrFilter = responseCacheFilter.apply(new ResponseCacheFilter.Config()
+			.setTtl(Duration.ofMillis(1))
+			.setStaleWhileRevalidate(Duration.ofHours(1)));
+		StepVerifier.create(swrFilter.filter(get("/api/categories"), chain)).verifyComplete();
+		Thread.sleep(20);
+		MockServerWebExchange noCache = MockServerWebExchange.from(MockServerHttpRequest.get("/api/categories")
+			.header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+		// when
+		StepVerifier.create(swrFilter.filter(noCache, exchange -> Mono.error(new IllegalStateException("timeout"))))
+			.verifyComplete();
+
+		// then
+		assertEquals(BODY, noCache.getResponse().getBodyAsString().block());
+		assertEquals("STALE", noCache.getResponse().getHeaders().getFirst(CachedResponseWriter.CACHE_STATUS_HEADER));
+	}
+
+	@Test
+	@DisplayName("stale 응답이 없으면 upstream 오류를 그대로 전달")
+	void errorWithoutStaleTest() {
+		StepVerifier.create(filter.filter(get("/api/categories"),
+				exchange -> Mono.error(new IllegalStateException("timeout"))))
+			.expectError(IllegalStateException.class)
+			.verify();
+		verifyNoInteractions(cacheRevalidator);
+	}
+}
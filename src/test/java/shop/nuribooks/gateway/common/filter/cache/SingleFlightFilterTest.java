@@ -0,0 +1,147 @@
+package shop.nuribooks.gateway.common.filter.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class SingleFlightFilterTest {
+
+	private static final String BODY = "{\"bookId\":1}";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SingleFlightFilter singleFlightFilter = new SingleFlightFilter(meterRegistry);
+
+	private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+	// 첫 upstream 호출은 release 가 완료될 때까지 응답하지 않음
+	private final Sinks.Empty<Void> release = Sinks.empty();
+
+	private final GatewayFilterChain chain = exchange -> {
+		Mono<Void> wait = upstreamCalls.incrementAndGet() == 1 ? release.asMono() : Mono.empty();
+		return wait.then(Mono.defer(() -> {
+			ServerHttpResponse response = exchange.getResponse();
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			return response.writeWith(Mono.just(response.bufferFactory()
+				.wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+		}));
+	};
+
+	private MockServerWebExchange get(String path) {
+		return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+	}
+
+	@Test
+	@DisplayName("진행 중인 같은 요청은 upstream 을 한 번만 호출하고 응답을 공유")
+	void coalesceTest() {
+		// given
+		GatewayFilter filter = singleFlightFilter.apply(new SingleFlightFilter.Config());
+		MockServerWebExchange leader = get("/api/books/1");
+		MockServerWebExchange follower = get("/api/books/1");
+
+		// when
+		Disposable leaderCall = filter.filter(leader, chain).subscribe();
+		Disposable followerCall = filter.filter(follower, chain).subscribe();
+		release.tryEmitEmpty();
+
+		// then
+		assertTrue(leaderCall.isDisposed());
+		assertTrue(followerCall.isDisposed());
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+		assertEquals(MediaType.APPLICATION_JSON, follower.getResponse().getHeaders().getContentType());
+		assertEquals("COALESCED", follower.getResponse().getHeaders().getFirst(CachedResponseWriter.CACHE_STATUS_HEADER));
+		assertEquals(1.0, meterRegistry.get("single.flight.coalesced").counter().count());
+	}
+
+	@Test
+	@DisplayName("쿼리나 키 헤더가 다르면 합치지 않음")
+	void differentKeyTest() {
+		// given
+		GatewayFilter filter = singleFlightFilter.apply(new SingleFlightFilter.Config());
+
+		// when
+		filter.filter(get("/api/books/1"), chain).subscribe();
+		StepVerifier.create(filter.filter(get("/api/books/1?page=2"), chain)).verifyComplete();
+		StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/books/1")
+			.header(HttpHeaders.ACCEPT_LANGUAGE, "en")), chain)).verifyComplete();
+		release.tryEmitEmpty();
+
+		// then
+		assertEquals(3, upstreamCalls.get());
+	}
+
+	@Test
+	@DisplayName("대기자 수 한도를 넘으면 직접 upstream 을 호출")
+	void maxWaitersTest() {
+		// given
+		GatewayFilter filter = singleFlightFilter.apply(new SingleFlightFilter.Config().setMaxWaiters(0));
+
+		// when
+		filter.filter(get("/api/books/1"), chain).subscribe();
+		StepVerifier.create(filter.filter(get("/api/books/1"), chain)).verifyComplete();
+		release.tryEmitEmpty();
+
+		// then
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(1.0, meterRegistry.get("single.flight.overflow").counter().count());
+	}
+
+	@Test
+	@DisplayName("leader 가 실패하면 follower 는 직접 upstream 을 호출")
+	void leaderFailureTest() {
+		// given
+		GatewayFilter filter = singleFlightFilter.apply(new SingleFlightFilter.Config());
+		Sinks.Empty<Void> failure = Sinks.empty();
+		GatewayFilterChain failingFirst = exchange -> upstreamCalls.get() == 0
+			? failure.asMono().doOnSubscribe(s -> upstreamCalls.incrementAndGet())
+			: chain.filter(exchange);
+		MockServerWebExchange follower = get("/api/books/1");
+
+		// when
+		filter.filter(get("/api/books/1"), failingFirst).subscribe(null, e -> { });
+		Disposable followerCall = filter.filter(follower, failingFirst).subscribe();
+		failure.tryEmitError(new IllegalStateException("upstream error"));
+
+		// then
+		assertTrue(followerCall.isDisposed());
+		assertEquals(2, upstreamCalls.get());
+		assertEquals(BODY, follower.getResponse().getBodyAsString().block());
+	}
+
+	@Test
+	@DisplayName("본문이 한도를 넘으면 공유하지 않고 follower 가 직접 호출")
+	void bodyTooLargeTest() {
+		// given
+		GatewayFilter filter = singleFlightFilter.apply(new SingleFlightFilter.Config()
+			.setMaxBodySize(DataSize.ofBytes(4)));
+
+		// when
+		filter.filter(get("/api/books/1"), chain).subscribe();
+		Disposable followerCall = filter.filter(get("/api/books/1"), chain).subscribe();
+		release.tryEmitEmpty();
+
+		// then
+		assertTrue(followerCall.isDisposed());
+		assertEquals(2, upstreamCalls.get());
+	}
+}
@@ -0,0 +1,115 @@
+package shop.nuribooks.gateway.common.filter.rewrite;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import shop.nuribooks.gateway.common.crypto.PasswordHashExecutor;
+import shop.nuribooks.gateway.common.crypto.PasswordHashingService;
+
+class JsonBodyRewriteFilterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final PasswordHashExecutor passwordHashExecutor =
+		new PasswordHashExecutor(new SimpleMeterRegistry(), 2, 16, Duration.ofSeconds(5), Duration.ofSeconds(1));
+	private final PasswordHashingService passwordHashingService =
+		new PasswordHashingService(passwordHashExecutor, new SimpleMeterRegistry(), 4, 8, Duration.ofSeconds(1));
+
+	private final AtomicReference<ServerWebExchange> forwardedExchange = new AtomicReference<>();
+	private final AtomicReference<String> forwardedBody = new AtomicReference<>();
+
+	private final GatewayFilterChain chain = exchange -> {
+		forwardedExchange.set(exchange);
+		return DataBufferUtils.join(exchange.getRequest().getBody())
+			.doOnNext(buffer -> {
+				forwardedBody.set(buffer.toString(StandardCharsets.UTF_8));
+				DataBufferUtils.release(buffer);
+			})
+			.then();
+	};
+
+	@AfterEach
+	void tearDown() {
+		passwordHashExecutor.destroy();
+	}
+
+	@Test
+	@DisplayName("비밀번호 암호화 테스트 - 정상 처리 및 Content-Length 재계산")
+	void processPasswordEncryptSuccessTest() throws Exception {
+		// given
+		JsonBodyRewriteFilter filter = new JsonBodyRewriteFilter(JsonFieldRewriter.of("/password"),
+			passwordHashingService::encode);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+			.body("{\"name\":\"test\",\"password\":\"plainPassword123\"}"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		JsonNode result = objectMapper.readTree(forwardedBody.get());
+		String hashedPassword = result.get("password").asText();
+
+		assertEquals("test", result.get("name").asText());
+		assertTrue(new BCryptPasswordEncoder().matches("plainPassword123", hashedPassword));
+
+		HttpHeaders forwardedHeaders = forwardedExchange.get().getRequest().getHeaders();
+		assertEquals(forwardedBody.get().getBytes(StandardCharsets.UTF_8).length, forwardedHeaders.getContentLength());
+		assertFalse(forwardedHeaders.containsKey(HttpHeaders.TRANSFER_ENCODING));
+	}
+
+	@Test
+	@DisplayName("본문이 없는 요청은 그대로 전달")
+	void emptyBodyPassThroughTest() {
+		// given
+		JsonBodyRewriteFilter filter = new JsonBodyRewriteFilter(JsonFieldRewriter.of("/password"),
+			value -> Mono.error(new AssertionError("호출되면 안 됨")));
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members"));
+
+		// when
+		StepVerifier.create(filter.filter(exchange, chain))
+			.verifyComplete();
+
+		// then
+		assertSame(exchange, forwardedExchange.get());
+	}
+
+	@Test
+	@DisplayName("비밀번호 암호화 테스트 - json 예외는 400")
+	void processPasswordEncryptExceptionTest() {
+		// given
+		JsonBodyRewriteFilter filter = new JsonBodyRewriteFilter(JsonFieldRewriter.of("/password"),
+			passwordHashingService::encode);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/members")
+			.body("{invalid"));
+
+		// when & then
+		StepVerifier.create(filter.filter(exchange, chain))
+			.expectErrorSatisfies(e -> assertEquals(HttpStatus.BAD_REQUEST,
+				((ResponseStatusException)e).getStatusCode()))
+			.verify();
+		assertNull(forwardedExchange.get());
+	}
+}
@@ -0,0 +1,110 @@
+package shop.nuribooks.gateway.common.filter.rewrite;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class JsonFieldRewriterTest {
+
+	private static byte[] bytes(String json) {
+		return json.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String text(byte[] json) {
+		return new String(json, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	@DisplayName("최상위 필드만 교체하고 나머지 토큰은 그대로 복사")
+	void rewriteTopLevelFieldTest() {
+		// given
+		JsonFieldRewriter rewriter = JsonFieldRewriter.of("/password");
+		String body = "{\"name\":\"nuri\",\"password\":\"plain\",\"age\":20,\"ratio\":0.10,\"tags\":[\"a\",null,true]}";
+
+		// when & then
+		StepVerifier.create(rewriter.rewrite(bytes(body), value -> Mono.just("hashed-" + value)))
+			.assertNext(result -> assertEquals(
+				"{\"name\":\"nuri\",\"password\":\"hashed-plain\",\"age\":20,\"ratio\":0.10,\"tags\":[\"a\",null,true]}",
+				text(result)))
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("중첩 경로 규칙은 해당 위치의 필드만 교체")
+	void rewriteNestedFieldTest() {
+		// given
+		JsonFieldRewriter rewriter = JsonFieldRewriter.of("/customerRegister/password");
+		String body = "{\"password\":\"top\",\"customerRegister\":{\"name\":\"nuri\",\"password\":\"plain\"},"
+			+ "\"items\":[{\"password\":\"item\"}]}";
+
+		// when & then
+		StepVerifier.create(rewriter.rewrite(bytes(body), value -> Mono.just("hashed-" + value)))
+			.assertNext(result -> assertEquals(
+				"{\"password\":\"top\",\"customerRegister\":{\"name\":\"nuri\",\"password\":\"hashed-plain\"},"
+					+ "\"items\":[{\"password\":\"item\"}]}",
+				text(result)))
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("대상 필드가 없으면 원본 본문을 그대로 반환하고 변환 함수를 호출하지 않음")
+	void rewriteWithoutTargetTest() {
+		// given
+		JsonFieldRewriter rewriter = JsonFieldRewriter.of("/customerRegister/password");
+		byte[] body = bytes("{\"customer\":{\"password\":\"plain\"},\"customerRegister\":null}");
+
+		// when & then
+		StepVerifier.create(rewriter.rewrite(body, value -> Mono.error(new AssertionError("호출되면 안 됨"))))
+			.assertNext(result -> assertSame(body, result))
+			.verifyComplete();
+	}
+
+	@Test
+	@DisplayName("대상 위치의 값이 문자열이 아니면 교체하지 않음")
+	void rewriteNonStringTargetTest() throws IOException {
+		// given
+		JsonFieldRewriter rewriter = JsonFieldRewriter.of("/password");
+
+		// when
+		List<String> values = rewriter.extract(bytes("{\"password\":null}"));
+
+		// then
+		assertTrue(values.isEmpty());
+	}
+
+	@Test
+	@DisplayName("JSON 형식이 올바르지 않으면 에러")
+	void rewriteInvalidJsonTest() {
+		// given
+		JsonFieldRewriter rewriter = JsonFieldRewriter.of("/password");
+
+		// when & then
+		StepVerifier.create(rewriter.rewrite(bytes("{\"password\":\"plain\""), Mono::just))
+			.expectError(IOException.class)
+			.verify();
+	}
+
+	@Test
+	@DisplayName("중복 키가 있으면 변환 함수를 호출하지 않고 에러")
+	void rewriteDuplicateKeyTest() {
+		// given
+		JsonFieldRewriter rewriter = JsonFieldRewriter.of("/password");
+		AtomicInteger calls = new AtomicInteger();
+
+		// when & then
+		StepVerifier.create(rewriter.rewrite(bytes("{\"password\":\"a\",\"password\":\"a\"}"),
+				value -> Mono.fromCallable(() -> value + calls.incrementAndGet())))
+			.expectError(IOException.class)
+			.verify();
+		assertEquals(0, calls.get());
+	}
+}
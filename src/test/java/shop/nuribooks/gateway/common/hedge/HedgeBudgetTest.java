@@ -0,0 +1,61 @@
+package shop.nuribooks.gateway.common.hedge;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HedgeBudgetTest {
+
+	@Test
+	@DisplayName("요청 20개마다 hedge 요청 하나만큼 예산이 쌓임")
+	void depositRatioTest() {
+		// given
+		HedgeBudget budget = new HedgeBudget(0.05, 100);
+		for (int i = 0; i < 19; i++) {
+			budget.deposit();
+		}
+		assertFalse(budget.tryWithdraw());
+
+		// when
+		budget.deposit();
+
+		// then
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+	}
+
+	@Test
+	@DisplayName("예산은 최대 잔액까지만 쌓임")
+	void maxBalanceTest() {
+		// given
+		HedgeBudget budget = new HedgeBudget(0.5, 2);
+
+		// when
+		for (int i = 0; i < 100; i++) {
+			budget.deposit();
+		}
+
+		// then
+		assertTrue(budget.tryWithdraw());
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+	}
+
+	@Test
+	@DisplayName("돌려받은 예산은 최대 잔액을 넘지 않는 범위에서 다시 사용할 수 있음")
+	void refundTest() {
+		// given
+		HedgeBudget budget = new HedgeBudget(1.0, 1);
+		budget.deposit();
+		assertTrue(budget.tryWithdraw());
+
+		// when
+		budget.refund();
+		budget.refund();
+
+		// then
+		assertTrue(budget.tryWithdraw());
+		assertFalse(budget.tryWithdraw());
+	}
+}
@@ -0,0 +1,53 @@
+package shop.nuribooks.gateway.common.hedge;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LatencyTrackerTest {
+
+	@Test
+	@DisplayName("표본이 부족하면 기본값 사용")
+	void defaultWithoutSamplesTest() {
+		// given
+		LatencyTracker tracker = new LatencyTracker(100, 0.95, 10, 0);
+		for (int i = 0; i < 9; i++) {
+			tracker.record(1_000);
+		}
+
+		// when & then
+		assertEquals(42, tracker.quantile(0, 42));
+	}
+
+	@Test
+	@DisplayName("최근 응답 시간의 백분위 계산")
+	void quantileTest() {
+		// given
+		LatencyTracker tracker = new LatencyTracker(100, 0.95, 10, 0);
+		for (int i = 1; i <= 100; i++) {
+			tracker.record(i);
+		}
+
+		// when & then
+		assertEquals(95, tracker.quantile(0, 0));
+	}
+
+	@Test
+	@DisplayName("오래된 표본은 덮어쓰고 백분위는 갱신 주기마다 다시 계산")
+	void refreshTest() {
+		// given
+		LatencyTracker tracker = new LatencyTracker(10, 0.5, 10, 1_000);
+		for (int i = 0; i < 10; i++) {
+			tracker.record(10);
+		}
+		assertEquals(10, tracker.quantile(0, 0));
+		for (int i = 0; i < 10; i++) {
+			tracker.record(100);
+		}
+
+		// when & then
+		assertEquals(10, tracker.quantile(500, 0));
+		assertEquals(100, tracker.quantile(1_000, 0));
+	}
+}
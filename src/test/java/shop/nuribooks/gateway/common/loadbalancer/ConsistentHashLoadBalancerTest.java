@@ -0,0 +1,115 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpCookie;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ConsistentHashLoadBalancerTest {
+
+	private static final ServiceInstance DELEGATE_CHOICE =
+		new DefaultServiceInstance("delegate", "books", "localhost", 9999, false);
+
+	private final List<ServiceInstance> instances = List.of(instance("books-1"), instance("books-2"),
+		instance("books-3"));
+	private final InstanceStatsRegistry statsRegistry = new InstanceStatsRegistry(Duration.ofSeconds(10), Duration.ofMillis(50));
+	private final ConsistentHashLoadBalancer loadBalancer = loadBalancer();
+
+	private static ServiceInstance instance(String id) {
+		return new DefaultServiceInstance(id, "books", "localhost", 8080, false);
+	}
+
+	private ConsistentHashLoadBalancer loadBalancer() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("supplier", new ServiceInstanceListSupplier() {
+			@Override
+			public String getServiceId() {
+				return "books";
+			}
+
+			@Override
+			public Flux<List<ServiceInstance>> get() {
+				return Flux.just(instances);
+			}
+		});
+		ConsistentHashProperties properties = new ConsistentHashProperties();
+		properties.setPaths(List.of("/api/cart/**"));
+
+		return new ConsistentHashLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+			request -> Mono.just(new DefaultResponse(DELEGATE_CHOICE)), statsRegistry, properties);
+	}
+
+	private static DefaultRequest<RequestDataContext> request(MockServerHttpRequest.BaseBuilder<?> builder) {
+		return new DefaultRequest<>(new RequestDataContext(new RequestData(builder.build())));
+	}
+
+	private ServiceInstance choose(MockServerHttpRequest.BaseBuilder<?> builder) {
+		return loadBalancer.choose(request(builder)).block().getServer();
+	}
+
+	@Test
+	@DisplayName("같은 회원의 장바구니 요청은 항상 같은 인스턴스로")
+	void stickyMemberTest() {
+		// when
+		ServiceInstance first = choose(MockServerHttpRequest.get("/api/cart").header("X-USER-ID", "7"));
+		ServiceInstance second = choose(MockServerHttpRequest.get("/api/cart/items").header("X-USER-ID", "7"));
+
+		// then
+		assertTrue(instances.contains(first));
+		assertEquals(first, second);
+	}
+
+	@Test
+	@DisplayName("비회원은 장바구니 쿠키로 인스턴스 고정")
+	void stickyCartCookieTest() {
+		// when
+		ServiceInstance first = choose(MockServerHttpRequest.get("/api/cart")
+			.cookie(new HttpCookie("CART_ID", "abc")));
+		ServiceInstance second = choose(MockServerHttpRequest.get("/api/cart")
+			.cookie(new HttpCookie("CART_ID", "abc")));
+
+		// then
+		assertTrue(instances.contains(first));
+		assertEquals(first, second);
+	}
+
+	@Test
+	@DisplayName("지정 경로가 아니거나 키가 없으면 기본 로드밸런서 사용")
+	void delegateTest() {
+		// when & then
+		assertEquals(DELEGATE_CHOICE, choose(MockServerHttpRequest.get("/api/books").header("X-USER-ID", "7")));
+		assertEquals(DELEGATE_CHOICE, choose(MockServerHttpRequest.get("/api/cart")));
+	}
+
+	@Test
+	@DisplayName("고정 인스턴스의 처리 중 요청이 한도를 넘으면 다음 인스턴스로")
+	void boundedLoadTest() {
+		// given
+		ServiceInstance primary = choose(MockServerHttpRequest.get("/api/cart").header("X-USER-ID", "7"));
+		for (int i = 0; i < 10; i++) {
+			statsRegistry.get(primary).start();
+		}
+
+		// when
+		ServiceInstance chosen = choose(MockServerHttpRequest.get("/api/cart").header("X-USER-ID", "7"));
+
+		// then
+		assertNotEquals(primary, chosen);
+	}
+}
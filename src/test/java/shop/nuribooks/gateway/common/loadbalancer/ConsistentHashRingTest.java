@@ -0,0 +1,83 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+class ConsistentHashRingTest {
+
+	private static ServiceInstance instance(String id) {
+		return new DefaultServiceInstance(id, "books", "localhost", 8080, false);
+	}
+
+	private final List<ServiceInstance> instances = List.of(instance("books-1"), instance("books-2"),
+		instance("books-3"), instance("books-4"), instance("books-5"));
+
+	@Test
+	@DisplayName("키가 인스턴스에 고르게 분산")
+	void distributionTest() {
+		// given
+		ConsistentHashRing ring = ConsistentHashRing.of(instances, 160);
+		Map<ServiceInstance, Integer> counts = new HashMap<>();
+
+		// when
+		for (int i = 0; i < 10000; i++) {
+			counts.merge(ring.select("member:" + i, instance -> true), 1, Integer::sum);
+		}
+
+		// then
+		assertEquals(5, counts.size());
+		counts.values().forEach(count -> assertTrue(count > 1500 && count < 2500, "count: " + count));
+	}
+
+	@Test
+	@DisplayName("인스턴스가 빠지면 그 인스턴스의 키만 옮겨짐")
+	void minimalMovementTest() {
+		// given
+		ConsistentHashRing before = ConsistentHashRing.of(instances, 160);
+		ConsistentHashRing after = ConsistentHashRing.of(instances.subList(0, 4), 160);
+		ServiceInstance removed = instances.get(4);
+
+		// when & then
+		for (int i = 0; i < 10000; i++) {
+			ServiceInstance owner = before.select("member:" + i, instance -> true);
+			if (!owner.equals(removed)) {
+				assertEquals(owner, after.select("member:" + i, instance -> true));
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("조건을 만족하지 않는 인스턴스는 건너뛰고 모두 불가하면 기본 인스턴스")
+	void skipRejectedInstanceTest() {
+		// given
+		ConsistentHashRing ring = ConsistentHashRing.of(instances, 160);
+		ServiceInstance primary = ring.select("member:1", instance -> true);
+
+		// when
+		ServiceInstance next = ring.select("member:1", instance -> !instance.equals(primary));
+		ServiceInstance fallback = ring.select("member:1", instance -> false);
+
+		// then
+		assertNotEquals(primary, next);
+		assertEquals(primary, fallback);
+	}
+
+	@Test
+	@DisplayName("같은 인스턴스 구성인지 순서와 관계없이 확인")
+	void isBuiltFromTest() {
+		// given
+		ConsistentHashRing ring = ConsistentHashRing.of(instances, 16);
+
+		// when & then
+		assertTrue(ring.isBuiltFrom(instances.reversed()));
+		assertFalse(ring.isBuiltFrom(instances.subList(0, 4)));
+	}
+}
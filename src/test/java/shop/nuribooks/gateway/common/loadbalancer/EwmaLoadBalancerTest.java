@@ -0,0 +1,126 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class EwmaLoadBalancerTest {
+
+	private final InstanceStatsRegistry statsRegistry = new InstanceStatsRegistry(Duration.ofSeconds(10), Duration.ofMillis(50));
+
+	private static ServiceInstance instance(String id) {
+		return new DefaultServiceInstance(id, "books", "localhost", 8080, false);
+	}
+
+	private EwmaLoadBalancer loadBalancer(List<ServiceInstance> instances) {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("supplier", new ServiceInstanceListSupplier() {
+			@Override
+			public String getServiceId() {
+				return "books";
+			}
+
+			@Override
+			public Flux<List<ServiceInstance>> get() {
+				return Flux.just(instances);
+			}
+		});
+		return new EwmaLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), "books",
+			statsRegistry);
+	}
+
+	@Test
+	@DisplayName("지연이 큰 인스턴스는 선택 비중이 크게 줄어듦")
+	void avoidSlowInstanceTest() {
+		// given
+		ServiceInstance fast1 = instance("fast-1");
+		ServiceInstance fast2 = instance("fast-2");
+		ServiceInstance slow = instance("slow");
+		Map<ServiceInstance, Long> latencies = Map.of(
+			fast1, Duration.ofMillis(10).toNanos(),
+			fast2, Duration.ofMillis(12).toNanos(),
+			slow, Duration.ofMillis(300).toNanos());
+		EwmaLoadBalancer loadBalancer = loadBalancer(List.of(fast1, fast2, slow));
+		Map<ServiceInstance, Integer> picks = new HashMap<>();
+
+		// when
+		for (int i = 0; i < 3000; i++) {
+			ServiceInstance chosen = loadBalancer.choose(List.of(fast1, fast2, slow)).getServer();
+			InstanceStats stats = statsRegistry.get(chosen);
+			stats.start();
+			stats.complete(latencies.get(chosen), System.nanoTime());
+			if (i >= 1000) {
+				picks.merge(chosen, 1, Integer::sum);
+			}
+		}
+
+		// then
+		assertTrue(picks.getOrDefault(slow, 0) < 200, "slow picks: " + picks.get(slow));
+		assertTrue(picks.getOrDefault(fast1, 0) > 0);
+		assertTrue(picks.getOrDefault(fast2, 0) > 0);
+	}
+
+	@Test
+	@DisplayName("지연이 같으면 처리 중인 요청이 적은 인스턴스 선택")
+	void preferLessBusyInstanceTest() {
+		// given
+		ServiceInstance idle = instance("idle");
+		ServiceInstance busy = instance("busy");
+		long now = System.nanoTime();
+		statsRegistry.get(idle).observe(Duration.ofMillis(50).toNanos(), now);
+		statsRegistry.get(busy).observe(Duration.ofMillis(50).toNanos(), now);
+		for (int i = 0; i < 10; i++) {
+			statsRegistry.get(busy).start();
+		}
+
+		// when
+		Response<ServiceInstance> response = loadBalancer(List.of(idle, busy)).choose(List.of(idle, busy));
+
+		// then
+		assertSame(idle, response.getServer());
+	}
+
+	@Test
+	@DisplayName("관측이 없는 인스턴스도 처리 중인 요청이 많으면 피함")
+	void coldInstanceInFlightTest() {
+		// given
+		ServiceInstance idle = instance("cold-idle");
+		ServiceInstance busy = instance("cold-busy");
+		for (int i = 0; i < 10; i++) {
+			statsRegistry.get(busy).start();
+		}
+
+		// when
+		Response<ServiceInstance> response = loadBalancer(List.of(idle, busy)).choose(List.of(idle, busy));
+
+		// then
+		assertTrue(statsRegistry.get(busy).cost(System.nanoTime()) > 0);
+		assertSame(idle, response.getServer());
+	}
+
+	@Test
+	@DisplayName("인스턴스가 없으면 빈 응답")
+	void emptyInstancesTest() {
+		// given
+		EwmaLoadBalancer loadBalancer = loadBalancer(List.of());
+
+		// when & then
+		StepVerifier.create(loadBalancer.choose())
+			.assertNext(response -> assertFalse(response.hasServer()))
+			.verifyComplete();
+	}
+}
@@ -0,0 +1,125 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InstanceStatsLifecycleTest {
+
+	private final InstanceStatsRegistry statsRegistry = new InstanceStatsRegistry(Duration.ofSeconds(10), Duration.ofMillis(50));
+	private final OutlierDetector outlierDetector = new OutlierDetector(new SimpleMeterRegistry(), 1,
+		Duration.ofSeconds(3), Duration.ofSeconds(30), Duration.ofMinutes(5), 100);
+	private final InstanceStatsLifecycle lifecycle =
+		new InstanceStatsLifecycle(statsRegistry, outlierDetector, Duration.ofSeconds(1));
+	private final ServiceInstance instance = new DefaultServiceInstance("books-1", "books", "localhost", 8080, false);
+
+	private CompletionContext<ResponseData, ServiceInstance, RequestDataContext> complete(HttpStatus status) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books"));
+		RequestData requestData = new RequestData(exchange.getRequest());
+		DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(requestData));
+		DefaultResponse response = new DefaultResponse(instance);
+
+		lifecycle.onStartRequest(request, response);
+		exchange.getResponse().setStatusCode(status);
+
+		return new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response,
+			new ResponseData(exchange.getResponse(), requestData));
+	}
+
+	@Test
+	@DisplayName("요청 시작 시 처리 중 요청 수 증가, 종료 시 감소 및 지연 기록")
+	void recordLatencyTest() {
+		// given
+		CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context = complete(HttpStatus.OK);
+		assertEquals(1, statsRegistry.get(instance).inFlight());
+
+		// when
+		lifecycle.onComplete(context);
+
+		// then
+		InstanceStats stats = statsRegistry.get(instance);
+		assertEquals(0, stats.inFlight());
+		assertTrue(stats.ewmaNanos(System.nanoTime()) > 0);
+		assertTrue(stats.ewmaNanos(System.nanoTime()) < Duration.ofSeconds(1).toNanos());
+		assertTrue(outlierDetector.ejections().isEmpty());
+	}
+
+	@Test
+	@DisplayName("5xx 응답은 실패 지연으로 기록하고 이상 인스턴스 판단에 반영")
+	void recordFailurePenaltyTest() {
+		// given
+		outlierDetector.filter("books", List.of(instance));
+		CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context =
+			complete(HttpStatus.SERVICE_UNAVAILABLE);
+
+		// when
+		lifecycle.onComplete(context);
+
+		// then
+		assertTrue(statsRegistry.get(instance).ewmaNanos(System.nanoTime()) > Duration.ofMillis(900).toNanos());
+		assertTrue(outlierDetector.ejections().containsKey("books"));
+	}
+
+	@Test
+	@DisplayName("시작된 뒤 취소된 요청은 처리 중 요청 수만 줄이고 실패로 보지 않음")
+	void discardStartedRequestTest() {
+		// given
+		outlierDetector.filter("books", List.of(instance));
+		CompletionContext<ResponseData, ServiceInstance, RequestDataContext> started = complete(HttpStatus.OK);
+		CompletionContext<ResponseData, ServiceInstance, RequestDataContext> context = new CompletionContext<>(
+			CompletionContext.Status.DISCARD, started.getLoadBalancerRequest(), started.getLoadBalancerResponse());
+
+		// when
+		lifecycle.onComplete(context);
+
+		// then
+		assertEquals(0, statsRegistry.get(instance).inFlight());
+		assertTrue(statsRegistry.get(instance).ewmaNanos(System.nanoTime()) < Duration.ofMillis(900).toNanos());
+		assertTrue(outlierDetector.ejections().isEmpty());
+	}
+
+	@Test
+	@DisplayName("취소로 먼저 종료된 요청은 이후 onComplete 에서 다시 줄이지 않음")
+	void releaseOnceTest() {
+		// given
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books"));
+		RequestData requestData = new RequestData(exchange.getRequest(), exchange.getAttributes());
+		DefaultRequest<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(requestData));
+		DefaultResponse response = new DefaultResponse(instance);
+		lifecycle.onStartRequest(request, response);
+		statsRegistry.get(instance).start();
+
+		// when
+		lifecycle.release(exchange.getAttributes());
+		lifecycle.release(exchange.getAttributes());
+		lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+
+		// then
+		assertEquals(1, statsRegistry.get(instance).inFlight());
+	}
+
+	@Test
+	@DisplayName("라우팅 필터에 등록되는 요청/응답 타입만 지원")
+	void supportsTest() {
+		// when & then
+		assertTrue(lifecycle.supports(RequestDataContext.class, ResponseData.class, ServiceInstance.class));
+		assertFalse(lifecycle.supports(RequestDataContext.class, Object.class, ServiceInstance.class));
+	}
+}
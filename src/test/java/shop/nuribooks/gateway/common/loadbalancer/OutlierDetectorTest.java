@@ -0,0 +1,169 @@
+package shop.nuribooks.gateway.common.loadbalancer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutlierDetectorTest {
+
+	private final MutableClock clock = new MutableClock();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final OutlierDetector outlierDetector = new OutlierDetector(meterRegistry, 3, Duration.ofSeconds(1),
+		Duration.ofSeconds(10), Duration.ofSeconds(30), 50, clock);
+
+	private final ServiceInstance first = instance("books-1");
+	private final ServiceInstance second = instance("books-2");
+	private final ServiceInstance third = instance("books-3");
+	private final ServiceInstance fourth = instance("books-4");
+	private final List<ServiceInstance> pool = List.of(first, second, third, fourth);
+
+	private static ServiceInstance instance(String id) {
+		return new DefaultServiceInstance(id, "books", "localhost", 8080, false);
+	}
+
+	private void fail(ServiceInstance instance, int times) {
+		for (int i = 0; i < times; i++) {
+			outlierDetector.record(instance, Duration.ofMillis(5).toNanos(), true);
+		}
+	}
+
+	@Test
+	@DisplayName("연속 실패가 한도에 이르면 인스턴스를 제외하고 제외 시간이 지나면 복귀")
+	void ejectAfterConsecutiveFailuresTest() {
+		// given
+		outlierDetector.filter("books", pool);
+		fail(first, 2);
+
+		// when
+		outlierDetector.record(first, Duration.ofMillis(5).toNanos(), false);
+		fail(first, 2);
+		List<ServiceInstance> beforeEjection = outlierDetector.filter("books", pool);
+		fail(first, 1);
+		List<ServiceInstance> afterEjection = outlierDetector.filter("books", pool);
+		clock.advance(Duration.ofSeconds(11));
+		List<ServiceInstance> afterBackoff = outlierDetector.filter("books", pool);
+
+		// then
+		assertEquals(pool, beforeEjection);
+		assertEquals(List.of(second, third, fourth), afterEjection);
+		assertEquals(pool, afterBackoff);
+		assertEquals(1.0, meterRegistry.counter(OutlierDetector.METRIC_NAME, "service", "books").count());
+	}
+
+	@Test
+	@DisplayName("한도를 넘는 지연도 실패로 계산")
+	void ejectOnLatencySpikeTest() {
+		// given
+		outlierDetector.filter("books", pool);
+
+		// when
+		for (int i = 0; i < 3; i++) {
+			outlierDetector.record(first, Duration.ofSeconds(2).toNanos(), false);
+		}
+
+		// then
+		assertEquals(List.of(second, third, fourth), outlierDetector.filter("books", pool));
+	}
+
+	@Test
+	@DisplayName("다시 제외될 때마다 제외 시간이 두 배로 늘어나고 최대값에서 멈춤")
+	void exponentialBackoffTest() {
+		// given
+		outlierDetector.filter("books", pool);
+
+		// when & then
+		fail(first, 3);
+		assertEquals(clock.instant().plusSeconds(10), outlierDetector.ejections().get("books").get(0).ejectedUntil());
+
+		clock.advance(Duration.ofSeconds(11));
+		fail(first, 3);
+		assertEquals(clock.instant().plusSeconds(20), outlierDetector.ejections().get("books").get(0).ejectedUntil());
+
+		clock.advance(Duration.ofSeconds(21));
+		fail(first, 3);
+		assertEquals(clock.instant().plusSeconds(30), outlierDetector.ejections().get("books").get(0).ejectedUntil());
+		assertEquals(3, outlierDetector.ejections().get("books").get(0).ejections());
+	}
+
+	@Test
+	@DisplayName("오랫동안 제외되지 않으면 제외 횟수를 처음부터 셈")
+	void resetBackoffTest() {
+		// given
+		outlierDetector.filter("books", pool);
+		fail(first, 3);
+		clock.advance(Duration.ofSeconds(11));
+		fail(first, 3);
+
+		// when
+		clock.advance(Duration.ofSeconds(20 + 31));
+		fail(first, 3);
+
+		// then
+		assertEquals(1, outlierDetector.ejections().get("books").get(0).ejections());
+	}
+
+	@Test
+	@DisplayName("동시에 제외되는 인스턴스는 풀의 최대 비율을 넘지 않음")
+	void maxEjectionPercentTest() {
+		// given
+		outlierDetector.filter("books", pool);
+
+		// when
+		fail(first, 3);
+		fail(second, 3);
+		fail(third, 3);
+
+		// then
+		assertEquals(List.of(third, fourth), outlierDetector.filter("books", pool));
+		assertEquals(2, outlierDetector.ejections().get("books").size());
+	}
+
+	@Test
+	@DisplayName("인스턴스가 하나뿐이면 제외하지 않음")
+	void singleInstanceTest() {
+		// given
+		outlierDetector.filter("books", List.of(first));
+
+		// when
+		fail(first, 3);
+
+		// then
+		assertEquals(List.of(first), outlierDetector.filter("books", List.of(first)));
+		assertTrue(outlierDetector.ejections().isEmpty());
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2024-10-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneId.of("UTC");
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package shop.nuribooks.gateway.common.overload;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.util.concurrent.DefaultEventExecutor;
+
+class OverloadControllerTest {
+
+	private static OverloadProperties properties() {
+		OverloadProperties properties = new OverloadProperties();
+		properties.setMaxInFlight(4);
+		properties.setMaxEventLoopLag(Duration.ofMillis(50));
+		properties.setSampleInterval(Duration.ofHours(1));
+		return properties;
+	}
+
+	@Test
+	@DisplayName("처리 중 요청 수가 늘면 낮은 우선순위부터 버림")
+	void shedByPriorityTest() {
+		// given
+		OverloadController controller = new OverloadController(properties(), new SimpleMeterRegistry(), List.of());
+
+		// when
+		for (int i = 0; i < 4; i++) {
+			assertTrue(controller.tryAcquire(RequestPriority.LOW));
+		}
+
+		// then
+		assertEquals(1.0, controller.pressure());
+		assertFalse(controller.tryAcquire(RequestPriority.LOW));
+		assertTrue(controller.tryAcquire(RequestPriority.NORMAL));
+		assertFalse(controller.tryAcquire(RequestPriority.NORMAL));
+		assertTrue(controller.tryAcquire(RequestPriority.HIGH));
+		assertFalse(controller.tryAcquire(RequestPriority.HIGH));
+		assertTrue(controller.tryAcquire(RequestPriority.CRITICAL));
+
+		for (int i = 0; i < 4; i++) {
+			controller.release();
+		}
+		assertTrue(controller.tryAcquire(RequestPriority.LOW));
+	}
+
+	@Test
+	@DisplayName("막혀 있는 event loop 의 지연을 측정")
+	void eventLoopLagTest() throws InterruptedException {
+		// given
+		DefaultEventExecutor eventLoop = new DefaultEventExecutor();
+		OverloadController controller = new OverloadController(properties(), new SimpleMeterRegistry(),
+			List.of(eventLoop));
+		CountDownLatch release = new CountDownLatch(1);
+		eventLoop.execute(() -> {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		try {
+			// when
+			controller.sample();
+			Thread.sleep(100);
+
+			// then
+			assertTrue(controller.eventLoopLagNanos() >= Duration.ofMillis(100).toNanos());
+			assertFalse(controller.tryAcquire(RequestPriority.LOW));
+			assertTrue(controller.tryAcquire(RequestPriority.CRITICAL));
+		} finally {
+			release.countDown();
+			eventLoop.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+			controller.destroy();
+		}
+	}
+
+	@Test
+	@DisplayName("우선순위별로 버리기 시작하는 과부하 정도")
+	void shedThresholdTest() {
+		// when & then
+		assertEquals(1.0, RequestPriority.LOW.shedThreshold(0.25));
+		assertEquals(1.25, RequestPriority.NORMAL.shedThreshold(0.25));
+		assertEquals(1.5, RequestPriority.HIGH.shedThreshold(0.25));
+		assertEquals(Double.POSITIVE_INFINITY, RequestPriority.CRITICAL.shedThreshold(0.25));
+	}
+}
@@ -0,0 +1,114 @@
+package shop.nuribooks.gateway.common.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+class PooledHttpClientFactoryTest {
+
+	private static final int REQUESTS = 20;
+
+	// HTTP/2 요청을 HTTP/1.1 객체로 변환할 때 netty 가 붙이는 헤더
+	private static final String STREAM_ID_HEADER = "x-http2-stream-id";
+
+	private final List<PooledHttpClientFactory> factories = new ArrayList<>();
+	private final AtomicInteger connections = new AtomicInteger();
+	private DisposableServer server;
+
+	@AfterEach
+	void tearDown() {
+		factories.forEach(factory -> factory.getConnectionProvider().disposeLater().block());
+		if (server != null) {
+			server.disposeNow();
+		}
+	}
+
+	// 요청마다 5ms 걸리는 upstream stub, HTTP/2 스트림으로 받은 요청이면 응답 헤더에 스트림 id 를 돌려줌
+	private void startServer(HttpProtocol... protocols) {
+		server = HttpServer.create()
+			.port(0)
+			.protocol(protocols)
+			.doOnChannelInit((observer, channel, address) -> connections.incrementAndGet())
+			.route(routes -> routes.get("/api/books", (request, response) -> response
+				.header(STREAM_ID_HEADER, String.valueOf(request.requestHeaders().get(STREAM_ID_HEADER)))
+				.sendString(Mono.delay(Duration.ofMillis(5)).thenReturn("[]"))))
+			.bindNow();
+	}
+
+	private HttpClient httpClient(int maxConnections, HttpProtocol... protocols) {
+		ConnectionPoolProperties.Pool pool = new ConnectionPoolProperties.Pool();
+		pool.setProtocols(Arrays.asList(protocols));
+		pool.setMaxConnections(maxConnections);
+		pool.setPendingAcquireMaxCount(-1);
+		HttpClientProperties properties = new HttpClientProperties();
+		ServerProperties serverProperties = new ServerProperties();
+		PooledHttpClientFactory factory = new PooledHttpClientFactory("books", pool, properties, serverProperties,
+			new HttpClientSslConfigurer(properties.getSsl(), serverProperties) {
+			}, new ArrayList<>());
+		factories.add(factory);
+		return factory.create().baseUrl("http://localhost:" + server.port());
+	}
+
+	// 연결(h2c upgrade)을 먼저 연 뒤 REQUESTS 개 요청을 동시에 보내고 응답의 스트림 id 수집
+	private List<String> send(HttpClient httpClient) {
+		request(httpClient).block(Duration.ofSeconds(10));
+		return Flux.range(0, REQUESTS)
+			.flatMap(i -> request(httpClient), REQUESTS)
+			.collectList()
+			.block(Duration.ofSeconds(10));
+	}
+
+	private Mono<String> request(HttpClient httpClient) {
+		return httpClient.get()
+			.uri("/api/books")
+			.responseSingle((response, body) -> body.thenReturn(
+				String.valueOf(response.responseHeaders().get(STREAM_ID_HEADER))));
+	}
+
+	@Test
+	@DisplayName("h2c 를 지원하는 upstream 과는 적은 연결로 다중화")
+	void h2cMultiplexTest() {
+		// given
+		startServer(HttpProtocol.HTTP11, HttpProtocol.H2C);
+
+		// when
+		List<String> streamIds = send(httpClient(2, HttpProtocol.HTTP11, HttpProtocol.H2C));
+
+		// then
+		assertEquals(REQUESTS, streamIds.size());
+		assertTrue(streamIds.stream().noneMatch("null"::equals));
+		assertTrue(connections.get() <= 2, () -> "connections=" + connections.get());
+	}
+
+	@Test
+	@DisplayName("h2c 를 지원하지 않는 upstream 과는 HTTP/1.1 사용")
+	void http11FallbackTest() {
+		// given
+		startServer(HttpProtocol.HTTP11);
+
+		// when
+		List<String> streamIds = send(httpClient(2, HttpProtocol.HTTP11, HttpProtocol.H2C));
+
+		// then
+		assertEquals(REQUESTS, streamIds.size());
+		assertTrue(streamIds.stream().allMatch("null"::equals));
+	}
+}
@@ -0,0 +1,75 @@
+package shop.nuribooks.gateway.common.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+	private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+	private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 3);
+
+	@Test
+	@DisplayName("버킷 크기만큼 연속 허용 후 거절하고 기다릴 시간 반환")
+	void burstTest() {
+		// given
+		long now = 1_000L * SECOND;
+
+		// when & then
+		assertEquals(2, limiter.tryAcquire("user", now));
+		assertEquals(1, limiter.tryAcquire("user", now));
+		assertEquals(0, limiter.tryAcquire("user", now));
+		assertEquals(-SECOND / 2, limiter.tryAcquire("user", now));
+	}
+
+	@Test
+	@DisplayName("시간이 지나면 초당 채워지는 만큼 다시 허용")
+	void replenishTest() {
+		// given
+		long now = 1_000L * SECOND;
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire("user", now);
+		}
+
+		// when & then
+		assertEquals(0, limiter.tryAcquire("user", now + SECOND / 2));
+		assertTrue(limiter.tryAcquire("user", now + SECOND / 2) < 0);
+		assertEquals(2, limiter.tryAcquire("user", now + 10 * SECOND));
+	}
+
+	@Test
+	@DisplayName("키마다 버킷을 따로 사용")
+	void separateKeysTest() {
+		// given
+		long now = 1_000L * SECOND;
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire("user-1", now);
+		}
+
+		// when & then
+		assertTrue(limiter.tryAcquire("user-1", now) < 0);
+		assertEquals(2, limiter.tryAcquire("user-2", now));
+	}
+
+	@Test
+	@DisplayName("토큰이 가득 찬 버킷만 정리")
+	void sweepTest() {
+		// given
+		long now = 1_000L * SECOND;
+		limiter.tryAcquire("idle", now);
+		for (int i = 0; i < 3; i++) {
+			limiter.tryAcquire("busy", now + SECOND);
+		}
+
+		// when
+		limiter.sweep(now + SECOND);
+
+		// then
+		assertEquals(1, limiter.size());
+		assertTrue(limiter.tryAcquire("busy", now + SECOND) < 0);
+	}
+}
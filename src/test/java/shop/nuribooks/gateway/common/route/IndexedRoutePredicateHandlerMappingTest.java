@@ -0,0 +1,85 @@
+package shop.nuribooks.gateway.common.route;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Flux;
+
+class IndexedRoutePredicateHandlerMappingTest {
+
+	private final PathRoutePredicateFactory pathFactory = new PathRoutePredicateFactory();
+	private final MethodRoutePredicateFactory methodFactory = new MethodRoutePredicateFactory();
+
+	private final List<Route> routes = List.of(
+		route("books_route", null, "/api/books/**", "/api/cart/**"),
+		route("order_register_route", HttpMethod.POST, "/api/orders"),
+		route("orders_route", null, "/api/orders/**"),
+		route("member_modify", HttpMethod.PUT, "/api/members/me"),
+		route("member_route", null, "/api/members/**"),
+		route("fallback_route", null, "/**"));
+
+	// fallback_route 는 인덱스에 등록하지 않아 항상 평가 대상
+	private final RouteIndex routeIndex = RouteIndex.builder()
+		.route("books_route", "/api/books/**", "/api/cart/**")
+		.route("order_register_route", "/api/orders")
+		.route("orders_route", "/api/orders/**")
+		.route("member_modify", "/api/members/me")
+		.route("member_route", "/api/members/**")
+		.build();
+
+	private final RouteLocator routeLocator = () -> Flux.fromIterable(routes);
+	private final FilteringWebHandler webHandler = new FilteringWebHandler(List.of());
+
+	private final RoutePredicateHandlerMapping defaultMapping = new RoutePredicateHandlerMapping(webHandler,
+		routeLocator, new GlobalCorsProperties(), new MockEnvironment());
+	private final RoutePredicateHandlerMapping indexedMapping = new IndexedRoutePredicateHandlerMapping(webHandler,
+		routeLocator, new GlobalCorsProperties(), new MockEnvironment(), routeIndex);
+
+	private Route route(String id, HttpMethod method, String... patterns) {
+		var predicate = pathFactory.applyAsync(c -> c.setPatterns(List.of(patterns)));
+		if (method != null) {
+			predicate = predicate.and(methodFactory.applyAsync(c -> c.setMethods(method)));
+		}
+		return Route.async().id(id).uri("http://localhost").asyncPredicate(predicate).build();
+	}
+
+	private String lookup(RoutePredicateHandlerMapping mapping, HttpMethod method, String path) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path));
+		mapping.getHandler(exchange).block();
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		return route == null ? null : route.getId();
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"GET, /api/books/1, books_route",
+		"POST, /api/orders, order_register_route",
+		"GET, /api/orders, orders_route",
+		"GET, /api/orders/1, orders_route",
+		"PUT, /api/members/me, member_modify",
+		"GET, /api/members/me, member_route",
+		"GET, /api/unknown, fallback_route"
+	})
+	@DisplayName("인덱스를 사용해도 기본 매핑과 같은 라우트를 선택")
+	void lookupRouteTest(HttpMethod method, String path, String expectedRouteId) {
+		assertEquals(expectedRouteId, lookup(defaultMapping, method, path));
+		assertEquals(expectedRouteId, lookup(indexedMapping, method, path));
+	}
+}
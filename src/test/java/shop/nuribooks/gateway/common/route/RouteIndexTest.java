@@ -0,0 +1,58 @@
+package shop.nuribooks.gateway.common.route;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+class RouteIndexTest {
+
+	private final RouteIndex routeIndex = RouteIndex.builder()
+		.route("books_route", "/api/books/**", "/api/cart/**")
+		.route("order_register_route", "/api/orders")
+		.route("orders_route", "/api/orders/**")
+		.route("review_route", "/api/books/{bookId}/reviews")
+		.build();
+
+	private Set<String> candidates(String path) {
+		return routeIndex.candidates(PathContainer.parsePath(path));
+	}
+
+	@Test
+	@DisplayName("접두사 패턴은 하위 경로와 자기 자신을 모두 후보로 반환")
+	void prefixPatternTest() {
+		assertEquals(Set.of("books_route"), candidates("/api/cart"));
+		assertEquals(Set.of("books_route"), candidates("/api/cart/1/items"));
+	}
+
+	@Test
+	@DisplayName("정확한 패턴과 접두사 패턴이 겹치면 둘 다 후보로 반환")
+	void exactAndPrefixPatternTest() {
+		assertEquals(Set.of("order_register_route", "orders_route"), candidates("/api/orders"));
+		assertEquals(Set.of("orders_route"), candidates("/api/orders/1"));
+	}
+
+	@Test
+	@DisplayName("변수 세그먼트는 임의의 한 세그먼트와 매칭")
+	void wildcardSegmentTest() {
+		assertEquals(Set.of("books_route", "review_route"), candidates("/api/books/1/reviews"));
+		assertEquals(Set.of("books_route"), candidates("/api/books/1/authors"));
+	}
+
+	@Test
+	@DisplayName("매칭되는 패턴이 없으면 빈 집합")
+	void noCandidateTest() {
+		assertTrue(candidates("/api/unknown").isEmpty());
+		assertTrue(candidates("/").isEmpty());
+	}
+
+	@Test
+	@DisplayName("등록되지 않은 라우트는 인덱스 대상이 아님")
+	void isIndexedTest() {
+		assertTrue(routeIndex.isIndexed("books_route"));
+		assertFalse(routeIndex.isIndexed("discovery_route"));
+	}
+}
@@ -14,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 
 @SpringBootTest
@@ -90,4 +91,26 @@ class JwtUtilsTest {
 	void testValidateToken_whenExpiredToken() {
 		assertThrows(ExpiredJwtException.class, () -> jwtUtils.validateToken(expiredToken));
 	}
-}
\ No newline at end of file
+
+	@Test
+	void testVerify_whenValidToken() {
+		VerifiedClaims claims = jwtUtils.verify(validToken);
+
+		assertEquals(userId, claims.userId());
+		assertEquals(role, claims.role());
+		assertNotNull(claims.expiration());
+		assertFalse(claims.isExpiredAt(Instant.now()));
+	}
+
+	@Test
+	void testVerify_whenExpiredToken() {
+		assertThrows(ExpiredJwtException.class, () -> jwtUtils.verify(expiredToken));
+	}
+
+	@Test
+	void testVerify_whenTamperedToken() {
+		String tamperedToken = validToken.substring(0, validToken.length() - 2) + "xx";
+
+		assertThrows(JwtException.class, () -> jwtUtils.verify(tamperedToken));
+	}
+}